@@ -2,11 +2,15 @@ package com.oranba.springboot.catalog;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableCaching // Enable Spring Cache abstraction
+@EnableScheduling
+@ConfigurationPropertiesScan
 @ComponentScan(basePackages = { "com.oranba.springboot.catalog" })
 public class ProductCatalogApplication {
 
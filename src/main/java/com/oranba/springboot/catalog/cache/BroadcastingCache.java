@@ -0,0 +1,93 @@
+package com.oranba.springboot.catalog.cache;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.Cache;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends every invalidation of the local cache to the other replicas. Evictions and clears are always sent. Puts are
+ * sent as evictions only when they come from a write transaction, such as a {@code @CachePut} after an update; puts
+ * that merely cache a read leave the other nodes alone.
+ */
+public class BroadcastingCache implements Cache {
+
+    private final Cache localCache;
+    private final CacheInvalidationBus bus;
+
+    public BroadcastingCache (Cache localCache, CacheInvalidationBus bus) {
+        this.localCache = localCache;
+        this.bus = bus;
+    }
+
+    public Cache getLocalCache () {
+        return localCache;
+    }
+
+    @Override
+    public String getName () {
+        return localCache.getName();
+    }
+
+    @Override
+    public Object getNativeCache () {
+        return localCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get (Object key) {
+        return localCache.get(key);
+    }
+
+    @Override
+    public <T> T get (Object key, Class<T> type) {
+        return localCache.get(key, type);
+    }
+
+    @Override
+    public <T> T get (Object key, Callable<T> valueLoader) {
+        return localCache.get(key, valueLoader);
+    }
+
+    @Override
+    public void put (Object key, Object value) {
+        localCache.put(key, value);
+        if (isWrite()) {
+            bus.publish(CacheInvalidation.key(bus.getNodeId(), getName(), key));
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent (Object key, Object value) {
+        return localCache.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict (Object key) {
+        localCache.evict(key);
+        bus.publish(CacheInvalidation.key(bus.getNodeId(), getName(), key));
+    }
+
+    @Override
+    public boolean evictIfPresent (Object key) {
+        // Another node may hold the key even when this one does not
+        bus.publish(CacheInvalidation.key(bus.getNodeId(), getName(), key));
+        return localCache.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear () {
+        localCache.clear();
+        bus.publish(CacheInvalidation.clear(bus.getNodeId(), getName()));
+    }
+
+    @Override
+    public boolean invalidate () {
+        bus.publish(CacheInvalidation.clear(bus.getNodeId(), getName()));
+        return localCache.invalidate();
+    }
+
+    private static boolean isWrite () {
+        return TransactionSynchronizationManager.isActualTransactionActive() && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
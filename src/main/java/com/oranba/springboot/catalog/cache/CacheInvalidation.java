@@ -0,0 +1,69 @@
+package com.oranba.springboot.catalog.cache;
+
+import com.oranba.springboot.catalog.domain.model.Product;
+
+/**
+ * An invalidation broadcast to the other replicas. Keys travel as text with their type, since only {@code Long} and
+ * {@code String} keys are used; anything else is sent as a region clear.
+ *
+ * @param origin
+ *        Node that issued it; receivers ignore their own messages
+ * @param region
+ *        Cache region name
+ * @param type
+ *        What to invalidate
+ * @param key
+ *        Cache key for {@link Type#KEY}, tag for {@link Type#TAG}
+ * @param keyType
+ *        {@code long} or {@code string} for {@link Type#KEY}
+ * @param product
+ *        Product with its new stock for {@link Type#STOCK}; the new product for {@link Type#CREATED}
+ * @param issuedAt
+ *        Epoch millis on the issuing node, used for the propagation lag metric
+ */
+public record CacheInvalidation(String origin, String region, Type type, String key, String keyType, Product product, long issuedAt) {
+
+    public enum Type {
+        KEY, TAG, STOCK, CREATED, CLEAR
+    }
+
+    static final String LONG_KEY = "long";
+    static final String STRING_KEY = "string";
+
+    public static CacheInvalidation key (String origin, String region, Object key) {
+        if (key instanceof Long id) {
+            return new CacheInvalidation(origin, region, Type.KEY, id.toString(), LONG_KEY, null, System.currentTimeMillis());
+        }
+        if (key instanceof String text) {
+            return new CacheInvalidation(origin, region, Type.KEY, text, STRING_KEY, null, System.currentTimeMillis());
+        }
+        return clear(origin, region);
+    }
+
+    public static CacheInvalidation tag (String origin, String region, String tag) {
+        return new CacheInvalidation(origin, region, Type.TAG, tag, null, null, System.currentTimeMillis());
+    }
+
+    public static CacheInvalidation stock (String origin, String region, Product product) {
+        return new CacheInvalidation(origin, region, Type.STOCK, product.getId().toString(), null, product, System.currentTimeMillis());
+    }
+
+    public static CacheInvalidation created (String origin, String region, Product product) {
+        return new CacheInvalidation(origin, region, Type.CREATED, product.getId().toString(), null, product, System.currentTimeMillis());
+    }
+
+    public static CacheInvalidation clear (String origin, String region) {
+        return new CacheInvalidation(origin, region, Type.CLEAR, null, null, null, System.currentTimeMillis());
+    }
+
+    /**
+     * Message key on the compacted topic. Later invalidations of the same target supersede earlier ones.
+     */
+    public String messageKey () {
+        return key == null ? region + ":" + type : region + ":" + type + ":" + key;
+    }
+
+    public Object cacheKey () {
+        return LONG_KEY.equals(keyType) ? Long.valueOf(key) : key;
+    }
+}
@@ -0,0 +1,128 @@
+package com.oranba.springboot.catalog.cache;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oranba.springboot.catalog.config.CacheInvalidationProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Publishes cache invalidations to the other replicas over a compacted Kafka topic. Invalidations are buffered per
+ * target for a short window so a burst against one key is sent once, and are sent from a dedicated thread so a slow
+ * or unavailable broker never holds up the write that caused them.
+ */
+@Component
+public class CacheInvalidationBus implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    // Identifies this replica in the messages it sends; fresh per start, since a restarted node has an empty cache
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final CacheInvalidationProperties properties;
+
+    private final Map<String, CacheInvalidation> pending = new ConcurrentHashMap<>();
+
+    private final Counter publishedCounter;
+    private final Counter coalescedCounter;
+
+    private ScheduledExecutorService publisher;
+
+    public CacheInvalidationBus (KafkaTemplate<String, String> kafkaTemplate,
+                                 ObjectMapper objectMapper,
+                                 CacheInvalidationProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+
+        this.publishedCounter = Counter.builder("cache.invalidation.published")
+                                       .description("Cache invalidations sent to other replicas")
+                                       .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("cache.invalidation.coalesced")
+                                       .description("Cache invalidations merged into one already waiting to be sent")
+                                       .register(meterRegistry);
+    }
+
+    public String getNodeId () {
+        return nodeId;
+    }
+
+    public void publish (CacheInvalidation invalidation) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (pending.put(invalidation.messageKey(), invalidation) != null) {
+            coalescedCounter.increment();
+        }
+    }
+
+    @Override
+    public void start () {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        publisher = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "cache-invalidation-publisher"));
+        long window = properties.getCoalesceWindow().toMillis();
+        publisher.scheduleWithFixedDelay(this::flush, window, window, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop () {
+        if (publisher == null) {
+            return;
+        }
+        publisher.shutdown();
+        try {
+            publisher.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        publisher = null;
+    }
+
+    @Override
+    public boolean isRunning () {
+        return publisher != null;
+    }
+
+    private void flush () {
+        for (String messageKey : pending.keySet()) {
+            CacheInvalidation invalidation = pending.remove(messageKey);
+            if (invalidation == null) {
+                continue;
+            }
+            try {
+                kafkaTemplate.send(properties.getTopic(), messageKey, objectMapper.writeValueAsString(invalidation))
+                             .whenComplete((result, ex) -> {
+                                 if (ex != null) {
+                                     logger.warn("Failed to broadcast cache invalidation {}: {}", messageKey, ex.getMessage());
+                                 }
+                             });
+                publishedCounter.increment();
+            }
+            catch (JsonProcessingException | RuntimeException e) {
+                // Other nodes fall back to their region TTLs for this entry
+                logger.warn("Failed to broadcast cache invalidation {}", messageKey, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.oranba.springboot.catalog.cache;
+
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.PartitionOffset;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oranba.springboot.catalog.config.CacheConfig;
+import com.oranba.springboot.catalog.service.CategoryTreeIndex;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Applies invalidations broadcast by other replicas to this node's local caches. Every replica assigns itself all
+ * partitions of the topic rather than joining a consumer group, and seeks to their end on start: a node that just
+ * started has nothing cached that older messages could invalidate. The group id is only a fixed name for the
+ * offsets the container commits, so restarts do not leave one abandoned group behind per node start.
+ */
+@Component
+public class CacheInvalidationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
+    private final CacheManager cacheManager;
+    private final CacheInvalidationBus bus;
+    private final ProductCacheInvalidator productCacheInvalidator;
+    private final ProductExistenceFilter productExistenceFilter;
+    private final CategoryTreeIndex categoryTreeIndex;
+    private final ObjectMapper objectMapper;
+
+    private final Timer lagTimer;
+
+    public CacheInvalidationListener (CacheManager cacheManager,
+                                      CacheInvalidationBus bus,
+                                      ProductCacheInvalidator productCacheInvalidator,
+                                      ProductExistenceFilter productExistenceFilter,
+                                      CategoryTreeIndex categoryTreeIndex,
+                                      ObjectMapper objectMapper,
+                                      MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.bus = bus;
+        this.productCacheInvalidator = productCacheInvalidator;
+        this.productExistenceFilter = productExistenceFilter;
+        this.categoryTreeIndex = categoryTreeIndex;
+        this.objectMapper = objectMapper;
+
+        // Measured against the sender's wall clock, so it includes any clock skew between nodes
+        this.lagTimer = Timer.builder("cache.invalidation.lag")
+                             .description("Time from issuing a cache invalidation to applying it on another replica")
+                             .publishPercentileHistogram()
+                             .register(meterRegistry);
+    }
+
+    @KafkaListener(topicPartitions = @TopicPartition(topic = "${catalog.cache.invalidation.topic:cache-invalidations}",
+                                                     partitions = "#{'0-' + (${catalog.cache.invalidation.partitions:3} - 1)}",
+                                                     partitionOffsets = @PartitionOffset(partition = "*", initialOffset = "0",
+                                                                                         seekPosition = "END")),
+                   groupId = "${spring.application.name}-cache-invalidation",
+                   autoStartup = "${catalog.cache.invalidation.enabled:true}")
+    public void onInvalidation (String message) {
+        CacheInvalidation invalidation;
+        try {
+            invalidation = objectMapper.readValue(message, CacheInvalidation.class);
+        }
+        catch (JsonProcessingException e) {
+            logger.warn("Ignoring malformed cache invalidation: {}", message, e);
+            return;
+        }
+
+        if (bus.getNodeId().equals(invalidation.origin())) {
+            return;
+        }
+
+        Cache cache = LocalCaches.get(cacheManager, invalidation.region());
+        if (cache == null) {
+            return;
+        }
+
+        switch (invalidation.type()) {
+            case KEY -> cache.evict(invalidation.cacheKey());
+            case TAG -> productCacheInvalidator.evictLocally(invalidation.region(), invalidation.key());
+            case STOCK -> productCacheInvalidator.refreshLocally(invalidation.product());
+            case CREATED -> productExistenceFilter.addAndEvict(invalidation.product());
+            case CLEAR -> cache.clear();
+        }
+        if (invalidation.type() == CacheInvalidation.Type.CLEAR && CacheConfig.CATEGORIES_CACHE.equals(invalidation.region())) {
+            // Category writes clear the region; the tree they changed is re-read here
+            categoryTreeIndex.rebuild();
+        }
+
+        lagTimer.record(Math.max(0, System.currentTimeMillis() - invalidation.issuedAt()), TimeUnit.MILLISECONDS);
+    }
+}
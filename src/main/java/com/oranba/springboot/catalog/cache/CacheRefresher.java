@@ -0,0 +1,25 @@
+package com.oranba.springboot.catalog.cache;
+
+/**
+ * Reads entries of a refresh-ahead region straight from their source, for the region's background refreshes. The
+ * bean that owns the cached methods provides it, so a refresh never replays the proxied call of the reader that
+ * found the entry stale.
+ */
+public interface CacheRefresher {
+
+    /**
+     * @return the region whose entries this reloads
+     */
+    String getCacheName ();
+
+    /**
+     * @return {@code true} when the key's entry may be served stale while it is reloaded; other keys are evicted and
+     *         loaded by the next reader
+     */
+    boolean isRefreshable (Object key);
+
+    /**
+     * Read the current value of a refreshable key, bypassing the cache.
+     */
+    Object reload (Object key);
+}
@@ -0,0 +1,84 @@
+package com.oranba.springboot.catalog.cache;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.oranba.springboot.catalog.config.CacheMonitoringProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per-region lookup and removal statistics that Caffeine's own stats do not provide:
+ * <ul>
+ * <li>sampled top-K sketches of hit and missed keys, in constant memory;</li>
+ * <li>removals by cause, so explicit evictions ({@code @CacheEvict}, invalidations from other nodes) are told apart from
+ * size and expiry evictions, which Caffeine counts together.</li>
+ * </ul>
+ */
+public class CacheRegionMonitor {
+
+    // Counters kept per sketch for each reported key, trading memory for accuracy near the cut-off
+    private static final int SKETCH_OVERSIZE = 4;
+
+    private final CacheMonitoringProperties properties;
+    private final KeySketch hotKeys;
+    private final KeySketch missKeys;
+    private final Map<RemovalCause, Counter> removalCounters = new EnumMap<>(RemovalCause.class);
+
+    public CacheRegionMonitor (String name, CacheMonitoringProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.hotKeys = new KeySketch(properties.getTopKeys() * SKETCH_OVERSIZE);
+        this.missKeys = new KeySketch(properties.getTopKeys() * SKETCH_OVERSIZE);
+
+        for (RemovalCause cause : RemovalCause.values()) {
+            removalCounters.put(cause, Counter.builder("cache.removals")
+                                              .description("Entries removed from the cache, by cause")
+                                              .tag("cache", name)
+                                              .tag("cause", cause.name().toLowerCase(Locale.ROOT))
+                                              .register(meterRegistry));
+        }
+    }
+
+    public void recordHit (Object key) {
+        if (sampled()) {
+            hotKeys.add(key);
+        }
+    }
+
+    public void recordMiss (Object key) {
+        if (sampled()) {
+            missKeys.add(key);
+        }
+    }
+
+    public void recordRemoval (RemovalCause cause) {
+        removalCounters.get(cause).increment();
+    }
+
+    public List<KeySketch.Estimate> hotKeys () {
+        return hotKeys.top(properties.getTopKeys(), properties.getSampleRate());
+    }
+
+    public List<KeySketch.Estimate> missKeys () {
+        return missKeys.top(properties.getTopKeys(), properties.getSampleRate());
+    }
+
+    /**
+     * @return removals since startup, keyed by lower-case cause
+     */
+    public Map<String, Long> removals () {
+        Map<String, Long> removals = new LinkedHashMap<>();
+        removalCounters.forEach((cause, counter) -> removals.put(cause.name().toLowerCase(Locale.ROOT), (long) counter.count()));
+        return removals;
+    }
+
+    private boolean sampled () {
+        return properties.getSampleRate() <= 1 || ThreadLocalRandom.current().nextInt(properties.getSampleRate()) == 0;
+    }
+}
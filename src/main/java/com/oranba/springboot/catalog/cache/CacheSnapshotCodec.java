@@ -0,0 +1,262 @@
+package com.oranba.springboot.catalog.cache;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.oranba.springboot.catalog.domain.model.Category;
+import com.oranba.springboot.catalog.domain.model.Product;
+
+/**
+ * Binary snapshot format. Each product and category is written once, in a table at the head of the file, and cache
+ * entries refer to them by ID. Plain length-prefixed fields keep decoding to sequential reads with no reflection, and
+ * the file is decoded from one buffer holding all of it, so strings are built straight from the file's bytes.
+ */
+final class CacheSnapshotCodec {
+
+    // Version 1 also held listings; such files are rejected and the node starts cold
+    private static final int MAGIC = 0x43435332; // "CCS2"
+
+    private static final byte KEY_LONG = 1;
+    private static final byte KEY_STRING = 2;
+
+    private static final byte VALUE_PRODUCT = 1;
+    private static final byte VALUE_CATEGORY = 2;
+
+    sealed interface Value permits ProductRef, CategoryRef {
+    }
+
+    record ProductRef(long id) implements Value {
+    }
+
+    record CategoryRef(long id) implements Value {
+    }
+
+    record Entry(Object key, Value value) {
+    }
+
+    record Snapshot(long writtenAt, Map<Long, Product> products, Map<Long, Category> categories, Map<String, List<Entry>> regions) {
+    }
+
+    private CacheSnapshotCodec () {
+    }
+
+    static void write (Snapshot snapshot, DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeLong(snapshot.writtenAt());
+
+        out.writeInt(snapshot.products().size());
+        for (Product product : snapshot.products().values()) {
+            writeProduct(product, out);
+        }
+        out.writeInt(snapshot.categories().size());
+        for (Category category : snapshot.categories().values()) {
+            writeCategory(category, out);
+        }
+
+        out.writeInt(snapshot.regions().size());
+        for (Map.Entry<String, List<Entry>> region : snapshot.regions().entrySet()) {
+            writeString(region.getKey(), out);
+            out.writeInt(region.getValue().size());
+            for (Entry entry : region.getValue()) {
+                writeKey(entry.key(), out);
+                writeValue(entry.value(), out);
+            }
+        }
+    }
+
+    static Snapshot read (ByteBuffer in) throws IOException {
+        if (in.remaining() < Integer.BYTES || in.getInt() != MAGIC) {
+            throw new IOException("Not a cache snapshot");
+        }
+        long writtenAt = in.getLong();
+
+        int productCount = in.getInt();
+        Map<Long, Product> products = new HashMap<>(productCount * 2);
+        for (int i = 0; i < productCount; i++) {
+            Product product = readProduct(in);
+            products.put(product.getId(), product);
+        }
+        int categoryCount = in.getInt();
+        Map<Long, Category> categories = new HashMap<>(categoryCount * 2);
+        for (int i = 0; i < categoryCount; i++) {
+            Category category = readCategory(in);
+            categories.put(category.getId(), category);
+        }
+
+        int regionCount = in.getInt();
+        Map<String, List<Entry>> regions = new LinkedHashMap<>();
+        for (int i = 0; i < regionCount; i++) {
+            String name = readString(in);
+            int entryCount = in.getInt();
+            List<Entry> entries = new ArrayList<>(entryCount);
+            for (int j = 0; j < entryCount; j++) {
+                entries.add(new Entry(readKey(in), readValue(in)));
+            }
+            regions.put(name, entries);
+        }
+        return new Snapshot(writtenAt, products, categories, regions);
+    }
+
+    static boolean isSupportedKey (Object key) {
+        return key instanceof Long || key instanceof String;
+    }
+
+    private static void writeKey (Object key, DataOutputStream out) throws IOException {
+        if (key instanceof Long id) {
+            out.writeByte(KEY_LONG);
+            out.writeLong(id);
+        }
+        else {
+            out.writeByte(KEY_STRING);
+            writeString((String) key, out);
+        }
+    }
+
+    private static Object readKey (ByteBuffer in) throws IOException {
+        byte type = in.get();
+        return switch (type) {
+            case KEY_LONG -> in.getLong();
+            case KEY_STRING -> readString(in);
+            default -> throw new IOException("Unknown key type " + type);
+        };
+    }
+
+    private static void writeValue (Value value, DataOutputStream out) throws IOException {
+        switch (value) {
+            case ProductRef ref -> {
+                out.writeByte(VALUE_PRODUCT);
+                out.writeLong(ref.id());
+            }
+            case CategoryRef ref -> {
+                out.writeByte(VALUE_CATEGORY);
+                out.writeLong(ref.id());
+            }
+        }
+    }
+
+    private static Value readValue (ByteBuffer in) throws IOException {
+        byte type = in.get();
+        return switch (type) {
+            case VALUE_PRODUCT -> new ProductRef(in.getLong());
+            case VALUE_CATEGORY -> new CategoryRef(in.getLong());
+            default -> throw new IOException("Unknown value type " + type);
+        };
+    }
+
+    private static void writeProduct (Product product, DataOutputStream out) throws IOException {
+        out.writeLong(product.getId());
+        writeString(product.getSku(), out);
+        writeString(product.getName(), out);
+        writeString(product.getDescription(), out);
+        writeString(product.getPrice() == null ? null : product.getPrice().toString(), out);
+        writeLong(product.getCategoryId(), out);
+        writeInt(product.getInventory(), out);
+        writeString(product.getImageUrl(), out);
+        out.writeByte(product.getIsActive() == null ? -1 : product.getIsActive() ? 1 : 0);
+        writeTimestamp(product.getCreatedAt(), out);
+        writeTimestamp(product.getUpdatedAt(), out);
+    }
+
+    private static Product readProduct (ByteBuffer in) {
+        Product product = new Product();
+        product.setId(in.getLong());
+        product.setSku(readString(in));
+        product.setName(readString(in));
+        product.setDescription(readString(in));
+        String price = readString(in);
+        product.setPrice(price == null ? null : new BigDecimal(price));
+        product.setCategoryId(readLong(in));
+        product.setInventory(readInt(in));
+        product.setImageUrl(readString(in));
+        byte active = in.get();
+        product.setIsActive(active < 0 ? null : active == 1);
+        product.setCreatedAt(readTimestamp(in));
+        product.setUpdatedAt(readTimestamp(in));
+        return product;
+    }
+
+    private static void writeCategory (Category category, DataOutputStream out) throws IOException {
+        out.writeLong(category.getId());
+        writeString(category.getName(), out);
+        writeString(category.getDescription(), out);
+        writeLong(category.getParentCategoryId(), out);
+        writeTimestamp(category.getCreatedAt(), out);
+        writeTimestamp(category.getUpdatedAt(), out);
+    }
+
+    private static Category readCategory (ByteBuffer in) {
+        Category category = new Category();
+        category.setId(in.getLong());
+        category.setName(readString(in));
+        category.setDescription(readString(in));
+        category.setParentCategoryId(readLong(in));
+        category.setCreatedAt(readTimestamp(in));
+        category.setUpdatedAt(readTimestamp(in));
+        return category;
+    }
+
+    // Length-prefixed UTF-8; writeUTF caps strings at 64 KB, which descriptions can exceed
+    private static void writeString (String value, DataOutputStream out) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString (ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static void writeInt (Integer value, DataOutputStream out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInt (ByteBuffer in) {
+        return in.get() != 0 ? in.getInt() : null;
+    }
+
+    private static void writeLong (Long value, DataOutputStream out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong (ByteBuffer in) {
+        return in.get() != 0 ? in.getLong() : null;
+    }
+
+    private static void writeTimestamp (LocalDateTime value, DataOutputStream out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readTimestamp (ByteBuffer in) {
+        return in.get() != 0 ? LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC) : null;
+    }
+}
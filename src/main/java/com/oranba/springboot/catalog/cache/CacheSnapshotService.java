@@ -0,0 +1,239 @@
+package com.oranba.springboot.catalog.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.oranba.springboot.catalog.cache.CacheSnapshotCodec.CategoryRef;
+import com.oranba.springboot.catalog.cache.CacheSnapshotCodec.Entry;
+import com.oranba.springboot.catalog.cache.CacheSnapshotCodec.ProductRef;
+import com.oranba.springboot.catalog.cache.CacheSnapshotCodec.Snapshot;
+import com.oranba.springboot.catalog.cache.CacheSnapshotCodec.Value;
+import com.oranba.springboot.catalog.config.CacheSnapshotProperties;
+import com.oranba.springboot.catalog.domain.model.Category;
+import com.oranba.springboot.catalog.domain.model.Product;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Writes the hottest entries of each cache region to a local file periodically and on shutdown, and loads them back
+ * on startup so a freshly deployed node does not send its first minutes of traffic straight to the database.
+ * <p>
+ * Only entries holding a single product or category are kept. Restored rows are checked against the current
+ * {@code updated_at} of their table in one query per table, and entries whose row has changed or gone since are
+ * dropped. Listings are not kept: nothing in their rows shows that a product was created or moved into them since.
+ */
+@Component
+public class CacheSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheSnapshotService.class);
+
+    private final CacheManager cacheManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheSnapshotProperties properties;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile boolean restored;
+
+    public CacheSnapshotService (CacheManager cacheManager, JdbcTemplate jdbcTemplate, CacheSnapshotProperties properties) {
+        this.cacheManager = cacheManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * Whether startup restore has finished (or was not needed); readiness waits on this.
+     */
+    public boolean isRestored () {
+        return restored;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void restore () {
+        try {
+            Path path = properties.getPath();
+            if (properties.isEnabled() && Files.isRegularFile(path)) {
+                restore(path);
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            // A missing or unreadable snapshot only costs a cold start
+            logger.warn("Could not restore cache snapshot from {}", properties.getPath(), e);
+        }
+        finally {
+            restored = true;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.cache.snapshot.interval:5m}", initialDelayString = "${catalog.cache.snapshot.interval:5m}")
+    public void save () {
+        // Never overwrite a snapshot that has not been read yet with a cold cache
+        if (!properties.isEnabled() || !restored) {
+            return;
+        }
+
+        writeLock.lock();
+        try {
+            long start = System.nanoTime();
+            Snapshot snapshot = capture();
+
+            Path path = properties.getPath().toAbsolutePath();
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                CacheSnapshotCodec.write(snapshot, out);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            logger.info("Wrote cache snapshot with {} entries to {} in {} ms", snapshot.regions().values().stream().mapToInt(List::size).sum(),
+                        path, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        }
+        catch (IOException | RuntimeException e) {
+            logger.warn("Could not write cache snapshot to {}", properties.getPath(), e);
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void saveOnShutdown () {
+        save();
+    }
+
+    private Snapshot capture () {
+        Map<Long, Product> products = new HashMap<>();
+        Map<Long, Category> categories = new HashMap<>();
+        Map<String, List<Entry>> regions = new LinkedHashMap<>();
+
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = LocalCaches.get(cacheManager, name);
+            if (cache == null || !(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache)) {
+                continue;
+            }
+
+            List<Entry> entries = new ArrayList<>();
+            hottest(nativeCache).forEach((key, value) -> {
+                if (CacheSnapshotCodec.isSupportedKey(key)) {
+                    Value encoded = encode(value, products, categories);
+                    if (encoded != null) {
+                        entries.add(new Entry(key, encoded));
+                    }
+                }
+            });
+            regions.put(name, entries);
+        }
+        return new Snapshot(System.currentTimeMillis(), products, categories, regions);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Object, Object> hottest (com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+        var cache = (com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache;
+        return cache.policy().eviction().map(eviction -> eviction.hottest(properties.getEntriesPerRegion())).orElse(Map.of());
+    }
+
+    private static Value encode (Object value, Map<Long, Product> products, Map<Long, Category> categories) {
+        if (value instanceof Product product) {
+            products.put(product.getId(), product);
+            return new ProductRef(product.getId());
+        }
+        if (value instanceof Category category) {
+            categories.put(category.getId(), category);
+            return new CategoryRef(category.getId());
+        }
+        // Listings cannot be checked for membership changes on restore; cached nulls are cheap to recompute
+        return null;
+    }
+
+    private void restore (Path path) throws IOException {
+        long start = System.nanoTime();
+
+        Snapshot snapshot = CacheSnapshotCodec.read(ByteBuffer.wrap(Files.readAllBytes(path)));
+
+        Duration age = Duration.ofMillis(System.currentTimeMillis() - snapshot.writtenAt());
+        if (age.compareTo(properties.getMaxAge()) > 0) {
+            logger.info("Ignoring cache snapshot {} written {} ago", path, age);
+            return;
+        }
+
+        Set<Long> currentProducts = unchanged("products", snapshot.products(), Product::getUpdatedAt);
+        Set<Long> currentCategories = unchanged("categories", snapshot.categories(), Category::getUpdatedAt);
+
+        int restoredEntries = 0;
+        int staleEntries = 0;
+        for (Map.Entry<String, List<Entry>> region : snapshot.regions().entrySet()) {
+            Cache cache = cacheManager.getCacheNames().contains(region.getKey()) ? LocalCaches.get(cacheManager, region.getKey()) : null;
+            if (cache == null) {
+                continue;
+            }
+            for (Entry entry : region.getValue()) {
+                Object value = decode(entry.value(), snapshot, currentProducts, currentCategories);
+                if (value == null) {
+                    staleEntries++;
+                }
+                else {
+                    cache.put(entry.key(), value);
+                    restoredEntries++;
+                }
+            }
+        }
+
+        logger.info("Restored {} cache entries from {} in {} ms ({} dropped as changed since the snapshot)", restoredEntries, path,
+                    Duration.ofNanos(System.nanoTime() - start).toMillis(), staleEntries);
+    }
+
+    private static Object decode (Value value, Snapshot snapshot, Set<Long> currentProducts, Set<Long> currentCategories) {
+        return switch (value) {
+            case ProductRef ref -> currentProducts.contains(ref.id()) ? snapshot.products().get(ref.id()) : null;
+            case CategoryRef ref -> currentCategories.contains(ref.id()) ? snapshot.categories().get(ref.id()) : null;
+        };
+    }
+
+    // IDs whose row still exists with the updated_at recorded in the snapshot
+    private <T> Set<Long> unchanged (String table, Map<Long, T> rows, Function<T, LocalDateTime> version) {
+        if (rows.isEmpty()) {
+            return Set.of();
+        }
+        Long[] ids = rows.keySet().toArray(new Long[0]);
+
+        Set<Long> unchanged = new HashSet<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("SELECT id, updated_at FROM " + table + " WHERE id = ANY(?)");
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            return ps;
+        }, rs -> {
+            long id = rs.getLong(1);
+            if (Objects.equals(rs.getObject(2, LocalDateTime.class), version.apply(rows.get(id)))) {
+                unchanged.add(id);
+            }
+        });
+        return unchanged;
+    }
+}
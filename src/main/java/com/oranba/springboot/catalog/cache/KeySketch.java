@@ -0,0 +1,78 @@
+package com.oranba.springboot.catalog.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving sketch of the most frequent keys in a stream, holding a fixed number of counters however many distinct
+ * keys it sees. A key that is not tracked replaces the least counted one and inherits its count as the error bound, so
+ * every key seen more often than {@code stream length / capacity} times is guaranteed to be tracked.
+ */
+public final class KeySketch {
+
+    private final int capacity;
+    private final Map<Object, Counter> counters;
+
+    KeySketch (int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    synchronized void add (Object key) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count++;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new Counter(1, 0));
+            return;
+        }
+
+        Map.Entry<Object, Counter> min = null;
+        for (Map.Entry<Object, Counter> entry : counters.entrySet()) {
+            if (min == null || entry.getValue().count < min.getValue().count) {
+                min = entry;
+            }
+        }
+        Counter evicted = counters.remove(min.getKey());
+        counters.put(key, new Counter(evicted.count + 1, evicted.count));
+    }
+
+    /**
+     * @param limit
+     *        Maximum number of keys returned
+     * @param scale
+     *        Factor applied to the counts, to undo sampling
+     * @return the most counted keys, highest first
+     */
+    synchronized List<Estimate> top (int limit, long scale) {
+        List<Estimate> estimates = new ArrayList<>(counters.size());
+        counters.forEach((key, counter) -> estimates.add(new Estimate(String.valueOf(key), counter.count * scale, counter.error * scale)));
+        estimates.sort(Comparator.comparingLong(Estimate::count).reversed());
+        return estimates.size() > limit ? List.copyOf(estimates.subList(0, limit)) : estimates;
+    }
+
+    /**
+     * @param count
+     *        Estimated occurrences, never below the true count
+     * @param error
+     *        Maximum overestimate included in the count
+     */
+    public record Estimate(String key, long count, long error) {
+    }
+
+    private static final class Counter {
+
+        private long count;
+        private final long error;
+
+        private Counter (long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.oranba.springboot.catalog.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+
+/**
+ * Access to a region's node-local cache, beneath the transaction-aware and broadcasting decorators. Changes made
+ * through it are neither deferred to commit nor sent to other replicas, but still go through the region's loading
+ * policy, so a region that serves stale values on invalidation does so for remote invalidations too.
+ */
+public final class LocalCaches {
+
+    private LocalCaches () {
+    }
+
+    public static Cache get (CacheManager cacheManager, String name) {
+        Cache cache = cacheManager.getCache(name);
+        while (true) {
+            if (cache instanceof TransactionAwareCacheDecorator decorator) {
+                cache = decorator.getTargetCache();
+            }
+            else if (cache instanceof BroadcastingCache broadcasting) {
+                cache = broadcasting.getLocalCache();
+            }
+            else {
+                return cache;
+            }
+        }
+    }
+
+    /**
+     * Find the layer of the given type in a region's local decorator stack.
+     *
+     * @return the layer, or {@code null} when the region has none of that type
+     */
+    public static <T extends Cache> T find (CacheManager cacheManager, String name, Class<T> type) {
+        Cache cache = get(cacheManager, name);
+        while (cache != null && !type.isInstance(cache)) {
+            cache = cache instanceof SingleFlightCache singleFlight ? singleFlight.getDelegate() : null;
+        }
+        return type.cast(cache);
+    }
+}
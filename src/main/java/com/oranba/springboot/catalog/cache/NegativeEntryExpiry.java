@@ -0,0 +1,43 @@
+package com.oranba.springboot.catalog.cache;
+
+import java.time.Duration;
+
+import org.springframework.cache.support.NullValue;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Expire-after-write policy that gives cached "not found" results a shorter lifetime than real entries, so a miss
+ * cached for a product created soon after is not served for long.
+ */
+public class NegativeEntryExpiry implements Expiry<Object, Object> {
+
+    private final long entryNanos;
+    private final long negativeNanos;
+
+    /**
+     * @param expireAfterWrite
+     *        Lifetime of real entries, or {@code null} for no expiry
+     * @param negativeTtl
+     *        Lifetime of cached nulls
+     */
+    public NegativeEntryExpiry (Duration expireAfterWrite, Duration negativeTtl) {
+        this.entryNanos = expireAfterWrite == null ? Long.MAX_VALUE : expireAfterWrite.toNanos();
+        this.negativeNanos = negativeTtl.toNanos();
+    }
+
+    @Override
+    public long expireAfterCreate (Object key, Object value, long currentTime) {
+        return value instanceof NullValue ? negativeNanos : entryNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate (Object key, Object value, long currentTime, long currentDuration) {
+        return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead (Object key, Object value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
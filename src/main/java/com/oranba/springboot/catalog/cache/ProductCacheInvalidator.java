@@ -0,0 +1,208 @@
+package com.oranba.springboot.catalog.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.oranba.springboot.catalog.config.CacheConfig;
+import com.oranba.springboot.catalog.domain.model.Product;
+import com.oranba.springboot.catalog.service.CategoryTreeIndex;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Targeted invalidation of the products listing region. Writes evict only the listings tagged with the product or
+ * category they touch, including subtree listings of the category's ancestors, and stock changes rewrite the affected
+ * listings in place rather than evicting them, except listings sorted by stock or last update. All work runs after the surrounding transaction commits, and is
+ * repeated on the other replicas through the {@link CacheInvalidationBus}.
+ */
+@Component
+public class ProductCacheInvalidator {
+
+    private final CacheManager cacheManager;
+    private final CacheInvalidationBus bus;
+    private final CategoryTreeIndex categoryTreeIndex;
+
+    private final Counter evictedEntries;
+    private final Counter refreshedEntries;
+
+    public ProductCacheInvalidator (CacheManager cacheManager,
+                                    CacheInvalidationBus bus,
+                                    CategoryTreeIndex categoryTreeIndex,
+                                    MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.bus = bus;
+        this.categoryTreeIndex = categoryTreeIndex;
+
+        this.evictedEntries = Counter.builder("cache.tag.evictions")
+                                     .description("Listing entries evicted by tag")
+                                     .tag("cache", CacheConfig.PRODUCTS_CACHE)
+                                     .register(meterRegistry);
+        this.refreshedEntries = Counter.builder("cache.tag.refreshes")
+                                       .description("Listing entries whose stock was rewritten in place")
+                                       .tag("cache", CacheConfig.PRODUCTS_CACHE)
+                                       .register(meterRegistry);
+    }
+
+    /**
+     * A product was created; listings of its category and unscoped listings may now include it.
+     */
+    public void productCreated (Product product) {
+        evict(tags(null, product.getCategoryId()));
+    }
+
+    /**
+     * A product's listed attributes changed. Listings containing it, listings of its old and new category, and
+     * unscoped listings are evicted.
+     *
+     * @param previousCategoryId
+     *        Category before the change, or {@code null} when it did not change
+     */
+    public void productChanged (Product product, Long previousCategoryId) {
+        Set<String> tags = tags(product.getId(), product.getCategoryId());
+        if (previousCategoryId != null) {
+            tags.add(ProductListingTags.category(previousCategoryId));
+            addSubtreeTags(tags, previousCategoryId);
+        }
+        evict(tags);
+    }
+
+    /**
+     * The category tree changed shape under the given categories; their subtree listings and those of their ancestors
+     * may now cover different products.
+     */
+    public void categoryTreeChanged (Collection<Long> categoryIds) {
+        Set<String> tags = new LinkedHashSet<>();
+        categoryIds.forEach(categoryId -> addSubtreeTags(tags, categoryId));
+        evict(tags);
+    }
+
+    /**
+     * Stock of the products was decremented. Listings containing the products get the new rows; membership only
+     * changes for stock-filtered listings, and only if a product sold out.
+     *
+     * @param products
+     *        Products as they are after the change
+     */
+    public void inventoryChanged (Collection<Product> products) {
+        boolean soldOut = products.stream().anyMatch(product -> product.getInventory() <= 0);
+        refresh(products, soldOut);
+    }
+
+    /**
+     * Stock of a product was adjusted in either direction. Stock-filtered listings are evicted only when the product
+     * sold out or came back into stock.
+     *
+     * @param product
+     *        Product as it is after the change
+     * @param delta
+     *        Stock change that was applied
+     */
+    public void inventoryAdjusted (Product product, int delta) {
+        boolean wasInStock = product.getInventory() - delta > 0;
+        boolean isInStock = product.getInventory() > 0;
+        refresh(List.of(product), wasInStock != isInStock);
+    }
+
+    /**
+     * Evict this node's listings carrying the tag, without broadcasting.
+     */
+    public void evictLocally (String region, String tag) {
+        TaggedCache tagged = LocalCaches.find(cacheManager, region, TaggedCache.class);
+        if (tagged != null) {
+            evictedEntries.increment(tagged.evictTagged(Set.of(tag)));
+        }
+    }
+
+    /**
+     * Rewrite this node's listings containing the product with its current row, without broadcasting. Listings sorted
+     * by stock or last update are evicted instead, since the change may have moved the product between their pages.
+     */
+    public void refreshLocally (Product product) {
+        TaggedCache listings = LocalCaches.find(cacheManager, CacheConfig.PRODUCTS_CACHE, TaggedCache.class);
+        if (listings != null) {
+            evictedEntries.increment(listings.evictTagged(Set.of(ProductListingTags.STOCK_ORDERED)));
+            int updated = listings.updateTagged(ProductListingTags.product(product.getId()), value -> withProduct(value, product));
+            refreshedEntries.increment(updated);
+        }
+    }
+
+    private void refresh (Collection<Product> products, boolean availabilityChanged) {
+        Map<Long, Product> fresh = products.stream().collect(Collectors.toMap(Product::getId, Function.identity(), (a, b) -> b));
+        afterCommit(() -> fresh.values().forEach(product -> {
+            refreshLocally(product);
+            bus.publish(CacheInvalidation.stock(bus.getNodeId(), CacheConfig.PRODUCTS_CACHE, product));
+        }));
+        if (availabilityChanged) {
+            evict(Set.of(ProductListingTags.STOCK_DEPENDENT));
+        }
+    }
+
+    private void evict (Set<String> tags) {
+        afterCommit(() -> tags.forEach(tag -> {
+            evictLocally(CacheConfig.PRODUCTS_CACHE, tag);
+            bus.publish(CacheInvalidation.tag(bus.getNodeId(), CacheConfig.PRODUCTS_CACHE, tag));
+        }));
+    }
+
+    private Set<String> tags (Long productId, Long categoryId) {
+        Set<String> tags = new LinkedHashSet<>();
+        tags.add(ProductListingTags.UNSCOPED);
+        if (productId != null) {
+            tags.add(ProductListingTags.product(productId));
+        }
+        if (categoryId != null) {
+            tags.add(ProductListingTags.category(categoryId));
+            addSubtreeTags(tags, categoryId);
+        }
+        return tags;
+    }
+
+    private void addSubtreeTags (Set<String> tags, Long categoryId) {
+        tags.add(ProductListingTags.subtree(categoryId));
+        categoryTreeIndex.ancestors(categoryId).forEach(ancestor -> tags.add(ProductListingTags.subtree(ancestor)));
+    }
+
+    private static Object withProduct (Object value, Product product) {
+        if (!(value instanceof Slice<?> listing)) {
+            // Unknown listing shape; drop it rather than serve stale stock
+            return null;
+        }
+
+        List<Object> content = new ArrayList<>(listing.getContent());
+        content.replaceAll(element -> element instanceof Product listed && Objects.equals(listed.getId(), product.getId()) ? product : element);
+        return listing instanceof Page<?> page
+                ? new PageImpl<>(content, page.getPageable(), page.getTotalElements())
+                : new SliceImpl<>(content, listing.getPageable(), listing.hasNext());
+    }
+
+    private static void afterCommit (Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit () {
+                    action.run();
+                }
+            });
+        }
+        else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.oranba.springboot.catalog.cache;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oranba.springboot.catalog.config.CacheConfig;
+import com.oranba.springboot.catalog.config.ProductExistenceProperties;
+import com.oranba.springboot.catalog.domain.model.Product;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bloom filters of every product ID and SKU, so lookups of products that do not exist are answered without a query.
+ * A "might exist" answer still goes to the database; when that finds nothing (a false positive) the miss is cached
+ * briefly, in the {@code productDetails} region for IDs and here for SKUs.
+ * <p>
+ * Built at startup and rebuilt periodically from the table. Products created on any node are added once their
+ * transaction commits and broadcast to the other replicas; a short-interval query for recently created rows adds any
+ * whose broadcast was lost. Until the first build completes every lookup is let through.
+ */
+@Component
+public class ProductExistenceFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductExistenceFilter.class);
+
+    // How far before the last scan a catch-up looks for rows to add again: covers clock skew between nodes, since
+    // created_at is set by the creating node, and transactions that committed after a later-stamped row
+    private static final Duration CATCH_UP_SLACK = Duration.ofMinutes(1);
+
+    private record Filters(BloomFilter ids, BloomFilter skus) {
+
+        void add (Product product) {
+            ids.put(BloomFilter.hash(product.getId()));
+            if (product.getSku() != null) {
+                skus.put(BloomFilter.hash(product.getSku()));
+            }
+        }
+
+        void add (ResultSet row) throws SQLException {
+            ids.put(BloomFilter.hash(row.getLong(1)));
+            String sku = row.getString(2);
+            if (sku != null) {
+                skus.put(BloomFilter.hash(sku));
+            }
+        }
+    }
+
+    private final ProductExistenceProperties properties;
+    private final CacheInvalidationBus bus;
+    private final CacheManager cacheManager;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<String, Boolean> missingSkus;
+
+    private volatile Filters filters;
+    // Filters being built; products created meanwhile are added to both so the swap loses none
+    private volatile Filters rebuilding;
+    // Start of the last scan whose rows are all in the live filters
+    private volatile LocalDateTime caughtUpTo;
+
+    private final Counter idsAvoided;
+    private final Counter skusAvoided;
+    private final Counter skusAvoidedByNegativeCache;
+    private final Counter idFalsePositives;
+    private final Counter skuFalsePositives;
+
+    public ProductExistenceFilter (ProductExistenceProperties properties,
+                                   CacheInvalidationBus bus,
+                                   CacheManager cacheManager,
+                                   DataSource dataSource,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.bus = bus;
+        this.cacheManager = cacheManager;
+
+        // Streams the table in chunks instead of materialising every row
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(10_000);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+
+        this.missingSkus = Caffeine.newBuilder().maximumSize(100_000).expireAfterWrite(properties.getNegativeTtl()).build();
+
+        this.idsAvoided = avoided(meterRegistry, "id", "filter");
+        this.skusAvoided = avoided(meterRegistry, "sku", "filter");
+        this.skusAvoidedByNegativeCache = avoided(meterRegistry, "sku", "negative-cache");
+        this.idFalsePositives = falsePositives(meterRegistry, "id");
+        this.skuFalsePositives = falsePositives(meterRegistry, "sku");
+    }
+
+    @PostConstruct
+    void registerGauges () {
+        Gauge.builder("product.existence.filter.expected.fpp", this, filter -> filter.expectedFalsePositiveProbability(Filters::ids))
+             .description("False-positive probability of the product ID filter at its current fill")
+             .tag("lookup", "id")
+             .register(meterRegistry);
+        Gauge.builder("product.existence.filter.expected.fpp", this, filter -> filter.expectedFalsePositiveProbability(Filters::skus))
+             .description("False-positive probability of the product SKU filter at its current fill")
+             .tag("lookup", "sku")
+             .register(meterRegistry);
+    }
+
+    /**
+     * @return {@code false} only when no product has the ID
+     */
+    public boolean mightContainId (Long id) {
+        Filters current = filters;
+        if (current == null || current.ids().mightContain(BloomFilter.hash(id))) {
+            return true;
+        }
+        idsAvoided.increment();
+        return false;
+    }
+
+    /**
+     * @return {@code false} when no product has the SKU, or the database recently confirmed that
+     */
+    public boolean mightContainSku (String sku) {
+        Filters current = filters;
+        if (current != null && !current.skus().mightContain(BloomFilter.hash(sku))) {
+            skusAvoided.increment();
+            return false;
+        }
+        if (missingSkus.getIfPresent(sku) != null) {
+            skusAvoidedByNegativeCache.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * A lookup the filter let through found no product. The miss itself is cached by the {@code productDetails} region.
+     */
+    public void recordMissingId (Long id) {
+        if (filters != null) {
+            idFalsePositives.increment();
+        }
+    }
+
+    /**
+     * A lookup the filter let through found no product; answer the SKU from the negative cache for a while.
+     */
+    public void recordMissingSku (String sku) {
+        if (filters != null) {
+            skuFalsePositives.increment();
+        }
+        missingSkus.put(sku, Boolean.TRUE);
+    }
+
+    /**
+     * Add a newly created product here and on the other replicas once the creating transaction commits. Adding it
+     * earlier could put it only into filters that a rebuild is about to replace with a scan that cannot see it yet.
+     */
+    public void recordCreated (Product product) {
+        afterCommit(() -> {
+            addAndEvict(product);
+            bus.publish(CacheInvalidation.created(bus.getNodeId(), CacheConfig.PRODUCT_DETAILS_CACHE, product));
+        });
+    }
+
+    /**
+     * Add a created product, then drop any miss this node cached for its ID. Evicting first would let a lookup in
+     * between be answered from filters that lack the product and cache the miss again.
+     */
+    public void addAndEvict (Product product) {
+        add(product);
+        org.springframework.cache.Cache details = LocalCaches.get(cacheManager, CacheConfig.PRODUCT_DETAILS_CACHE);
+        if (details != null) {
+            details.evict(product.getId());
+        }
+    }
+
+    private void add (Product product) {
+        // Read before the live filters: a rebuild publishes its filters before clearing this, so one of the two
+        // reads always sees the filters that will stay live
+        Filters next = rebuilding;
+        if (next != null) {
+            next.add(product);
+        }
+        Filters current = filters;
+        if (current != null) {
+            current.add(product);
+        }
+        if (product.getSku() != null) {
+            missingSkus.invalidate(product.getSku());
+        }
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void build () {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.product-existence.rebuild-interval:1h}",
+               initialDelayString = "${catalog.product-existence.rebuild-interval:1h}")
+    public void rebuild () {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            Long count = streamingJdbcTemplate.queryForObject("SELECT count(*) FROM products", Long.class);
+            // Leave room to grow until the next rebuild
+            long capacity = Math.max(properties.getExpectedInsertions(), count == null ? 0 : count * 2);
+            Filters next = new Filters(new BloomFilter(capacity, properties.getFalsePositiveProbability()),
+                                       new BloomFilter(capacity, properties.getFalsePositiveProbability()));
+            RowCallbackHandler addRow = next::add;
+            LocalDateTime scanStart = LocalDateTime.now();
+            rebuilding = next;
+
+            readOnlyTransaction.executeWithoutResult(status -> streamingJdbcTemplate.query("SELECT id, sku FROM products", addRow));
+
+            filters = next;
+            caughtUpTo = scanStart;
+
+            // Products committed after the scan began are normally added as they commit
+            catchUp();
+            logger.info("Built product existence filters for {} products in {} ms", count, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        }
+        catch (RuntimeException e) {
+            // Keep the previous filters (or none, which lets every lookup through)
+            logger.warn("Could not build product existence filters", e);
+        }
+        finally {
+            rebuilding = null;
+        }
+    }
+
+    /**
+     * Add products created since the last scan, in case the broadcast of one from another node was lost.
+     */
+    @Scheduled(fixedDelayString = "${catalog.product-existence.catch-up-interval:1m}",
+               initialDelayString = "${catalog.product-existence.catch-up-interval:1m}")
+    public void catchUp () {
+        LocalDateTime since = caughtUpTo;
+        if (!properties.isEnabled() || since == null) {
+            return;
+        }
+
+        RowCallbackHandler addRow = row -> {
+            Product product = new Product();
+            product.setId(row.getLong(1));
+            product.setSku(row.getString(2));
+            addAndEvict(product);
+        };
+        try {
+            LocalDateTime scanStart = LocalDateTime.now();
+            readOnlyTransaction.executeWithoutResult(
+                    status -> streamingJdbcTemplate.query("SELECT id, sku FROM products WHERE created_at >= ?", addRow,
+                                                          since.minus(CATCH_UP_SLACK)));
+            caughtUpTo = scanStart;
+        }
+        catch (RuntimeException e) {
+            // Tried again from the same point next time
+            logger.warn("Could not add recently created products to the existence filters", e);
+        }
+    }
+
+    private static void afterCommit (Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit () {
+                    action.run();
+                }
+            });
+        }
+        else {
+            action.run();
+        }
+    }
+
+    private double expectedFalsePositiveProbability (Function<Filters, BloomFilter> filter) {
+        Filters current = filters;
+        return current == null ? Double.NaN : filter.apply(current).expectedFalsePositiveProbability();
+    }
+
+    private static Counter avoided (MeterRegistry meterRegistry, String lookup, String reason) {
+        return Counter.builder("product.existence.queries.avoided")
+                      .description("Product lookups answered as not found without a database query")
+                      .tag("lookup", lookup)
+                      .tag("reason", reason)
+                      .register(meterRegistry);
+    }
+
+    private static Counter falsePositives (MeterRegistry meterRegistry, String lookup) {
+        return Counter.builder("product.existence.false.positives")
+                      .description("Lookups the existence filter let through that found no product")
+                      .tag("lookup", lookup)
+                      .register(meterRegistry);
+    }
+}
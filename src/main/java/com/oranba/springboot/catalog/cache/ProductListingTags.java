@@ -0,0 +1,75 @@
+package com.oranba.springboot.catalog.cache;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.data.domain.Slice;
+
+import com.oranba.springboot.catalog.domain.model.Product;
+
+/**
+ * Tags for entries in the products listing region. A listing is tagged with every product it contains, the category
+ * of each of those products, and its own scope as encoded in its {@link QueryFingerprint} key: the category it is
+ * restricted to, the category whose subtree it covers, or {@link #UNSCOPED} for listings whose membership any product
+ * write could change.
+ */
+public final class ProductListingTags {
+
+    public static final String UNSCOPED = "listing:unscoped";
+
+    // Listings filtered by stock availability, whose membership changes when a product sells out or is restocked
+    public static final String STOCK_DEPENDENT = "listing:stock";
+
+    // Listings sorted by a property stock changes update; any stock change can reorder them, so they are never patched
+    public static final String STOCK_ORDERED = "listing:stock-order";
+
+    private ProductListingTags () {
+    }
+
+    public static String product (Long productId) {
+        return "product:" + productId;
+    }
+
+    public static String category (Long categoryId) {
+        return "category:" + categoryId;
+    }
+
+    public static String subtree (Long categoryId) {
+        return "subtree:" + categoryId;
+    }
+
+    public static Set<String> of (Object key, Object value) {
+        Set<String> tags = new HashSet<>();
+
+        Long scope = QueryFingerprint.categoryScope(key);
+        Long subtreeScope = QueryFingerprint.subtreeScope(key);
+        if (scope != null) {
+            tags.add(category(scope));
+        }
+        else if (subtreeScope != null) {
+            tags.add(subtree(subtreeScope));
+        }
+        else {
+            tags.add(UNSCOPED);
+        }
+        if (QueryFingerprint.isStockDependent(key)) {
+            tags.add(STOCK_DEPENDENT);
+        }
+
+        if (value instanceof Slice<?> listing) {
+            // The key only records that the listing depends on stock, not whether through its filter or its sort
+            if (QueryFingerprint.isStockOrdered(listing.getPageable().getSort())) {
+                tags.add(STOCK_ORDERED);
+            }
+            for (Object element : listing.getContent()) {
+                if (element instanceof Product product) {
+                    tags.add(product(product.getId()));
+                    if (product.getCategoryId() != null) {
+                        tags.add(category(product.getCategoryId()));
+                    }
+                }
+            }
+        }
+        return tags;
+    }
+}
@@ -0,0 +1,186 @@
+package com.oranba.springboot.catalog.cache;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+/**
+ * Canonical cache keys for product listing queries. Filters, sort and paging are normalised (unknown and paging
+ * parameters dropped, names trimmed and lower-cased, numbers in plain form, filters in name order) and hashed, so
+ * equivalent requests share an entry and requests that differ in any way that changes the result do not.
+ * <p>
+ * Keys have the form {@code c<categoryId>:<hash>} when the listing is restricted to one category,
+ * {@code t<categoryId>:<hash>} when it covers a category's whole subtree and {@code *:<hash>} otherwise; the scope
+ * prefix is what {@link ProductListingTags} tags listings by. Listings whose membership or order depends on stock (the
+ * {@code inStock} filter, or a sort by stock or by last update, which stock changes also move) carry a {@code ~} after
+ * the scope, since stock changes otherwise leave listings in place. Keys of count-free slices end in {@code /slice}.
+ */
+@Component("queryFingerprint")
+public class QueryFingerprint {
+
+    private static final String CATEGORY_SCOPE = "c";
+    private static final String SUBTREE_SCOPE = "t";
+    private static final String UNSCOPED = "*";
+    private static final String STOCK_DEPENDENT = "~";
+    private static final String SLICE = "/slice";
+
+    // Filters findAllProducts understands; anything else (including page, size and sort) does not affect the result
+    private static final Set<String> TEXT_FILTERS = Set.of("name");
+    private static final Set<String> NUMERIC_FILTERS = Set.of("category", "minPrice", "maxPrice");
+    private static final Set<String> BOOLEAN_FILTERS = Set.of("active", "inStock");
+
+    // Sort properties a stock change updates
+    private static final Set<String> STOCK_SORTS = Set.of("inventory", "updatedAt");
+
+    /**
+     * Key for a filtered listing of all products.
+     */
+    public String listing (Map<String, String> filters, Pageable pageable) {
+        Map<String, String> canonical = new TreeMap<>();
+        if (filters != null) {
+            filters.forEach((name, value) -> {
+                if (value == null || value.isBlank()) {
+                    return;
+                }
+                if (TEXT_FILTERS.contains(name)) {
+                    canonical.put(name, value.trim().toLowerCase(Locale.ROOT));
+                }
+                else if (NUMERIC_FILTERS.contains(name)) {
+                    canonical.put(name, number(value));
+                }
+                else if (BOOLEAN_FILTERS.contains(name)) {
+                    canonical.put(name, String.valueOf(Boolean.parseBoolean(value.trim())));
+                }
+            });
+        }
+        String category = canonical.get("category");
+        String scope = category == null ? UNSCOPED : CATEGORY_SCOPE + category;
+        return key(canonical.containsKey("inStock") ? scope + STOCK_DEPENDENT : scope, canonical, pageable);
+    }
+
+    /**
+     * Key for a listing of one category.
+     */
+    public String category (Long categoryId, Pageable pageable) {
+        return key(CATEGORY_SCOPE + categoryId, Map.of("category", String.valueOf(categoryId)), pageable);
+    }
+
+    /**
+     * Key for a full-text search. Searches can match products of any category, so they are unscoped.
+     */
+    public String search (String query, Pageable pageable) {
+        String text = query == null ? "" : query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return key(UNSCOPED, Map.of("q", text), pageable);
+    }
+
+    /**
+     * Key for a listing of a category and all categories beneath it.
+     */
+    public String subtree (Long categoryId, Pageable pageable) {
+        return key(SUBTREE_SCOPE + categoryId, Map.of("subtree", String.valueOf(categoryId)), pageable);
+    }
+
+    /**
+     * Key for the count-free slice of the listing whose page key is given; slices and pages of one query are cached
+     * separately, as they hold different values.
+     */
+    public String slice (String pageKey) {
+        return pageKey + SLICE;
+    }
+
+    /**
+     * Category a listing key is restricted to, or {@code null} for listings that can contain any category.
+     */
+    public static Long categoryScope (Object key) {
+        return scope(key, CATEGORY_SCOPE);
+    }
+
+    /**
+     * Category whose subtree a listing key covers, or {@code null} for other listings.
+     */
+    public static Long subtreeScope (Object key) {
+        return scope(key, SUBTREE_SCOPE);
+    }
+
+    /**
+     * Whether a sort orders listings by a property that stock changes update, so that a stock change can move any
+     * product into or out of a page.
+     */
+    public static boolean isStockOrdered (Sort sort) {
+        return sort.stream().anyMatch(order -> STOCK_SORTS.contains(order.getProperty()));
+    }
+
+    /**
+     * Whether a listing key's membership or order depends on stock levels.
+     */
+    public static boolean isStockDependent (Object key) {
+        String text = String.valueOf(key);
+        int separator = text.indexOf(':');
+        return separator > 0 && text.startsWith(STOCK_DEPENDENT, separator - 1);
+    }
+
+    private static Long scope (Object key, String prefix) {
+        String text = String.valueOf(key);
+        int separator = text.indexOf(':');
+        if (!text.startsWith(prefix) || separator < 0) {
+            return null;
+        }
+        int end = isStockDependent(text) ? separator - 1 : separator;
+        try {
+            return Long.valueOf(text.substring(prefix.length(), end));
+        }
+        catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String key (String scope, Map<String, String> filters, Pageable pageable) {
+        String canonical = filters.entrySet()
+                                  .stream()
+                                  .map(filter -> filter.getKey() + "=" + filter.getValue())
+                                  .collect(Collectors.joining("&"))
+                           + "|" + sort(pageable.getSort())
+                           + "|" + (pageable.isPaged() ? pageable.getPageNumber() + "," + pageable.getPageSize() : "unpaged");
+        String marked = isStockOrdered(pageable.getSort()) && !scope.endsWith(STOCK_DEPENDENT) ? scope + STOCK_DEPENDENT : scope;
+        return marked + ":" + hash(canonical);
+    }
+
+    private static String sort (Sort sort) {
+        return sort.stream()
+                   .map(order -> order.getProperty() + "," + order.getDirection() + (order.isIgnoreCase() ? ",ic" : "") + "," + order.getNullHandling())
+                   .collect(Collectors.joining(";"));
+    }
+
+    private static String number (String value) {
+        try {
+            return new BigDecimal(value.trim()).stripTrailingZeros().toPlainString();
+        }
+        catch (NumberFormatException e) {
+            // Left as given; the query rejects it the same way whatever the key
+            return value.trim();
+        }
+    }
+
+    private static String hash (String canonical) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            // 128 bits keeps collisions out of reach for any realistic number of distinct queries
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.oranba.springboot.catalog.cache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A response body that is already UTF-8 JSON. The bytes are written to the response stream as they are, without
+ * going through Jackson or an intermediate copy.
+ */
+public final class SerializedJson {
+
+    // Shared with the cache and concurrent responses; never modified
+    private final byte[] json;
+
+    SerializedJson (byte[] json) {
+        this.json = json;
+    }
+
+    public int length () {
+        return json.length;
+    }
+
+    public void writeTo (OutputStream out) throws IOException {
+        out.write(json);
+    }
+}
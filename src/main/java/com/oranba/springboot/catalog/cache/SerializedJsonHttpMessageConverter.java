@@ -0,0 +1,45 @@
+package com.oranba.springboot.catalog.cache;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Writes {@link SerializedJson} bodies straight to the response stream. Registered ahead of the Jackson converter,
+ * which would otherwise serialize the wrapper itself.
+ */
+public class SerializedJsonHttpMessageConverter extends AbstractHttpMessageConverter<SerializedJson> {
+
+    public SerializedJsonHttpMessageConverter () {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports (Class<?> clazz) {
+        return SerializedJson.class == clazz;
+    }
+
+    @Override
+    protected boolean canRead (MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected SerializedJson readInternal (Class<? extends SerializedJson> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Serialized JSON is write-only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength (SerializedJson body, MediaType contentType) {
+        return (long) body.length();
+    }
+
+    @Override
+    protected void writeInternal (SerializedJson body, HttpOutputMessage outputMessage) throws IOException {
+        body.writeTo(outputMessage.getBody());
+    }
+}
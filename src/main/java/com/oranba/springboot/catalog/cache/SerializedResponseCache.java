@@ -0,0 +1,109 @@
+package com.oranba.springboot.catalog.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oranba.springboot.catalog.config.SerializedResponseProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * JSON bytes of cache region entries, so hot read endpoints skip Jackson when the entry has not changed.
+ * <p>
+ * Entries are keyed by region and region key and are dropped whenever the region entry is removed or replaced, so they
+ * follow the region's expiry, evictions and cross-node invalidations. Each entry also remembers the object it was
+ * serialized from and is only served for that same instance, so a response can never be older than the value the
+ * region returned for the request.
+ */
+@Component
+public class SerializedResponseCache {
+
+    private final SerializedResponseProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Cache<RegionKey, Entry> responses;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    @Autowired
+    public SerializedResponseCache (SerializedResponseProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.responses = Caffeine.newBuilder()
+                                 .maximumWeight(properties.getMaximumSize().toBytes())
+                                 .weigher((RegionKey key, Entry entry) -> entry.json().length)
+                                 .build();
+
+        this.hitCounter = Counter.builder("cache.serialized.requests")
+                                 .description("Responses written from pre-serialized JSON")
+                                 .tag("result", "hit")
+                                 .register(meterRegistry);
+        this.missCounter = Counter.builder("cache.serialized.requests")
+                                  .description("Responses written from pre-serialized JSON")
+                                  .tag("result", "miss")
+                                  .register(meterRegistry);
+        Gauge.builder("cache.serialized.bytes", responses, cache -> cache.policy().eviction().orElseThrow().weightedSize().orElse(0))
+             .description("Bytes of pre-serialized JSON held")
+             .baseUnit("bytes")
+             .register(meterRegistry);
+    }
+
+    /**
+     * Response body for a value just read from a cache region.
+     *
+     * @param region
+     *        Cache region the value came from
+     * @param key
+     *        Key of the value in that region
+     * @param value
+     *        Value returned by the region
+     * @return the value as UTF-8 JSON
+     */
+    public SerializedJson of (String region, Object key, Object value) {
+        if (!properties.isEnabled()) {
+            return new SerializedJson(serialize(value));
+        }
+
+        RegionKey regionKey = new RegionKey(region, key);
+        Entry entry = responses.getIfPresent(regionKey);
+        if (entry != null && entry.source() == value) {
+            hitCounter.increment();
+            return new SerializedJson(entry.json());
+        }
+
+        missCounter.increment();
+        byte[] json = serialize(value);
+        responses.put(regionKey, new Entry(value, json));
+        return new SerializedJson(json);
+    }
+
+    /**
+     * Drop the JSON of a region entry that was removed or replaced.
+     */
+    public void evict (String region, Object key) {
+        responses.invalidate(new RegionKey(region, key));
+    }
+
+    private byte[] serialize (Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        }
+        catch (JsonProcessingException e) {
+            throw new HttpMessageNotWritableException("Could not serialize response", e);
+        }
+    }
+
+    private record RegionKey(String region, Object key) {
+    }
+
+    // The bytes are never modified once stored, so they are shared by concurrent responses as they are
+    private record Entry(Object source, byte[] json) {
+    }
+}
@@ -0,0 +1,283 @@
+package com.oranba.springboot.catalog.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.cache.Cache;
+
+import com.oranba.springboot.catalog.config.SingleFlightProperties;
+import com.oranba.springboot.catalog.config.SingleFlightProperties.FailureAction;
+import com.oranba.springboot.catalog.config.SingleFlightProperties.TimeoutAction;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Collapses concurrent misses on the same key into one load. The first caller to miss runs the loader and caches the
+ * result; callers missing while it runs wait on its future instead of each querying the database. Only loads made
+ * through {@link #get(Object, Callable)} are coalesced, which is what {@code @Cacheable(sync = true)} uses.
+ * <p>
+ * The loader runs outside the backing Caffeine cache's compute lock, so a slow query never blocks loads of unrelated
+ * keys that share its hash bin. Load latency is timed here for the same reason.
+ * <p>
+ * A put, eviction or clear of a key abandons its load in progress: the value read before the invalidation is still
+ * returned to the callers already waiting on it, but is not cached, and later misses start a fresh load.
+ */
+public class SingleFlightCache implements Cache {
+
+    private final Cache delegate;
+    private final SingleFlightProperties properties;
+    private final CacheRegionMonitor monitor;
+    private final ConcurrentHashMap<Object, Load> inFlight = new ConcurrentHashMap<>();
+    // Puts, evictions and clears so far
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Counter coalescedCounter;
+    private final Counter timeoutCounter;
+    private final Timer loadTimer;
+
+    public SingleFlightCache (Cache delegate, SingleFlightProperties properties, CacheRegionMonitor monitor, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.monitor = monitor;
+
+        this.coalescedCounter = Counter.builder("cache.load.coalesced")
+                                       .description("Cache misses that waited on another caller's load instead of loading")
+                                       .tag("cache", delegate.getName())
+                                       .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("cache.load.coalesced.timeouts")
+                                     .description("Coalesced waiters that gave up on the loading caller")
+                                     .tag("cache", delegate.getName())
+                                     .register(meterRegistry);
+        this.loadTimer = Timer.builder("cache.load.time")
+                              .description("Time taken to load a missing cache entry")
+                              .tag("cache", delegate.getName())
+                              .publishPercentileHistogram()
+                              .register(meterRegistry);
+    }
+
+    public Cache getDelegate () {
+        return delegate;
+    }
+
+    public CacheRegionMonitor getMonitor () {
+        return monitor;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get (Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = delegate.get(key);
+        if (cached != null) {
+            monitor.recordHit(key);
+            onHit(key);
+            return (T) cached.get();
+        }
+        monitor.recordMiss(key);
+
+        Load load = new Load(invalidations.get());
+        Load leader = inFlight.putIfAbsent(key, load);
+        if (leader != null) {
+            coalescedCounter.increment();
+            return (T) await(key, leader, valueLoader);
+        }
+        return lead(key, load, valueLoader);
+    }
+
+    /**
+     * Load the key again and replace its entry, unless a load of it is already running. Misses meanwhile wait on this
+     * load like on any other.
+     */
+    protected void reload (Object key, Callable<?> valueLoader) {
+        Load load = new Load(invalidations.get());
+        if (inFlight.putIfAbsent(key, load) == null) {
+            lead(key, load, valueLoader);
+        }
+    }
+
+    /**
+     * Called when a loading lookup finds the key cached.
+     */
+    protected void onHit (Object key) {
+    }
+
+    /**
+     * Write a freshly loaded value to the backing cache.
+     *
+     * @param loadStartedAt
+     *        Invalidation count when the load began; invalidations numbered above it may not be reflected in the value
+     */
+    protected void store (Object key, Object value, long loadStartedAt) {
+        delegate.put(key, value);
+    }
+
+    /**
+     * Run the loader, timed as a cache load.
+     */
+    protected <T> T load (Object key, Callable<T> valueLoader) {
+        return loadTimer.record(() -> call(key, valueLoader));
+    }
+
+    /**
+     * Stop the load in progress for the key, if any, from caching its result. Called before the backing cache is
+     * changed, so a load either sees the mark before writing or has its write removed by the change.
+     *
+     * @return the number of this invalidation, for comparison with {@code loadStartedAt} in {@link #store}
+     */
+    protected long abandonLoad (Object key) {
+        long invalidation = invalidations.incrementAndGet();
+        Load load = inFlight.remove(key);
+        if (load != null) {
+            load.abandoned = true;
+        }
+        return invalidation;
+    }
+
+    /**
+     * Stop every load in progress from caching its result.
+     *
+     * @return the number of this invalidation
+     */
+    protected long abandonLoads () {
+        long invalidation = invalidations.incrementAndGet();
+        inFlight.values().removeIf(load -> {
+            load.abandoned = true;
+            return true;
+        });
+        return invalidation;
+    }
+
+    private <T> T lead (Object key, Load load, Callable<T> valueLoader) {
+        try {
+            T value = load(key, valueLoader);
+            if (!load.abandoned) {
+                store(key, value, load.startedAt);
+                // An invalidation that checked for loads before the write landed has already evicted; undo the write
+                if (load.abandoned) {
+                    delegate.evict(key);
+                }
+            }
+            load.complete(value);
+            return value;
+        }
+        catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        }
+        finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    private Object await (Object key, CompletableFuture<Object> leader, Callable<?> valueLoader) {
+        try {
+            return leader.get(properties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException e) {
+            timeoutCounter.increment();
+            if (properties.getOnTimeout() == TimeoutAction.FAIL) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            // Read around the slow load without caching; the loading caller still caches its result
+            return call(key, valueLoader);
+        }
+        catch (ExecutionException e) {
+            if (properties.getOnFailure() == FailureAction.RETRY) {
+                return get(key, valueLoader);
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private static <T> T call (Object key, Callable<T> valueLoader) {
+        try {
+            return valueLoader.call();
+        }
+        catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public String getName () {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache () {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get (Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get (Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public void put (Object key, Object value) {
+        abandonLoad(key);
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent (Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict (Object key) {
+        abandonLoad(key);
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent (Object key) {
+        abandonLoad(key);
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear () {
+        abandonLoads();
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate () {
+        abandonLoads();
+        return delegate.invalidate();
+    }
+
+    private static final class Load extends CompletableFuture<Object> {
+
+        private final long startedAt;
+
+        // Set once the key is invalidated while loading
+        private volatile boolean abandoned;
+
+        Load (long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+}
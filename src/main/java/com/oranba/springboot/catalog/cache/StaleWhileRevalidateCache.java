@@ -0,0 +1,197 @@
+package com.oranba.springboot.catalog.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+import com.oranba.springboot.catalog.config.SingleFlightProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Single-flight cache that serves the previous value while a replacement is computed in the background, instead of
+ * making a reader wait on the database:
+ * <ul>
+ * <li>entries older than the soft TTL ({@code refreshAfter}) are returned as they are and refreshed behind the
+ * reader;</li>
+ * <li>when {@code serveStaleOnInvalidate} is set, evictions and clears mark entries stale rather than removing them,
+ * and the next reader triggers the refresh.</li>
+ * </ul>
+ * Both apply only to keys the region's {@link CacheRefresher} can reload, which refreshes use in place of the reader's
+ * loader; other keys behave as in a plain single-flight cache. Stale entries are still removed by the region's hard
+ * {@code expireAfterWrite}, which bounds how stale a served value can be if refreshes keep failing.
+ */
+public class StaleWhileRevalidateCache extends SingleFlightCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaleWhileRevalidateCache.class);
+
+    private final Duration refreshAfter;
+    private final boolean serveStaleOnInvalidate;
+    private final Supplier<CacheRefresher> refresher;
+    private final Executor refreshExecutor;
+
+    // Keys invalidated since their value was loaded, with the number of the latest invalidation
+    private final Map<Object, Long> staleKeys = new ConcurrentHashMap<>();
+    private final Map<Object, Boolean> refreshing = new ConcurrentHashMap<>();
+
+    private final Counter staleServedCounter;
+    private final Counter refreshedCounter;
+    private final Counter refreshFailedCounter;
+
+    /**
+     * @param refreshAfter
+     *        Soft TTL, or {@code null} to refresh only after invalidations; requires the backing Caffeine cache to use
+     *        expire-after-write
+     * @param refresher
+     *        Looked up on use, since the bean that provides it usually depends on the cache manager; may supply
+     *        {@code null}, which disables refreshes
+     */
+    public StaleWhileRevalidateCache (Cache delegate,
+                                      SingleFlightProperties properties,
+                                      CacheRegionMonitor monitor,
+                                      Duration refreshAfter,
+                                      boolean serveStaleOnInvalidate,
+                                      Supplier<CacheRefresher> refresher,
+                                      Executor refreshExecutor,
+                                      MeterRegistry meterRegistry) {
+        super(delegate, properties, monitor, meterRegistry);
+        this.refreshAfter = refreshAfter;
+        this.serveStaleOnInvalidate = serveStaleOnInvalidate;
+        this.refresher = refresher;
+        this.refreshExecutor = refreshExecutor;
+
+        this.staleServedCounter = Counter.builder("cache.stale.served")
+                                         .description("Reads answered with a stale value while it was refreshed")
+                                         .tag("cache", delegate.getName())
+                                         .register(meterRegistry);
+        this.refreshedCounter = Counter.builder("cache.refresh")
+                                       .description("Background refreshes of stale entries")
+                                       .tag("cache", delegate.getName())
+                                       .tag("result", "success")
+                                       .register(meterRegistry);
+        this.refreshFailedCounter = Counter.builder("cache.refresh")
+                                           .description("Background refreshes of stale entries")
+                                           .tag("cache", delegate.getName())
+                                           .tag("result", "failure")
+                                           .register(meterRegistry);
+    }
+
+    @Override
+    protected void onHit (Object key) {
+        if (!staleKeys.containsKey(key) && !isPastSoftTtl(key)) {
+            return;
+        }
+        CacheRefresher current = refresher.get();
+        if (current == null || !current.isRefreshable(key)) {
+            return;
+        }
+
+        staleServedCounter.increment();
+        if (refreshing.putIfAbsent(key, Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> refresh(current, key));
+        }
+        catch (RuntimeException e) {
+            refreshing.remove(key);
+            logger.warn("Could not schedule refresh of {} in cache {}", key, getName(), e);
+        }
+    }
+
+    @Override
+    protected void store (Object key, Object value, long loadStartedAt) {
+        super.store(key, value, loadStartedAt);
+        // Keep the mark of an invalidation the load began before, so the entry is refreshed again
+        staleKeys.computeIfPresent(key, (k, invalidatedAt) -> invalidatedAt > loadStartedAt ? invalidatedAt : null);
+    }
+
+    @Override
+    public void put (Object key, Object value) {
+        super.put(key, value);
+        staleKeys.remove(key);
+    }
+
+    @Override
+    public void evict (Object key) {
+        if (!markStale(key)) {
+            super.evict(key);
+        }
+    }
+
+    @Override
+    public boolean evictIfPresent (Object key) {
+        return markStale(key) || super.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear () {
+        if (!serveStaleOnInvalidate) {
+            super.clear();
+            return;
+        }
+        abandonLoads();
+        nativeCache().asMap().keySet().forEach(this::evict);
+    }
+
+    @Override
+    public boolean invalidate () {
+        if (!serveStaleOnInvalidate) {
+            return super.invalidate();
+        }
+        boolean hadEntries = !nativeCache().asMap().isEmpty();
+        clear();
+        return hadEntries;
+    }
+
+    private boolean markStale (Object key) {
+        if (!serveStaleOnInvalidate || !nativeCache().asMap().containsKey(key)) {
+            return false;
+        }
+        CacheRefresher current = refresher.get();
+        if (current == null || !current.isRefreshable(key)) {
+            return false;
+        }
+        staleKeys.put(key, abandonLoad(key));
+        return true;
+    }
+
+    private void refresh (CacheRefresher current, Object key) {
+        try {
+            reload(key, () -> current.reload(key));
+            refreshedCounter.increment();
+        }
+        catch (RuntimeException e) {
+            // Keep serving the stale value; the next reader retries
+            refreshFailedCounter.increment();
+            logger.warn("Refresh of {} in cache {} failed", key, getName(), e);
+        }
+        finally {
+            refreshing.remove(key);
+        }
+    }
+    private boolean isPastSoftTtl (Object key) {
+        if (refreshAfter == null) {
+            return false;
+        }
+        OptionalLong age = nativeCache().policy()
+                                        .expireAfterWrite()
+                                        .map(expiration -> expiration.ageOf(key, TimeUnit.NANOSECONDS))
+                                        .orElse(OptionalLong.empty());
+        return age.isPresent() && age.getAsLong() >= refreshAfter.toNanos();
+    }
+
+    @SuppressWarnings("unchecked")
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache () {
+        return (com.github.benmanes.caffeine.cache.Cache<Object, Object>) getNativeCache();
+    }
+}
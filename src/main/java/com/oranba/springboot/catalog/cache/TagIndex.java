@@ -0,0 +1,55 @@
+package com.oranba.springboot.catalog.cache;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Two-way mapping between cache keys and the tags their values carry. Kept in step with the backing cache by
+ * {@link TaggedCache} on writes and by the cache's removal listener on eviction and expiry.
+ */
+public class TagIndex {
+
+    private final ConcurrentHashMap<String, Set<Object>> keysByTag = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Object, Set<String>> tagsByKey = new ConcurrentHashMap<>();
+
+    public void put (Object key, Set<String> tags) {
+        // Index before the value becomes visible so an invalidation racing the write still finds it
+        for (String tag : tags) {
+            keysByTag.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        Set<String> previous = tagsByKey.put(key, tags);
+        if (previous != null) {
+            previous.stream().filter(tag -> !tags.contains(tag)).forEach(tag -> unlink(tag, key));
+        }
+    }
+
+    public void remove (Object key) {
+        Set<String> tags = tagsByKey.remove(key);
+        if (tags != null) {
+            tags.forEach(tag -> unlink(tag, key));
+        }
+    }
+
+    public Set<Object> keys (String tag) {
+        Set<Object> keys = keysByTag.get(tag);
+        return keys == null ? Set.of() : Set.copyOf(keys);
+    }
+
+    public Set<Object> keys (Collection<String> tags) {
+        Set<Object> keys = ConcurrentHashMap.newKeySet();
+        tags.forEach(tag -> keys.addAll(keys(tag)));
+        return keys;
+    }
+
+    public int size () {
+        return tagsByKey.size();
+    }
+
+    private void unlink (String tag, Object key) {
+        keysByTag.computeIfPresent(tag, (t, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+}
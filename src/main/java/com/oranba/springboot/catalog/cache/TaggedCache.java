@@ -0,0 +1,117 @@
+package com.oranba.springboot.catalog.cache;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.BiFunction;
+import java.util.function.UnaryOperator;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+/**
+ * Caffeine-backed cache whose entries carry tags derived from their key and value, so a write can evict just the
+ * entries it affects instead of clearing the region. The backing cache must remove keys from the same
+ * {@link TagIndex} when it evicts or expires them.
+ */
+public class TaggedCache implements Cache {
+
+    private final CaffeineCache delegate;
+    private final TagIndex tagIndex;
+    private final BiFunction<Object, Object, Set<String>> tagger;
+
+    public TaggedCache (CaffeineCache delegate, TagIndex tagIndex, BiFunction<Object, Object, Set<String>> tagger) {
+        this.delegate = delegate;
+        this.tagIndex = tagIndex;
+        this.tagger = tagger;
+    }
+
+    /**
+     * Evict every entry carrying any of the given tags.
+     *
+     * @return Number of entries evicted
+     */
+    public int evictTagged (Collection<String> tags) {
+        Set<Object> keys = tagIndex.keys(tags);
+        keys.forEach(delegate::evict);
+        return keys.size();
+    }
+
+    /**
+     * Rewrite, in place, every entry carrying the tag. Tags are left as they are, so the function must not change what
+     * the entry would be tagged with; returning {@code null} evicts the entry.
+     *
+     * @return Number of entries rewritten or evicted
+     */
+    public int updateTagged (String tag, UnaryOperator<Object> update) {
+        Set<Object> keys = tagIndex.keys(tag);
+        keys.forEach(key -> delegate.getNativeCache().asMap().computeIfPresent(key, (k, value) -> update.apply(value)));
+        return keys.size();
+    }
+
+    @Override
+    public String getName () {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache () {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get (Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get (Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get (Object key, Callable<T> valueLoader) {
+        return delegate.get(key, () -> {
+            T value = valueLoader.call();
+            tagIndex.put(key, tagger.apply(key, value));
+            return value;
+        });
+    }
+
+    @Override
+    public void put (Object key, Object value) {
+        tagIndex.put(key, tagger.apply(key, value));
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent (Object key, Object value) {
+        tagIndex.put(key, tagger.apply(key, value));
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        if (existing != null) {
+            tagIndex.put(key, tagger.apply(key, existing.get()));
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict (Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent (Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    // Clearing notifies the removal listener per entry, which drops the index entries as well
+    @Override
+    public void clear () {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate () {
+        return delegate.invalidate();
+    }
+}
@@ -1,11 +1,45 @@
 package com.oranba.springboot.catalog.config;
 
-import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.util.function.SingletonSupplier;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.oranba.springboot.catalog.cache.BroadcastingCache;
+import com.oranba.springboot.catalog.cache.CacheInvalidationBus;
+import com.oranba.springboot.catalog.cache.CacheRefresher;
+import com.oranba.springboot.catalog.cache.CacheRegionMonitor;
+import com.oranba.springboot.catalog.cache.NegativeEntryExpiry;
+import com.oranba.springboot.catalog.cache.ProductListingTags;
+import com.oranba.springboot.catalog.cache.SerializedJsonHttpMessageConverter;
+import com.oranba.springboot.catalog.cache.SerializedResponseCache;
+import com.oranba.springboot.catalog.cache.SingleFlightCache;
+import com.oranba.springboot.catalog.cache.StaleWhileRevalidateCache;
+import com.oranba.springboot.catalog.cache.TagIndex;
+import com.oranba.springboot.catalog.cache.TaggedCache;
+import com.oranba.springboot.catalog.config.CacheRegionProperties.Region;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 @Configuration
 public class CacheConfig {
@@ -15,10 +49,111 @@ public class CacheConfig {
     public static final String PRODUCT_DETAILS_CACHE = "productDetails";
     public static final String CATEGORIES_CACHE = "categories";
 
+    private static final List<String> REGIONS = List.of(PRODUCTS_CACHE, PRODUCT_DETAILS_CACHE, CATEGORIES_CACHE);
+
+    // Regions whose entries are tagged for targeted invalidation
+    private static final Map<String, BiFunction<Object, Object, Set<String>>> TAGGERS = Map.of(PRODUCTS_CACHE, ProductListingTags::of);
+
+    @Bean
+    public CacheManager cacheManager (CacheRegionProperties properties,
+                                      SingleFlightProperties singleFlightProperties,
+                                      CacheMonitoringProperties monitoringProperties,
+                                      CacheInvalidationBus invalidationBus,
+                                      SerializedResponseCache serializedResponses,
+                                      ObjectProvider<CacheRefresher> refreshers,
+                                      @Qualifier("applicationTaskExecutor") TaskExecutor refreshExecutor,
+                                      MeterRegistry meterRegistry) {
+        // Fixed set of regions; a misspelt cache name fails fast instead of creating an unbounded cache. Each region
+        // is a node-local near cache that coalesces concurrent misses and broadcasts its invalidations to the other
+        // replicas
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(REGIONS.stream().map(name -> {
+            Region region = properties.region(name);
+            CacheRegionMonitor monitor = new CacheRegionMonitor(name, monitoringProperties, meterRegistry);
+            Cache local = buildCache(name, region, serializedResponses, monitor, meterRegistry, Ticker.systemTicker());
+            SingleFlightCache loading = region.isRefreshAhead()
+                    ? new StaleWhileRevalidateCache(local, singleFlightProperties, monitor, region.getRefreshAfter(),
+                                                    region.isServeStaleOnInvalidate(), refresher(refreshers, name), refreshExecutor,
+                                                    meterRegistry)
+                    : new SingleFlightCache(local, singleFlightProperties, monitor, meterRegistry);
+            return new BroadcastingCache(loading, invalidationBus);
+        }).toList());
+        cacheManager.initializeCaches();
+
+        // Defer puts and evictions issued inside a transaction until it commits, so a rolled-back write never
+        // leaves its value in the cache and readers never re-cache the pre-commit row
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
     @Bean
-    public CacheManager cacheManager () {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
-        cacheManager.setCacheNames(Arrays.asList(PRODUCTS_CACHE, PRODUCT_DETAILS_CACHE, CATEGORIES_CACHE));
-        return cacheManager;
+    public NewTopic cacheInvalidationTopic (CacheInvalidationProperties properties) {
+        return TopicBuilder.name(properties.getTopic())
+                           .partitions(properties.getPartitions())
+                           .compact()
+                           .build();
+    }
+
+    @Bean
+    public SerializedJsonHttpMessageConverter serializedJsonHttpMessageConverter () {
+        // Picked up by Boot ahead of the default converters
+        return new SerializedJsonHttpMessageConverter();
+    }
+
+    // Looked up on first use: the beans providing refreshers depend on this cache manager
+    private static Supplier<CacheRefresher> refresher (ObjectProvider<CacheRefresher> refreshers, String name) {
+        return SingletonSupplier.of(() -> refreshers.orderedStream()
+                                                    .filter(refresher -> name.equals(refresher.getCacheName()))
+                                                    .findFirst()
+                                                    .orElse(null));
+    }
+
+    static Cache buildCache (String name,
+                             Region region,
+                             SerializedResponseCache serializedResponses,
+                             CacheRegionMonitor monitor,
+                             MeterRegistry meterRegistry,
+                             Ticker ticker) {
+        // Caffeine evicts by W-TinyLFU: one-off filter combinations cannot push out frequently read entries
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                                                   .maximumSize(region.getMaximumSize())
+                                                   .ticker(ticker)
+                                                   .recordStats();
+        if (region.getRefreshAfter() != null && (region.getExpireAfterWrite() == null || region.getNegativeTtl() != null)) {
+            // The soft TTL is measured against the write age that a fixed expire-after-write policy keeps
+            throw new IllegalStateException("Cache region '" + name + "' needs a fixed expire-after-write to use refresh-after");
+        }
+        if (region.getNegativeTtl() != null) {
+            if (region.getExpireAfterAccess() != null) {
+                throw new IllegalStateException("Cache region '" + name + "' cannot combine negative-ttl with expire-after-access");
+            }
+            builder.expireAfter(new NegativeEntryExpiry(region.getExpireAfterWrite(), region.getNegativeTtl()));
+        }
+        else if (region.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(region.getExpireAfterWrite());
+        }
+        if (region.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(region.getExpireAfterAccess());
+        }
+
+        BiFunction<Object, Object, Set<String>> tagger = TAGGERS.get(name);
+        TagIndex tagIndex = new TagIndex();
+        // Runs on the removing thread so the tag index and serialized responses are cleaned up before the call
+        // returns; replacements are re-indexed by the write itself
+        builder.executor(Runnable::run).removalListener((key, value, cause) -> {
+            monitor.recordRemoval(cause);
+            serializedResponses.evict(name, key);
+            if (tagger != null && cause != RemovalCause.REPLACED) {
+                tagIndex.remove(key);
+            }
+        });
+
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = builder.build();
+
+        // Bound here rather than left to Boot's registrar, which cannot see through cache decorators; the tags
+        // match the registrar's so both resolve to the same meters
+        CaffeineCacheMetrics.monitor(meterRegistry, nativeCache, name, Tags.of("cache.manager", "cacheManager"));
+
+        CaffeineCache cache = new CaffeineCache(name, nativeCache);
+        return tagger == null ? cache : new TaggedCache(cache, tagIndex, tagger);
     }
 }
@@ -0,0 +1,55 @@
+package com.oranba.springboot.catalog.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for broadcasting cache invalidations between replicas.
+ */
+@ConfigurationProperties(prefix = "catalog.cache.invalidation")
+public class CacheInvalidationProperties {
+
+    private boolean enabled = true;
+
+    // Compacted topic; keyed by region and cache key so only the latest invalidation per key is retained
+    private String topic = "cache-invalidations";
+
+    // Each replica reads exactly these partitions; raise it only together with the topic's partition count
+    private int partitions = 3;
+
+    // Invalidations of the same key within this window are sent once
+    private Duration coalesceWindow = Duration.ofMillis(10);
+
+    public boolean isEnabled () {
+        return enabled;
+    }
+
+    public void setEnabled (boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getTopic () {
+        return topic;
+    }
+
+    public void setTopic (String topic) {
+        this.topic = topic;
+    }
+
+    public int getPartitions () {
+        return partitions;
+    }
+
+    public void setPartitions (int partitions) {
+        this.partitions = partitions;
+    }
+
+    public Duration getCoalesceWindow () {
+        return coalesceWindow;
+    }
+
+    public void setCoalesceWindow (Duration coalesceWindow) {
+        this.coalesceWindow = coalesceWindow;
+    }
+}
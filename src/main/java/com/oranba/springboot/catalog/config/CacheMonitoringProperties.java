@@ -0,0 +1,32 @@
+package com.oranba.springboot.catalog.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Sampling of cache lookups for the hot-key and miss-key sketches.
+ */
+@ConfigurationProperties(prefix = "catalog.cache.monitoring")
+public class CacheMonitoringProperties {
+
+    // One in this many lookups is recorded in the sketches
+    private int sampleRate = 16;
+
+    // Keys reported per sketch; each sketch tracks a fixed multiple of this many counters
+    private int topKeys = 20;
+
+    public int getSampleRate () {
+        return sampleRate;
+    }
+
+    public void setSampleRate (int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public int getTopKeys () {
+        return topKeys;
+    }
+
+    public void setTopKeys (int topKeys) {
+        this.topKeys = topKeys;
+    }
+}
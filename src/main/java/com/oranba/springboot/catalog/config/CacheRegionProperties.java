@@ -0,0 +1,102 @@
+package com.oranba.springboot.catalog.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Size and expiry policy for each cache region, keyed by region name. Regions without an entry use {@link Region}'s
+ * defaults.
+ */
+@ConfigurationProperties(prefix = "catalog.cache")
+public class CacheRegionProperties {
+
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    public Map<String, Region> getRegions () {
+        return regions;
+    }
+
+    public void setRegions (Map<String, Region> regions) {
+        this.regions = regions;
+    }
+
+    public Region region (String name) {
+        return regions.getOrDefault(name, new Region());
+    }
+
+    public static class Region {
+
+        // Entries kept before the least valuable ones are evicted
+        private long maximumSize = 10_000;
+
+        // Unset means entries do not expire on that basis
+        private Duration expireAfterWrite;
+
+        private Duration expireAfterAccess;
+
+        // Shorter lifetime for cached "not found" results; cannot be combined with expireAfterAccess
+        private Duration negativeTtl;
+
+        // Soft TTL: older entries are still served while a background load replaces them; needs expireAfterWrite. Like
+        // serveStaleOnInvalidate, applies only to the keys the region's CacheRefresher can reload
+        private Duration refreshAfter;
+
+        // Evictions mark entries stale instead of removing them, so readers are not held up by the reload
+        private boolean serveStaleOnInvalidate;
+
+        public long getMaximumSize () {
+            return maximumSize;
+        }
+
+        public void setMaximumSize (long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getExpireAfterWrite () {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite (Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        public Duration getExpireAfterAccess () {
+            return expireAfterAccess;
+        }
+
+        public void setExpireAfterAccess (Duration expireAfterAccess) {
+            this.expireAfterAccess = expireAfterAccess;
+        }
+
+        public Duration getNegativeTtl () {
+            return negativeTtl;
+        }
+
+        public void setNegativeTtl (Duration negativeTtl) {
+            this.negativeTtl = negativeTtl;
+        }
+
+        public Duration getRefreshAfter () {
+            return refreshAfter;
+        }
+
+        public void setRefreshAfter (Duration refreshAfter) {
+            this.refreshAfter = refreshAfter;
+        }
+
+        public boolean isServeStaleOnInvalidate () {
+            return serveStaleOnInvalidate;
+        }
+
+        public void setServeStaleOnInvalidate (boolean serveStaleOnInvalidate) {
+            this.serveStaleOnInvalidate = serveStaleOnInvalidate;
+        }
+
+        public boolean isRefreshAhead () {
+            return refreshAfter != null || serveStaleOnInvalidate;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.oranba.springboot.catalog.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for persisting the hottest cache entries to disk and restoring them on startup.
+ */
+@ConfigurationProperties(prefix = "catalog.cache.snapshot")
+public class CacheSnapshotProperties {
+
+    private boolean enabled = true;
+
+    private Path path = Path.of("cache-snapshot.bin");
+
+    private Duration interval = Duration.ofMinutes(5);
+
+    // Hottest entries written per region, by Caffeine's frequency estimate
+    private int entriesPerRegion = 10_000;
+
+    // Older snapshots are ignored: their hottest keys say little about today's traffic
+    private Duration maxAge = Duration.ofMinutes(10);
+
+    public boolean isEnabled () {
+        return enabled;
+    }
+
+    public void setEnabled (boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Path getPath () {
+        return path;
+    }
+
+    public void setPath (Path path) {
+        this.path = path;
+    }
+
+    public Duration getInterval () {
+        return interval;
+    }
+
+    public void setInterval (Duration interval) {
+        this.interval = interval;
+    }
+
+    public int getEntriesPerRegion () {
+        return entriesPerRegion;
+    }
+
+    public void setEntriesPerRegion (int entriesPerRegion) {
+        this.entriesPerRegion = entriesPerRegion;
+    }
+
+    public Duration getMaxAge () {
+        return maxAge;
+    }
+
+    public void setMaxAge (Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+}
@@ -0,0 +1,58 @@
+package com.oranba.springboot.catalog.config;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the hot-SKU inventory ledger. The ledger is off unless at least one product ID is listed.
+ */
+@ConfigurationProperties(prefix = "catalog.inventory.hot")
+public class HotInventoryProperties {
+
+    // Products whose stock is reserved from node-local buckets instead of the products row
+    private Set<Long> productIds = new HashSet<>();
+
+    // Number of independent buckets per product on this node
+    private int stripes = 8;
+
+    // Stock borrowed from the products row per refill
+    private int chunkSize = 50;
+
+    // How often idle products, and products whose row ran dry, hand their local stock back to the products row
+    private Duration flushInterval = Duration.ofSeconds(5);
+
+    public Set<Long> getProductIds () {
+        return productIds;
+    }
+
+    public void setProductIds (Set<Long> productIds) {
+        this.productIds = productIds;
+    }
+
+    public int getStripes () {
+        return stripes;
+    }
+
+    public void setStripes (int stripes) {
+        this.stripes = stripes;
+    }
+
+    public int getChunkSize () {
+        return chunkSize;
+    }
+
+    public void setChunkSize (int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public Duration getFlushInterval () {
+        return flushInterval;
+    }
+
+    public void setFlushInterval (Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+}
@@ -0,0 +1,45 @@
+package com.oranba.springboot.catalog.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for Idempotency-Key handling on order creation.
+ */
+@ConfigurationProperties(prefix = "catalog.idempotency")
+public class IdempotencyProperties {
+
+    // How long a key is remembered, in memory and in the idempotency_keys table
+    private Duration ttl = Duration.ofHours(24);
+
+    // Upper bound on keys held in memory; older keys are still answered from the table
+    private long maxEntries = 100_000;
+
+    // How long a duplicate request waits for the in-flight original before giving up
+    private Duration waitTimeout = Duration.ofSeconds(30);
+
+    public Duration getTtl () {
+        return ttl;
+    }
+
+    public void setTtl (Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public long getMaxEntries () {
+        return maxEntries;
+    }
+
+    public void setMaxEntries (long maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Duration getWaitTimeout () {
+        return waitTimeout;
+    }
+
+    public void setWaitTimeout (Duration waitTimeout) {
+        this.waitTimeout = waitTimeout;
+    }
+}
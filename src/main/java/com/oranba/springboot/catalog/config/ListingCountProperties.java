@@ -0,0 +1,51 @@
+package com.oranba.springboot.catalog.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the approximate totals that slice-paged listings can include on request.
+ */
+@ConfigurationProperties(prefix = "catalog.listing-count")
+public class ListingCountProperties {
+
+    public enum Mode {
+        // Row estimate of the query plan; no rows are read, but the figure can be off by a wide margin
+        ESTIMATE,
+        // Exact count, reused for the TTL by every request with the same filters
+        CACHED
+    }
+
+    private Mode mode = Mode.ESTIMATE;
+
+    // How long a cached count is reused
+    private Duration ttl = Duration.ofSeconds(30);
+
+    // Upper bound on distinct filter combinations whose counts are cached
+    private long maxEntries = 10_000;
+
+    public Mode getMode () {
+        return mode;
+    }
+
+    public void setMode (Mode mode) {
+        this.mode = mode;
+    }
+
+    public Duration getTtl () {
+        return ttl;
+    }
+
+    public void setTtl (Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public long getMaxEntries () {
+        return maxEntries;
+    }
+
+    public void setMaxEntries (long maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+}
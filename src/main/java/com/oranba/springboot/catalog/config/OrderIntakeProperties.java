@@ -0,0 +1,87 @@
+package com.oranba.springboot.catalog.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for how POST /api/orders hands orders to the service.
+ */
+@ConfigurationProperties(prefix = "catalog.order-intake")
+public class OrderIntakeProperties {
+
+    public enum Mode {
+        // Each request creates its order in its own transaction and returns 201
+        SYNC,
+        // Requests are queued and return 202; a writer thread commits many orders per transaction. The queue and the
+        // tracking statuses live in memory on the node that accepted the order: a crash loses accepted orders that were
+        // not yet committed, and the status is only known to that node
+        ASYNC
+    }
+
+    private Mode mode = Mode.SYNC;
+
+    // Orders waiting for the writer; requests beyond this are rejected with 503
+    private int queueCapacity = 10_000;
+
+    // Orders committed per transaction at most
+    private int maxBatchSize = 100;
+
+    // How long the writer waits for more orders to fill a batch once it has one
+    private Duration linger = Duration.ofMillis(5);
+
+    // How long the status of a tracking ID stays queryable
+    private Duration trackingTtl = Duration.ofHours(1);
+
+    // Tracking IDs remembered at most; beyond this, older statuses are evicted before their TTL. Keep it well above
+    // queueCapacity so queued orders stay trackable
+    private int trackingMaxEntries = 100_000;
+
+    public Mode getMode () {
+        return mode;
+    }
+
+    public void setMode (Mode mode) {
+        this.mode = mode;
+    }
+
+    public int getQueueCapacity () {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity (int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getMaxBatchSize () {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize (int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public Duration getLinger () {
+        return linger;
+    }
+
+    public void setLinger (Duration linger) {
+        this.linger = linger;
+    }
+
+    public Duration getTrackingTtl () {
+        return trackingTtl;
+    }
+
+    public void setTrackingTtl (Duration trackingTtl) {
+        this.trackingTtl = trackingTtl;
+    }
+
+    public int getTrackingMaxEntries () {
+        return trackingMaxEntries;
+    }
+
+    public void setTrackingMaxEntries (int trackingMaxEntries) {
+        this.trackingMaxEntries = trackingMaxEntries;
+    }
+}
@@ -0,0 +1,42 @@
+package com.oranba.springboot.catalog.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for order number generation.
+ */
+@ConfigurationProperties(prefix = "catalog.order-number")
+public class OrderNumberProperties {
+
+    // Unique per replica, 0-1023; negative means unset, which is only allowed for a single replica (node 0)
+    private int nodeId = -1;
+
+    // Number of replicas issuing order numbers; above 1, every replica must be given its own node ID
+    private int replicas = 1;
+
+    private String prefix = "ORD-";
+
+    public int getNodeId () {
+        return nodeId;
+    }
+
+    public void setNodeId (int nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public int getReplicas () {
+        return replicas;
+    }
+
+    public void setReplicas (int replicas) {
+        this.replicas = replicas;
+    }
+
+    public String getPrefix () {
+        return prefix;
+    }
+
+    public void setPrefix (String prefix) {
+        this.prefix = prefix;
+    }
+}
@@ -0,0 +1,87 @@
+package com.oranba.springboot.catalog.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the transactional outbox and its Kafka relay.
+ */
+@ConfigurationProperties(prefix = "catalog.outbox")
+public class OutboxProperties {
+
+    private String orderTopic = "orders";
+
+    private String inventoryTopic = "inventory";
+
+    // Events claimed and published per relay transaction
+    private int batchSize = 500;
+
+    // Upper bound on batches drained per poll so one replica cannot monopolise a backlog
+    private int maxBatchesPerPoll = 20;
+
+    private Duration pollInterval = Duration.ofMillis(200);
+
+    // How long a batch may spend sending and waiting for broker acknowledgements before the rest is retried; the
+    // batch's locks are held for this long at most, plus one blocked send
+    private Duration sendTimeout = Duration.ofSeconds(10);
+
+    // How often the backlog gauges are refreshed; each refresh scans the outbox, so it runs far less often than polling
+    private Duration backlogSampleInterval = Duration.ofSeconds(15);
+
+    public String getOrderTopic () {
+        return orderTopic;
+    }
+
+    public void setOrderTopic (String orderTopic) {
+        this.orderTopic = orderTopic;
+    }
+
+    public String getInventoryTopic () {
+        return inventoryTopic;
+    }
+
+    public void setInventoryTopic (String inventoryTopic) {
+        this.inventoryTopic = inventoryTopic;
+    }
+
+    public int getBatchSize () {
+        return batchSize;
+    }
+
+    public void setBatchSize (int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxBatchesPerPoll () {
+        return maxBatchesPerPoll;
+    }
+
+    public void setMaxBatchesPerPoll (int maxBatchesPerPoll) {
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+    }
+
+    public Duration getPollInterval () {
+        return pollInterval;
+    }
+
+    public void setPollInterval (Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public Duration getSendTimeout () {
+        return sendTimeout;
+    }
+
+    public void setSendTimeout (Duration sendTimeout) {
+        this.sendTimeout = sendTimeout;
+    }
+
+    public Duration getBacklogSampleInterval () {
+        return backlogSampleInterval;
+    }
+
+    public void setBacklogSampleInterval (Duration backlogSampleInterval) {
+        this.backlogSampleInterval = backlogSampleInterval;
+    }
+}
@@ -0,0 +1,76 @@
+package com.oranba.springboot.catalog.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the Bloom-filter guard on product ID and SKU lookups.
+ */
+@ConfigurationProperties(prefix = "catalog.product-existence")
+public class ProductExistenceProperties {
+
+    private boolean enabled = true;
+
+    // Sized for this many products per filter; rebuilt larger when the catalogue outgrows it
+    private long expectedInsertions = 1_000_000;
+
+    private double falsePositiveProbability = 0.01;
+
+    // Rebuilt from the table periodically to pick up anything a missed broadcast left out
+    private Duration rebuildInterval = Duration.ofHours(1);
+
+    // Products created since the last scan are read again this often, in case their broadcast was lost
+    private Duration catchUpInterval = Duration.ofMinutes(1);
+
+    // How long a SKU confirmed missing by the database is answered without a query
+    private Duration negativeTtl = Duration.ofSeconds(30);
+
+    public boolean isEnabled () {
+        return enabled;
+    }
+
+    public void setEnabled (boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getExpectedInsertions () {
+        return expectedInsertions;
+    }
+
+    public void setExpectedInsertions (long expectedInsertions) {
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    public double getFalsePositiveProbability () {
+        return falsePositiveProbability;
+    }
+
+    public void setFalsePositiveProbability (double falsePositiveProbability) {
+        this.falsePositiveProbability = falsePositiveProbability;
+    }
+
+    public Duration getRebuildInterval () {
+        return rebuildInterval;
+    }
+
+    public void setRebuildInterval (Duration rebuildInterval) {
+        this.rebuildInterval = rebuildInterval;
+    }
+
+    public Duration getCatchUpInterval () {
+        return catchUpInterval;
+    }
+
+    public void setCatchUpInterval (Duration catchUpInterval) {
+        this.catchUpInterval = catchUpInterval;
+    }
+
+    public Duration getNegativeTtl () {
+        return negativeTtl;
+    }
+
+    public void setNegativeTtl (Duration negativeTtl) {
+        this.negativeTtl = negativeTtl;
+    }
+}
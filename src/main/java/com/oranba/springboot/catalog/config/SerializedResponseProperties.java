@@ -0,0 +1,32 @@
+package com.oranba.springboot.catalog.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for the cache of pre-serialized JSON responses built from cache region entries.
+ */
+@ConfigurationProperties(prefix = "catalog.cache.serialized-responses")
+public class SerializedResponseProperties {
+
+    private boolean enabled = true;
+
+    // Total size of the cached JSON; least valuable entries are evicted beyond it
+    private DataSize maximumSize = DataSize.ofMegabytes(64);
+
+    public boolean isEnabled () {
+        return enabled;
+    }
+
+    public void setEnabled (boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public DataSize getMaximumSize () {
+        return maximumSize;
+    }
+
+    public void setMaximumSize (DataSize maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+}
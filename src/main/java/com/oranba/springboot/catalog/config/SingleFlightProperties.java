@@ -0,0 +1,56 @@
+package com.oranba.springboot.catalog.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * How callers behave while waiting on another caller's cache load for the same key.
+ */
+@ConfigurationProperties(prefix = "catalog.cache.single-flight")
+public class SingleFlightProperties {
+
+    public enum TimeoutAction {
+        // Give up waiting and query the database directly, without caching the result
+        LOAD,
+        // Fail the request
+        FAIL
+    }
+
+    public enum FailureAction {
+        // Waiters receive the exception the loading caller got
+        PROPAGATE,
+        // Waiters attempt the load themselves
+        RETRY
+    }
+
+    private Duration waitTimeout = Duration.ofSeconds(5);
+
+    private TimeoutAction onTimeout = TimeoutAction.LOAD;
+
+    private FailureAction onFailure = FailureAction.PROPAGATE;
+
+    public Duration getWaitTimeout () {
+        return waitTimeout;
+    }
+
+    public void setWaitTimeout (Duration waitTimeout) {
+        this.waitTimeout = waitTimeout;
+    }
+
+    public TimeoutAction getOnTimeout () {
+        return onTimeout;
+    }
+
+    public void setOnTimeout (TimeoutAction onTimeout) {
+        this.onTimeout = onTimeout;
+    }
+
+    public FailureAction getOnFailure () {
+        return onFailure;
+    }
+
+    public void setOnFailure (FailureAction onFailure) {
+        this.onFailure = onFailure;
+    }
+}
@@ -10,8 +10,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.oranba.springboot.catalog.cache.SerializedJson;
+import com.oranba.springboot.catalog.cache.SerializedResponseCache;
+import com.oranba.springboot.catalog.config.CacheConfig;
 import com.oranba.springboot.catalog.domain.model.Category;
 import com.oranba.springboot.catalog.service.CategoryService;
+import com.oranba.springboot.catalog.service.CategoryTreeIndex.Breadcrumb;
 
 import io.micrometer.core.annotation.Timed;
 
@@ -22,18 +26,20 @@ public class CategoryController {
     private static final Logger logger = LoggerFactory.getLogger(CategoryController.class);
 
     private final CategoryService categoryService;
+    private final SerializedResponseCache serializedResponses;
 
     @Autowired
-    public CategoryController (CategoryService categoryService) {
+    public CategoryController (CategoryService categoryService, SerializedResponseCache serializedResponses) {
         this.categoryService = categoryService;
+        this.serializedResponses = serializedResponses;
     }
 
     @GetMapping
     @Timed(value = "api.category.findAll", description = "Time taken to find all categories")
-    public ResponseEntity<List<Category>> getAllCategories () {
+    public ResponseEntity<SerializedJson> getAllCategories () {
         logger.debug("REST request to get all Categories");
         List<Category> categories = categoryService.findAllCategories();
-        return ResponseEntity.ok(categories);
+        return ResponseEntity.ok(serializedResponses.of(CacheConfig.CATEGORIES_CACHE, "all", categories));
     }
 
     @GetMapping("/{id}")
@@ -77,6 +83,15 @@ public class CategoryController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/{id}/breadcrumbs")
+    @Timed(value = "api.category.breadcrumbs", description = "Time taken to get category breadcrumbs")
+    public ResponseEntity<List<Breadcrumb>> getBreadcrumbs (@PathVariable Long id) {
+        logger.debug("REST request to get breadcrumbs of Category : {}", id);
+
+        List<Breadcrumb> breadcrumbs = categoryService.getBreadcrumbs(id);
+        return breadcrumbs.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(breadcrumbs);
+    }
+
     @GetMapping("/parent/{parentId}")
     @Timed(value = "api.category.findByParent", description = "Time taken to find categories by parent")
     public ResponseEntity<List<Category>> getCategoriesByParent (@PathVariable Long parentId) {
@@ -88,19 +103,19 @@ public class CategoryController {
 
     @GetMapping("/root")
     @Timed(value = "api.category.findRoot", description = "Time taken to find root categories")
-    public ResponseEntity<List<Category>> getRootCategories () {
+    public ResponseEntity<SerializedJson> getRootCategories () {
         logger.debug("REST request to get root Categories");
 
         List<Category> categories = categoryService.findRootCategories();
-        return ResponseEntity.ok(categories);
+        return ResponseEntity.ok(serializedResponses.of(CacheConfig.CATEGORIES_CACHE, "root", categories));
     }
 
     @GetMapping("/hierarchy")
     @Timed(value = "api.category.hierarchy", description = "Time taken to get category hierarchy")
-    public ResponseEntity<List<Category>> getCategoryHierarchy () {
+    public ResponseEntity<SerializedJson> getCategoryHierarchy () {
         logger.debug("REST request to get Category hierarchy");
 
         List<Category> hierarchy = categoryService.getCategoryHierarchy();
-        return ResponseEntity.ok(hierarchy);
+        return ResponseEntity.ok(serializedResponses.of(CacheConfig.CATEGORIES_CACHE, "hierarchy", hierarchy));
     }
 }
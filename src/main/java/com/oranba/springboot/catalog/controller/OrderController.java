@@ -1,6 +1,11 @@
 package com.oranba.springboot.catalog.controller;
 
+import java.net.URI;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -9,14 +14,29 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mapping.PropertyReferenceException;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.oranba.springboot.catalog.domain.model.Order;
+import com.oranba.springboot.catalog.domain.model.OrderItem;
 import com.oranba.springboot.catalog.domain.model.OrderStatus;
+import com.oranba.springboot.catalog.dto.CursorPage;
+import com.oranba.springboot.catalog.dto.OrderIntakeStatus;
+import com.oranba.springboot.catalog.dto.OrderStatusUpdateRequest;
+import com.oranba.springboot.catalog.dto.OrderStatusUpdateResult;
+import com.oranba.springboot.catalog.dto.OrderStatusUpdateResult.Outcome;
+import com.oranba.springboot.catalog.dto.SlicePage;
+import com.oranba.springboot.catalog.exception.InvalidListingRequestException;
+import com.oranba.springboot.catalog.repository.OrderFilter;
+import com.oranba.springboot.catalog.service.AsyncOrderIntakeService;
+import com.oranba.springboot.catalog.service.IdempotentOrderService;
 import com.oranba.springboot.catalog.service.OrderService;
 
 import io.micrometer.core.annotation.Timed;
@@ -27,23 +47,57 @@ public class OrderController {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
 
+    // Upper bound on orders per bulk status request, so one request cannot hold a transaction open indefinitely
+    private static final int MAX_STATUS_BATCH_SIZE = 5000;
+
     private final OrderService orderService;
+    private final IdempotentOrderService idempotentOrderService;
+    private final AsyncOrderIntakeService asyncOrderIntakeService;
 
     @Autowired
-    public OrderController (OrderService orderService) {
+    public OrderController (OrderService orderService,
+                            IdempotentOrderService idempotentOrderService,
+                            AsyncOrderIntakeService asyncOrderIntakeService) {
         this.orderService = orderService;
+        this.idempotentOrderService = idempotentOrderService;
+        this.asyncOrderIntakeService = asyncOrderIntakeService;
     }
 
     @GetMapping
     @Timed(value = "api.order.findAll", description = "Time taken to find all orders")
     public ResponseEntity<Page<Order>> getAllOrders (@PageableDefault(size = 20) Pageable pageable,
+                                                     @RequestParam(required = false) String paging,
+                                                     @RequestParam(required = false) String cursor,
                                                      @RequestParam(required = false) Map<String, String> filters) {
 
         logger.debug("REST request to get all Orders with filters: {}", filters);
+        Paging.requireOffset(paging, cursor);
+
         Page<Order> page = orderService.findAllOrders(pageable, filters);
         return ResponseEntity.ok(page);
     }
 
+    @GetMapping(params = { Paging.SLICE, Paging.NO_CURSOR })
+    @Timed(value = "api.order.findAll", description = "Time taken to find all orders")
+    public ResponseEntity<SlicePage<Order>> sliceAllOrders (@PageableDefault(size = 20) Pageable pageable,
+                                                            @RequestParam(defaultValue = "false") boolean withTotal,
+                                                            @RequestParam(required = false) Map<String, String> filters) {
+
+        logger.debug("REST request to get a slice of all Orders with filters: {}", filters);
+        Slice<Order> slice = orderService.sliceAllOrders(pageable, filters);
+        return ResponseEntity.ok(SlicePage.of(slice, withTotal ? orderService.approximateOrderCount(filters) : null));
+    }
+
+    @GetMapping(params = Paging.KEYSET)
+    @Timed(value = "api.order.findAll", description = "Time taken to find all orders")
+    public ResponseEntity<CursorPage<Order>> scrollAllOrders (@PageableDefault(size = 20) Pageable pageable,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Map<String, String> filters) {
+
+        logger.debug("REST request to scroll all Orders with filters: {}", filters);
+        return ResponseEntity.ok(orderService.scrollAllOrders(filters, pageable.getSort(), cursor, pageable.getPageSize()));
+    }
+
     @GetMapping("/{id}")
     @Timed(value = "api.order.findById", description = "Time taken to find order by ID")
     public ResponseEntity<Order> getOrderById (@PathVariable Long id) {
@@ -55,17 +109,84 @@ public class OrderController {
 
     @PostMapping
     @Timed(value = "api.order.create", description = "Time taken to create an order")
-    public ResponseEntity<Order> createOrder (@RequestBody Order order) {
+    public ResponseEntity<?> createOrder (@RequestBody Order order,
+                                              @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         logger.debug("REST request to save Order for customer: {}", order.getCustomerId());
 
         if (order.getId() != null) {
             return ResponseEntity.badRequest().header("error", "A new order cannot have an ID").build();
         }
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > 255)) {
+            return ResponseEntity.badRequest().header("error", "Idempotency-Key must be 1 to 255 characters").build();
+        }
+        String itemError = validateItems(order);
+        if (itemError != null) {
+            return ResponseEntity.badRequest().header("error", itemError).build();
+        }
 
-        Order result = orderService.createOrder(order);
+        // Keyed requests stay synchronous: their dedup row must commit together with the order. Queued orders are
+        // accepted at most once and lost if this node crashes before their batch commits
+        if (asyncOrderIntakeService.isEnabled() && idempotencyKey == null) {
+            return submitOrder(order);
+        }
+
+        Order result = idempotencyKey != null ? idempotentOrderService.createOrder(idempotencyKey, order) : orderService.createOrder(order);
         return ResponseEntity.status(HttpStatus.CREATED).body(result);
     }
 
+    // Answered from the accepting node's memory only; other replicas return 404 (see AsyncOrderIntakeService)
+    @GetMapping("/intake/{trackingId}")
+    @Timed(value = "api.order.intakeStatus", description = "Time taken to look up an asynchronous order")
+    public ResponseEntity<OrderIntakeStatus> getIntakeStatus (@PathVariable String trackingId) {
+        logger.debug("REST request to get intake status : {}", trackingId);
+
+        Optional<OrderIntakeStatus> status = asyncOrderIntakeService.getStatus(trackingId);
+        return status.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<?> submitOrder (Order order) {
+        String error = validateForIntake(order);
+        if (error != null) {
+            return ResponseEntity.badRequest().header("error", error).build();
+        }
+
+        Optional<String> trackingId = asyncOrderIntakeService.submit(order);
+        if (trackingId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+
+        return ResponseEntity.accepted()
+                             .location(URI.create("/api/orders/intake/" + trackingId.get()))
+                             .body(OrderIntakeStatus.queued(trackingId.get()));
+    }
+
+    // Queued orders cannot report constraint violations to the caller, so check them before accepting
+    private static String validateForIntake (Order order) {
+        if (order.getCustomerId() == null) {
+            return "Customer ID is required";
+        }
+        if (order.getTotalAmount() == null) {
+            return "Total amount is required";
+        }
+        if (order.getOrderItems() == null || order.getOrderItems().isEmpty()) {
+            return "At least one order item is required";
+        }
+        return validateItems(order);
+    }
+
+    // Stock is reserved per item quantity, so a zero or negative quantity would put stock back instead
+    private static String validateItems (Order order) {
+        if (order.getOrderItems() == null) {
+            return null;
+        }
+        for (OrderItem item : order.getOrderItems()) {
+            if (item.getProductId() == null || item.getPriceAtOrder() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                return "Each order item needs a product ID, a price and a positive quantity";
+            }
+        }
+        return null;
+    }
+
     @PutMapping("/{id}/status")
     @Timed(value = "api.order.updateStatus", description = "Time taken to update order status")
     public ResponseEntity<Order> updateOrderStatus (@PathVariable Long id, @RequestBody Map<String, String> statusUpdate) {
@@ -90,41 +211,170 @@ public class OrderController {
         }
     }
 
+    @PutMapping("/status:batch")
+    @Timed(value = "api.order.updateStatusBatch", description = "Time taken to update the status of a batch of orders")
+    public ResponseEntity<List<OrderStatusUpdateResult>> updateOrderStatuses (@RequestBody List<OrderStatusUpdateRequest> statusUpdates) {
+
+        logger.debug("REST request to update status of {} Orders", statusUpdates.size());
+        if (statusUpdates.size() > MAX_STATUS_BATCH_SIZE) {
+            return ResponseEntity.badRequest().header("error", "At most " + MAX_STATUS_BATCH_SIZE + " orders per request").build();
+        }
+
+        // Entries with an unparseable status are answered here; the rest go to the service in one call
+        Map<Long, OrderStatus> updates = new LinkedHashMap<>();
+        Map<Long, OrderStatusUpdateResult> rejected = new HashMap<>();
+        for (OrderStatusUpdateRequest update : statusUpdates) {
+            if (update.id() == null) {
+                return ResponseEntity.badRequest().header("error", "Order ID is required").build();
+            }
+            if (updates.containsKey(update.id()) || rejected.containsKey(update.id())) {
+                return ResponseEntity.badRequest().header("error", "Duplicate order ID: " + update.id()).build();
+            }
+            try {
+                updates.put(update.id(), OrderStatus.valueOf(update.status().toUpperCase()));
+            }
+            catch (IllegalArgumentException | NullPointerException e) {
+                rejected.put(update.id(), OrderStatusUpdateResult.failed(update.id(), Outcome.INVALID_STATUS, null,
+                                                                         "Invalid status: " + update.status()));
+            }
+        }
+
+        // One result per entry, in request order
+        Map<Long, OrderStatusUpdateResult> applied = new HashMap<>();
+        if (!updates.isEmpty()) {
+            orderService.updateOrderStatuses(updates).forEach(result -> applied.put(result.id(), result));
+        }
+        List<OrderStatusUpdateResult> results = new ArrayList<>(statusUpdates.size());
+        for (OrderStatusUpdateRequest update : statusUpdates) {
+            results.add(rejected.containsKey(update.id()) ? rejected.get(update.id()) : applied.get(update.id()));
+        }
+        return ResponseEntity.ok(results);
+    }
+
     @GetMapping("/customer/{customerId}")
     @Timed(value = "api.order.findByCustomer", description = "Time taken to find orders by customer")
-    public ResponseEntity<Page<Order>> getOrdersByCustomer (@PathVariable Long customerId, @PageableDefault(size = 20) Pageable pageable) {
+    public ResponseEntity<Page<Order>> getOrdersByCustomer (@PathVariable Long customerId,
+                                                            @RequestParam(required = false) String paging,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @PageableDefault(size = 20) Pageable pageable) {
 
         logger.debug("REST request to get Orders by customer : {}", customerId);
+        Paging.requireOffset(paging, cursor);
+
         Page<Order> page = orderService.findOrdersByCustomer(customerId, pageable);
         return ResponseEntity.ok(page);
     }
 
+    @GetMapping(value = "/customer/{customerId}", params = { Paging.SLICE, Paging.NO_CURSOR })
+    @Timed(value = "api.order.findByCustomer", description = "Time taken to find orders by customer")
+    public ResponseEntity<SlicePage<Order>> sliceOrdersByCustomer (@PathVariable Long customerId,
+                                                                   @RequestParam(defaultValue = "false") boolean withTotal,
+                                                                   @PageableDefault(size = 20) Pageable pageable) {
+
+        logger.debug("REST request to get a slice of Orders by customer : {}", customerId);
+        Slice<Order> slice = orderService.sliceOrdersByCustomer(customerId, pageable);
+        Long total = withTotal ? orderService.approximateOrderCount(new OrderFilter(customerId, null, null, null)) : null;
+        return ResponseEntity.ok(SlicePage.of(slice, total));
+    }
+
+    @GetMapping(value = "/customer/{customerId}", params = Paging.KEYSET)
+    @Timed(value = "api.order.findByCustomer", description = "Time taken to find orders by customer")
+    public ResponseEntity<CursorPage<Order>> scrollOrdersByCustomer (@PathVariable Long customerId,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @PageableDefault(size = 20) Pageable pageable) {
+
+        logger.debug("REST request to scroll Orders by customer : {}", customerId);
+        return ResponseEntity.ok(orderService.scrollOrdersByCustomer(customerId, pageable.getSort(), cursor, pageable.getPageSize()));
+    }
+
     @GetMapping("/status/{status}")
     @Timed(value = "api.order.findByStatus", description = "Time taken to find orders by status")
-    public ResponseEntity<Page<Order>> getOrdersByStatus (@PathVariable String status, @PageableDefault(size = 20) Pageable pageable) {
+    public ResponseEntity<Page<Order>> getOrdersByStatus (@PathVariable String status,
+                                                          @RequestParam(required = false) String paging,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @PageableDefault(size = 20) Pageable pageable) {
 
         logger.debug("REST request to get Orders by status : {}", status);
+        OrderStatus orderStatus = orderStatus(status);
+        Paging.requireOffset(paging, cursor);
+
+        Page<Order> page = orderService.findOrdersByStatus(orderStatus, pageable);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(value = "/status/{status}", params = { Paging.SLICE, Paging.NO_CURSOR })
+    @Timed(value = "api.order.findByStatus", description = "Time taken to find orders by status")
+    public ResponseEntity<SlicePage<Order>> sliceOrdersByStatus (@PathVariable String status,
+                                                                 @RequestParam(defaultValue = "false") boolean withTotal,
+                                                                 @PageableDefault(size = 20) Pageable pageable) {
+
+        logger.debug("REST request to get a slice of Orders by status : {}", status);
+        OrderStatus orderStatus = orderStatus(status);
+
+        Slice<Order> slice = orderService.sliceOrdersByStatus(orderStatus, pageable);
+        Long total = withTotal ? orderService.approximateOrderCount(new OrderFilter(null, orderStatus, null, null)) : null;
+        return ResponseEntity.ok(SlicePage.of(slice, total));
+    }
+
+    @GetMapping(value = "/status/{status}", params = Paging.KEYSET)
+    @Timed(value = "api.order.findByStatus", description = "Time taken to find orders by status")
+    public ResponseEntity<CursorPage<Order>> scrollOrdersByStatus (@PathVariable String status,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @PageableDefault(size = 20) Pageable pageable) {
+
+        logger.debug("REST request to scroll Orders by status : {}", status);
+        OrderStatus orderStatus = orderStatus(status);
+        return ResponseEntity.ok(orderService.scrollOrdersByStatus(orderStatus, pageable.getSort(), cursor, pageable.getPageSize()));
+    }
+
+    private static OrderStatus orderStatus (String status) {
         try {
-            OrderStatus orderStatus = OrderStatus.valueOf(status.toUpperCase());
-            Page<Order> page = orderService.findOrdersByStatus(orderStatus, pageable);
-            return ResponseEntity.ok(page);
+            return OrderStatus.valueOf(status.toUpperCase());
         }
         catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
+            throw new InvalidListingRequestException("Invalid status: " + status, e);
         }
     }
 
     @GetMapping("/date-range")
     @Timed(value = "api.order.findByDateRange", description = "Time taken to find orders by date range")
-    public ResponseEntity<Page<Order>> getOrdersInDateRange (@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+    public ResponseEntity<Page<Order>> getOrdersInDateRange (@RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime startDate,
+                                                             @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime endDate,
+                                                             @RequestParam(required = false) String paging,
+                                                             @RequestParam(required = false) String cursor,
                                                              @PageableDefault(size = 20) Pageable pageable) {
 
         logger.debug("REST request to get Orders between dates : {} and {}", startDate, endDate);
+        Paging.requireOffset(paging, cursor);
+
         Page<Order> page = orderService.findOrdersInDateRange(startDate, endDate, pageable);
         return ResponseEntity.ok(page);
     }
 
+    @GetMapping(value = "/date-range", params = { Paging.SLICE, Paging.NO_CURSOR })
+    @Timed(value = "api.order.findByDateRange", description = "Time taken to find orders by date range")
+    public ResponseEntity<SlicePage<Order>> sliceOrdersInDateRange (@RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime startDate,
+                                                                    @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime endDate,
+                                                                    @RequestParam(defaultValue = "false") boolean withTotal,
+                                                                    @PageableDefault(size = 20) Pageable pageable) {
+
+        logger.debug("REST request to get a slice of Orders between dates : {} and {}", startDate, endDate);
+        Slice<Order> slice = orderService.sliceOrdersInDateRange(startDate, endDate, pageable);
+        Long total = withTotal ? orderService.approximateOrderCount(new OrderFilter(null, null, startDate, endDate)) : null;
+        return ResponseEntity.ok(SlicePage.of(slice, total));
+    }
+
+    @GetMapping(value = "/date-range", params = Paging.KEYSET)
+    @Timed(value = "api.order.findByDateRange", description = "Time taken to find orders by date range")
+    public ResponseEntity<CursorPage<Order>> scrollOrdersInDateRange (@RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime startDate,
+                                                                      @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime endDate,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @PageableDefault(size = 20) Pageable pageable) {
+
+        logger.debug("REST request to scroll Orders between dates : {} and {}", startDate, endDate);
+        return ResponseEntity.ok(orderService.scrollOrdersInDateRange(startDate, endDate, pageable.getSort(), cursor, pageable.getPageSize()));
+    }
+
     @GetMapping("/metrics")
     @Timed(value = "api.order.metrics", description = "Time taken to get order metrics")
     public ResponseEntity<Map<String, Object>> getOrderMetrics () {
@@ -133,4 +383,11 @@ public class OrderController {
         Map<String, Object> metrics = orderService.getOrderMetrics();
         return ResponseEntity.ok(metrics);
     }
+
+    // Invalid paging, sort, cursor, filter or status; Spring Data rejects an unknown sort property of a JPA listing with
+    // PropertyReferenceException
+    @ExceptionHandler({ InvalidListingRequestException.class, PropertyReferenceException.class })
+    public ResponseEntity<Void> handleInvalidListingRequest (RuntimeException e) {
+        return ResponseEntity.badRequest().header("error", e.getMessage()).build();
+    }
 }
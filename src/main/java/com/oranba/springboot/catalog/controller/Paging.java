@@ -0,0 +1,34 @@
+package com.oranba.springboot.catalog.controller;
+
+import com.oranba.springboot.catalog.exception.InvalidListingRequestException;
+
+/**
+ * How a listing endpoint pages: by page number with a total ({@code paging=offset}, the default), by page number
+ * without counting the matches ({@code paging=slice}), or by continuation cursor ({@code paging=keyset}), which costs
+ * the same at any depth. Each mode has its own handler method, mapped with the parameter conditions below.
+ */
+final class Paging {
+
+    static final String SLICE = "paging=slice";
+    static final String KEYSET = "paging=keyset";
+    static final String NO_CURSOR = "!cursor";
+
+    private Paging () {
+    }
+
+    /**
+     * Check the paging parameters of a request that reached an offset handler, which is where every request no other
+     * mode matched ends up.
+     *
+     * @throws InvalidListingRequestException
+     *         for an unknown mode, or a cursor without keyset paging
+     */
+    static void requireOffset (String paging, String cursor) {
+        if (cursor != null) {
+            throw new InvalidListingRequestException("A cursor requires keyset paging");
+        }
+        if (paging != null && !paging.isBlank() && !paging.equals("offset")) {
+            throw new InvalidListingRequestException("Invalid paging: " + paging);
+        }
+    }
+}
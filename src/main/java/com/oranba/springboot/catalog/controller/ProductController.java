@@ -8,12 +8,20 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mapping.PropertyReferenceException;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.oranba.springboot.catalog.cache.SerializedJson;
+import com.oranba.springboot.catalog.cache.SerializedResponseCache;
+import com.oranba.springboot.catalog.config.CacheConfig;
 import com.oranba.springboot.catalog.domain.model.Product;
+import com.oranba.springboot.catalog.dto.CursorPage;
+import com.oranba.springboot.catalog.dto.SlicePage;
+import com.oranba.springboot.catalog.exception.InvalidListingRequestException;
 import com.oranba.springboot.catalog.service.ProductService;
 
 import io.micrometer.core.annotation.Timed;
@@ -25,28 +33,65 @@ public class ProductController {
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
 
     private final ProductService productService;
+    private final SerializedResponseCache serializedResponses;
 
     @Autowired
-    public ProductController (ProductService productService) {
+    public ProductController (ProductService productService, SerializedResponseCache serializedResponses) {
         this.productService = productService;
+        this.serializedResponses = serializedResponses;
     }
 
     @GetMapping
     @Timed(value = "api.product.findAll", description = "Time taken to find all products")
     public ResponseEntity<Page<Product>> getAllProducts (@PageableDefault(size = 20) Pageable pageable,
+                                                         @RequestParam(required = false) String paging,
+                                                         @RequestParam(required = false) String cursor,
                                                          @RequestParam(required = false) Map<String, String> filters) {
 
         logger.debug("REST request to get all Products with filters: {}", filters);
+        Paging.requireOffset(paging, cursor);
+
         Page<Product> page = productService.findAllProducts(pageable, filters);
         return ResponseEntity.ok(page);
     }
 
+    @GetMapping(params = { Paging.SLICE, Paging.NO_CURSOR })
+    @Timed(value = "api.product.findAll", description = "Time taken to find all products")
+    public ResponseEntity<SlicePage<Product>> sliceAllProducts (@PageableDefault(size = 20) Pageable pageable,
+                                                                @RequestParam(defaultValue = "false") boolean withTotal,
+                                                                @RequestParam(required = false) Map<String, String> filters) {
+
+        logger.debug("REST request to get a slice of all Products with filters: {}", filters);
+        Slice<Product> slice = productService.sliceAllProducts(pageable, filters);
+        return ResponseEntity.ok(SlicePage.of(slice, withTotal ? productService.approximateProductCount(filters) : null));
+    }
+
+    @GetMapping(params = Paging.KEYSET)
+    @Timed(value = "api.product.findAll", description = "Time taken to find all products")
+    public ResponseEntity<CursorPage<Product>> scrollAllProducts (@PageableDefault(size = 20) Pageable pageable,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Map<String, String> filters) {
+
+        logger.debug("REST request to scroll all Products with filters: {}", filters);
+        return ResponseEntity.ok(productService.scrollAllProducts(filters, pageable.getSort(), cursor, pageable.getPageSize()));
+    }
+
     @GetMapping("/{id}")
     @Timed(value = "api.product.findById", description = "Time taken to find product by ID")
-    public ResponseEntity<Product> getProductById (@PathVariable Long id) {
+    public ResponseEntity<SerializedJson> getProductById (@PathVariable Long id) {
         logger.debug("REST request to get Product : {}", id);
 
         Optional<Product> product = productService.findProductById(id);
+        return product.map(found -> ResponseEntity.ok(serializedResponses.of(CacheConfig.PRODUCT_DETAILS_CACHE, id, found)))
+                      .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/sku/{sku}")
+    @Timed(value = "api.product.findBySku", description = "Time taken to find product by SKU")
+    public ResponseEntity<Product> getProductBySku (@PathVariable String sku) {
+        logger.debug("REST request to get Product by SKU : {}", sku);
+
+        Optional<Product> product = productService.findProductBySku(sku);
         return product.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
@@ -82,16 +127,66 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/search")
+    @Timed(value = "api.product.search", description = "Time taken to search products")
+    public ResponseEntity<SlicePage<Product>> searchProducts (@RequestParam("q") String query,
+                                                              @RequestParam(defaultValue = "false") boolean withTotal,
+                                                              @PageableDefault(size = 20) Pageable pageable) {
+        logger.debug("REST request to search Products : {}", query);
+
+        if (query.isBlank()) {
+            return ResponseEntity.badRequest().header("error", "A search query is required").build();
+        }
+
+        Slice<Product> slice = productService.searchProducts(query, pageable);
+        return ResponseEntity.ok(SlicePage.of(slice, withTotal ? productService.approximateSearchCount(query) : null));
+    }
+
     @GetMapping("/category/{categoryId}")
     @Timed(value = "api.product.findByCategory", description = "Time taken to find products by category")
     public ResponseEntity<Page<Product>> getProductsByCategory (@PathVariable Long categoryId,
+                                                                @RequestParam(defaultValue = "false") boolean includeDescendants,
+                                                                @RequestParam(required = false) String paging,
+                                                                @RequestParam(required = false) String cursor,
                                                                 @PageableDefault(size = 20) Pageable pageable) {
 
-        logger.debug("REST request to get Products by category : {}", categoryId);
-        Page<Product> page = productService.findProductsByCategory(categoryId, pageable);
+        logger.debug("REST request to get Products by category : {}, including descendants: {}", categoryId, includeDescendants);
+        Paging.requireOffset(paging, cursor);
+
+        Page<Product> page = includeDescendants
+                ? productService.findProductsInCategoryTree(categoryId, pageable)
+                : productService.findProductsByCategory(categoryId, pageable);
         return ResponseEntity.ok(page);
     }
 
+    @GetMapping(value = "/category/{categoryId}", params = { Paging.SLICE, Paging.NO_CURSOR })
+    @Timed(value = "api.product.findByCategory", description = "Time taken to find products by category")
+    public ResponseEntity<SlicePage<Product>> sliceProductsByCategory (@PathVariable Long categoryId,
+                                                                       @RequestParam(defaultValue = "false") boolean includeDescendants,
+                                                                       @RequestParam(defaultValue = "false") boolean withTotal,
+                                                                       @PageableDefault(size = 20) Pageable pageable) {
+
+        logger.debug("REST request to get a slice of Products by category : {}, including descendants: {}", categoryId, includeDescendants);
+        Slice<Product> slice = includeDescendants
+                ? productService.sliceProductsInCategoryTree(categoryId, pageable)
+                : productService.sliceProductsByCategory(categoryId, pageable);
+        Long total = withTotal ? productService.approximateProductCountInCategory(categoryId, includeDescendants) : null;
+        return ResponseEntity.ok(SlicePage.of(slice, total));
+    }
+
+    @GetMapping(value = "/category/{categoryId}", params = Paging.KEYSET)
+    @Timed(value = "api.product.findByCategory", description = "Time taken to find products by category")
+    public ResponseEntity<CursorPage<Product>> scrollProductsByCategory (@PathVariable Long categoryId,
+                                                                         @RequestParam(defaultValue = "false") boolean includeDescendants,
+                                                                         @RequestParam(required = false) String cursor,
+                                                                         @PageableDefault(size = 20) Pageable pageable) {
+
+        logger.debug("REST request to scroll Products by category : {}, including descendants: {}", categoryId, includeDescendants);
+        return ResponseEntity.ok(includeDescendants
+                ? productService.scrollProductsInCategoryTree(categoryId, pageable.getSort(), cursor, pageable.getPageSize())
+                : productService.scrollProductsByCategory(categoryId, pageable.getSort(), cursor, pageable.getPageSize()));
+    }
+
     @PutMapping("/{id}/inventory")
     @Timed(value = "api.product.updateInventory", description = "Time taken to update product inventory")
     public ResponseEntity<Product> updateInventory (@PathVariable Long id, @RequestParam int quantityChange) {
@@ -110,4 +205,11 @@ public class ProductController {
         Iterable<Product> products = productService.findProductsWithLowInventory(threshold);
         return ResponseEntity.ok(products);
     }
+
+    // Invalid paging, sort, cursor or filter; Spring Data rejects an unknown sort property of a JPA listing with
+    // PropertyReferenceException
+    @ExceptionHandler({ InvalidListingRequestException.class, PropertyReferenceException.class })
+    public ResponseEntity<Void> handleInvalidListingRequest (RuntimeException e) {
+        return ResponseEntity.badRequest().header("error", e.getMessage()).build();
+    }
 }
@@ -0,0 +1,41 @@
+package com.oranba.springboot.catalog.domain.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+/**
+ * An Idempotency-Key claimed by an order request. Rows are written by {@code IdempotencyKeyRepository.claim} and only
+ * read through this entity.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyKey {
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    // Null only inside the transaction that claimed the key, until its order exists
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    protected IdempotencyKey () {
+    }
+
+    // Getters
+    public String getKey () {
+        return key;
+    }
+
+    public Long getOrderId () {
+        return orderId;
+    }
+
+    public LocalDateTime getCreatedAt () {
+        return createdAt;
+    }
+}
@@ -2,6 +2,8 @@ package com.oranba.springboot.catalog.domain.model;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import jakarta.persistence.*;
 
@@ -38,6 +40,10 @@ public class Order {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Line items travel with the order payload; they are persisted to order_items by the service
+    @Transient
+    private List<OrderItem> orderItems = new ArrayList<>();
+
     @PrePersist
     protected void onCreate () {
         createdAt = LocalDateTime.now();
@@ -121,4 +127,12 @@ public class Order {
     public void setUpdatedAt (LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public List<OrderItem> getOrderItems () {
+        return orderItems;
+    }
+
+    public void setOrderItems (List<OrderItem> orderItems) {
+        this.orderItems = orderItems;
+    }
 }
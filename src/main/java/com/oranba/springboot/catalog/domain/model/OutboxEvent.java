@@ -0,0 +1,84 @@
+package com.oranba.springboot.catalog.domain.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    @Column(name = "message_key")
+    private String messageKey;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate () {
+        createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId () {
+        return id;
+    }
+
+    public void setId (Long id) {
+        this.id = id;
+    }
+
+    public String getTopic () {
+        return topic;
+    }
+
+    public void setTopic (String topic) {
+        this.topic = topic;
+    }
+
+    public String getMessageKey () {
+        return messageKey;
+    }
+
+    public void setMessageKey (String messageKey) {
+        this.messageKey = messageKey;
+    }
+
+    public String getEventType () {
+        return eventType;
+    }
+
+    public void setEventType (String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getPayload () {
+        return payload;
+    }
+
+    public void setPayload (String payload) {
+        this.payload = payload;
+    }
+
+    public LocalDateTime getCreatedAt () {
+        return createdAt;
+    }
+
+    public void setCreatedAt (LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
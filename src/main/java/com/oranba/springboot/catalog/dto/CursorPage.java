@@ -0,0 +1,19 @@
+package com.oranba.springboot.catalog.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paged listing. The next page is requested by passing {@code nextCursor} back as the
+ * {@code cursor} parameter; the cursor is opaque and only valid with the sort it was issued for.
+ *
+ * @param content
+ *        Rows of this page
+ * @param size
+ *        Requested page size
+ * @param hasNext
+ *        Whether more rows follow
+ * @param nextCursor
+ *        Continuation token for the next page, or {@code null} on the last page
+ */
+public record CursorPage<T>(List<T> content, int size, boolean hasNext, String nextCursor) {
+}
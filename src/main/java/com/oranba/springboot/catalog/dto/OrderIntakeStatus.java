@@ -0,0 +1,28 @@
+package com.oranba.springboot.catalog.dto;
+
+/**
+ * Progress of an order accepted through asynchronous intake.
+ */
+public record OrderIntakeStatus(String trackingId, State state, Long orderId, String orderNumber, String message) {
+
+    public enum State {
+        // Accepted and waiting for the writer
+        QUEUED,
+        // Durably stored
+        COMMITTED,
+        // Rejected by the service, e.g. insufficient inventory
+        FAILED
+    }
+
+    public static OrderIntakeStatus queued (String trackingId) {
+        return new OrderIntakeStatus(trackingId, State.QUEUED, null, null, null);
+    }
+
+    public static OrderIntakeStatus committed (String trackingId, Long orderId, String orderNumber) {
+        return new OrderIntakeStatus(trackingId, State.COMMITTED, orderId, orderNumber, null);
+    }
+
+    public static OrderIntakeStatus failed (String trackingId, String message) {
+        return new OrderIntakeStatus(trackingId, State.FAILED, null, null, message);
+    }
+}
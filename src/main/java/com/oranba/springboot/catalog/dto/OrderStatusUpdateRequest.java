@@ -0,0 +1,7 @@
+package com.oranba.springboot.catalog.dto;
+
+/**
+ * One entry of a bulk order status update.
+ */
+public record OrderStatusUpdateRequest(Long id, String status) {
+}
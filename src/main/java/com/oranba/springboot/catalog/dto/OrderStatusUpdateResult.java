@@ -0,0 +1,21 @@
+package com.oranba.springboot.catalog.dto;
+
+import com.oranba.springboot.catalog.domain.model.OrderStatus;
+
+/**
+ * Per-order outcome of a bulk order status update.
+ */
+public record OrderStatusUpdateResult(Long id, Outcome outcome, OrderStatus previousStatus, OrderStatus status, String message) {
+
+    public enum Outcome {
+        UPDATED, NOT_FOUND, INVALID_STATUS, INVALID_TRANSITION, CONFLICT
+    }
+
+    public static OrderStatusUpdateResult updated (Long id, OrderStatus previousStatus, OrderStatus status) {
+        return new OrderStatusUpdateResult(id, Outcome.UPDATED, previousStatus, status, null);
+    }
+
+    public static OrderStatusUpdateResult failed (Long id, Outcome outcome, OrderStatus previousStatus, String message) {
+        return new OrderStatusUpdateResult(id, outcome, previousStatus, previousStatus, message);
+    }
+}
@@ -0,0 +1,26 @@
+package com.oranba.springboot.catalog.dto;
+
+import java.util.List;
+
+import org.springframework.data.domain.Slice;
+
+/**
+ * One page of a slice-paged listing: numbered like an offset page, but without the count query a total would need.
+ *
+ * @param content
+ *        Rows of this page
+ * @param number
+ *        Zero-based page number
+ * @param size
+ *        Requested page size
+ * @param hasNext
+ *        Whether more rows follow
+ * @param approximateTotal
+ *        Estimated number of matching rows when requested, otherwise {@code null}
+ */
+public record SlicePage<T>(List<T> content, int number, int size, boolean hasNext, Long approximateTotal) {
+
+    public static <T> SlicePage<T> of (Slice<T> slice, Long approximateTotal) {
+        return new SlicePage<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext(), approximateTotal);
+    }
+}
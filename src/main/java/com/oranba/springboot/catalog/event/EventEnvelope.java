@@ -0,0 +1,15 @@
+package com.oranba.springboot.catalog.event;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Common wrapper for every published event. Consumers deduplicate on {@code eventId} since the outbox relay delivers at
+ * least once.
+ */
+public record EventEnvelope<T>(String eventId, String eventType, Instant timestamp, T payload) {
+
+    public static <T> EventEnvelope<T> of (String eventType, T payload) {
+        return new EventEnvelope<>(UUID.randomUUID().toString(), eventType, Instant.now(), payload);
+    }
+}
@@ -0,0 +1,12 @@
+package com.oranba.springboot.catalog.event;
+
+/**
+ * Payload of {@code INVENTORY_CHANGED}.
+ */
+public record InventoryChangedEvent(Long productId, int quantityChange, String reason, String referenceId) {
+
+    public static final String TYPE = "INVENTORY_CHANGED";
+
+    public static final String REASON_ORDER = "ORDER";
+    public static final String REASON_ADJUSTMENT = "ADJUSTMENT";
+}
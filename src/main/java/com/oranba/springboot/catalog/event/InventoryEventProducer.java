@@ -0,0 +1,25 @@
+package com.oranba.springboot.catalog.event;
+
+import org.springframework.stereotype.Component;
+
+import com.oranba.springboot.catalog.config.OutboxProperties;
+
+/**
+ * Inventory change events, written to the outbox and keyed by product ID.
+ */
+@Component
+public class InventoryEventProducer {
+
+    private final OutboxWriter outboxWriter;
+    private final OutboxProperties properties;
+
+    public InventoryEventProducer (OutboxWriter outboxWriter, OutboxProperties properties) {
+        this.outboxWriter = outboxWriter;
+        this.properties = properties;
+    }
+
+    public void publishInventoryChangedEvent (Long productId, int quantityChange, String reason, String referenceId) {
+        InventoryChangedEvent event = new InventoryChangedEvent(productId, quantityChange, reason, referenceId);
+        outboxWriter.append(properties.getInventoryTopic(), productId, InventoryChangedEvent.TYPE, event);
+    }
+}
@@ -0,0 +1,26 @@
+package com.oranba.springboot.catalog.event;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.oranba.springboot.catalog.domain.model.Order;
+
+/**
+ * Payload of {@code ORDER_CREATED}.
+ */
+public record OrderCreatedEvent(Long orderId, String orderNumber, Long customerId, BigDecimal totalAmount, List<Item> items) {
+
+    public static final String TYPE = "ORDER_CREATED";
+
+    public record Item(Long productId, Integer quantity, BigDecimal price) {
+    }
+
+    public static OrderCreatedEvent from (Order order) {
+        List<Item> items = order.getOrderItems() == null ? List.of()
+                : order.getOrderItems()
+                       .stream()
+                       .map(item -> new Item(item.getProductId(), item.getQuantity(), item.getPriceAtOrder()))
+                       .toList();
+        return new OrderCreatedEvent(order.getId(), order.getOrderNumber(), order.getCustomerId(), order.getTotalAmount(), items);
+    }
+}
@@ -0,0 +1,36 @@
+package com.oranba.springboot.catalog.event;
+
+import org.springframework.stereotype.Component;
+
+import com.oranba.springboot.catalog.config.OutboxProperties;
+import com.oranba.springboot.catalog.domain.model.Order;
+import com.oranba.springboot.catalog.domain.model.OrderStatus;
+
+/**
+ * Order lifecycle events, written to the outbox and keyed by order ID so each order's events stay ordered on one
+ * partition.
+ */
+@Component
+public class OrderEventProducer {
+
+    private final OutboxWriter outboxWriter;
+    private final OutboxProperties properties;
+
+    public OrderEventProducer (OutboxWriter outboxWriter, OutboxProperties properties) {
+        this.outboxWriter = outboxWriter;
+        this.properties = properties;
+    }
+
+    public void publishOrderCreatedEvent (Order order) {
+        outboxWriter.append(properties.getOrderTopic(), order.getId(), OrderCreatedEvent.TYPE, OrderCreatedEvent.from(order));
+    }
+
+    public void publishOrderStatusChangedEvent (Order order, OrderStatus previousStatus) {
+        publishOrderStatusChangedEvent(order.getId(), order.getOrderNumber(), previousStatus, order.getOrderStatus());
+    }
+
+    public void publishOrderStatusChangedEvent (Long orderId, String orderNumber, OrderStatus previousStatus, OrderStatus newStatus) {
+        OrderStatusChangedEvent event = new OrderStatusChangedEvent(orderId, orderNumber, previousStatus, newStatus);
+        outboxWriter.append(properties.getOrderTopic(), orderId, OrderStatusChangedEvent.TYPE, event);
+    }
+}
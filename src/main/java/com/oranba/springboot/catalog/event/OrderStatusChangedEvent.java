@@ -0,0 +1,11 @@
+package com.oranba.springboot.catalog.event;
+
+import com.oranba.springboot.catalog.domain.model.OrderStatus;
+
+/**
+ * Payload of {@code ORDER_STATUS_CHANGED}.
+ */
+public record OrderStatusChangedEvent(Long orderId, String orderNumber, OrderStatus previousStatus, OrderStatus newStatus) {
+
+    public static final String TYPE = "ORDER_STATUS_CHANGED";
+}
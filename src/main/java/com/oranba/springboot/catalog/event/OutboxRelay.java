@@ -0,0 +1,176 @@
+package com.oranba.springboot.catalog.event;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oranba.springboot.catalog.config.OutboxProperties;
+import com.oranba.springboot.catalog.domain.model.OutboxEvent;
+import com.oranba.springboot.catalog.repository.OutboxEventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Drains the outbox table to Kafka. Several replicas can drain in parallel: each batch claims only aggregates (topic and
+ * message key) that no other relay holds, so the events of one order or product are always published by one relay in
+ * the order they were written. Batches are sent asynchronously so the producer can batch and compress the records.
+ * <p>
+ * An event is deleted once it is acknowledged, unless an earlier event of its aggregate in the same batch failed: from
+ * the first failure on, the rest of that aggregate stays in the outbox and is retried in order on the next poll.
+ * Delivery is at least once.
+ * <p>
+ * A batch is claimed, sent and deleted in one transaction, so its row and advisory locks are held across the broker
+ * round-trip; releasing them before the sends would let another relay publish the same aggregates out of order. The
+ * hold is bounded: no record is sent once the send timeout has passed, each send blocks for at most the producer's
+ * {@code max.block.ms}, and the acknowledgement wait ends at the same deadline. Other relays skip the locked rows and
+ * aggregates instead of waiting, and order writers only insert, which row locks do not block.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter publishedCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer drainTimer;
+
+    public OutboxRelay (OutboxEventRepository outboxEventRepository,
+                        KafkaTemplate<String, String> kafkaTemplate,
+                        OutboxProperties properties,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("outbox.pending", pendingEvents, AtomicLong::get).description("Events waiting in the outbox").register(meterRegistry);
+        Gauge.builder("outbox.lag", lagMillis, AtomicLong::get)
+             .description("Age of the oldest unpublished outbox event")
+             .baseUnit("milliseconds")
+             .register(meterRegistry);
+        this.publishedCounter = Counter.builder("outbox.published").description("Events published from the outbox").register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("outbox.batch.size")
+                                                   .description("Events published per relay batch")
+                                                   .register(meterRegistry);
+        this.drainTimer = Timer.builder("outbox.drain.time").description("Time taken to publish one outbox batch").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.outbox.poll-interval:200ms}")
+    public void drain () {
+        try {
+            for (int i = 0; i < properties.getMaxBatchesPerPoll(); i++) {
+                Integer published = drainTimer.record(() -> transactionTemplate.execute(status -> publishBatch()));
+                // A short batch means the outbox is drained; a failed one means the broker needs time
+                if (published == null || published < properties.getBatchSize()) {
+                    break;
+                }
+            }
+        }
+        catch (RuntimeException e) {
+            logger.warn("Outbox batch failed and will be retried: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return The number of events published, or -1 when some were not and will be retried
+     */
+    private int publishBatch () {
+        List<OutboxEvent> batch = outboxEventRepository.claimBatch(properties.getBatchSize());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // Hand the whole batch to the producer before waiting, so linger/compression apply across records. A send can
+        // block on broker metadata, so sending stops at the deadline and the unsent rest is retried with the failures.
+        long deadline = System.nanoTime() + properties.getSendTimeout().toNanos();
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            if (System.nanoTime() - deadline >= 0) {
+                break;
+            }
+            sends.add(kafkaTemplate.send(event.getTopic(), event.getMessageKey(), event.getPayload()));
+        }
+        try {
+            long remaining = Math.max(deadline - System.nanoTime(), 0);
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(remaining, TimeUnit.NANOSECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing outbox batch", e);
+        }
+        catch (ExecutionException | TimeoutException e) {
+            // Settled per event below
+        }
+
+        // The batch is in ID order, so per aggregate everything before its first failure was published in order
+        List<Long> published = new ArrayList<>(batch.size());
+        Set<String> failedAggregates = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            CompletableFuture<?> send = i < sends.size() ? sends.get(i) : null;
+            boolean acknowledged = send != null && send.isDone() && !send.isCompletedExceptionally();
+            String aggregate = event.getMessageKey() == null ? null : event.getTopic() + '/' + event.getMessageKey();
+            if (acknowledged && (aggregate == null || !failedAggregates.contains(aggregate))) {
+                published.add(event.getId());
+            }
+            else if (aggregate != null) {
+                failedAggregates.add(aggregate);
+            }
+        }
+
+        if (!published.isEmpty()) {
+            outboxEventRepository.deleteByIdIn(published);
+            publishedCounter.increment(published.size());
+            batchSizeSummary.record(published.size());
+        }
+        if (published.size() < batch.size()) {
+            logger.warn("{} of {} outbox events were not acknowledged and will be retried", batch.size() - published.size(), batch.size());
+            return -1;
+        }
+        return batch.size();
+    }
+
+    /**
+     * Refresh the backlog gauges. Counting the outbox is a scan, so this runs on its own, much slower schedule than the
+     * relay.
+     */
+    @Scheduled(fixedDelayString = "${catalog.outbox.backlog-sample-interval:15s}")
+    public void sampleBacklog () {
+        try {
+            pendingEvents.set(outboxEventRepository.count());
+            LocalDateTime oldest = outboxEventRepository.findOldestCreatedAt();
+            lagMillis.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis());
+        }
+        catch (RuntimeException e) {
+            logger.debug("Could not refresh outbox backlog metrics", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.oranba.springboot.catalog.event;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oranba.springboot.catalog.domain.model.OutboxEvent;
+import com.oranba.springboot.catalog.repository.OutboxEventRepository;
+
+/**
+ * Appends events to the outbox table in the caller's transaction, so an event exists exactly when the change that
+ * produced it commits. {@link OutboxRelay} publishes them afterwards.
+ */
+@Component
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter (OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append (String topic, Object key, String eventType, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setTopic(topic);
+        event.setMessageKey(key == null ? null : key.toString());
+        event.setEventType(eventType);
+        event.setPayload(toJson(EventEnvelope.of(eventType, payload)));
+        outboxEventRepository.save(event);
+    }
+
+    private String toJson (EventEnvelope<?> envelope) {
+        try {
+            return objectMapper.writeValueAsString(envelope);
+        }
+        catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + envelope.eventType() + " event", e);
+        }
+    }
+}
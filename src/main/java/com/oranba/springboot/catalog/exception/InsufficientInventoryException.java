@@ -0,0 +1,28 @@
+package com.oranba.springboot.catalog.exception;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Raised when one or more products cannot cover a requested inventory decrement, either because the stock is too low or
+ * because the product does not exist. Carries every failing product ID so callers can report them all at once.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InsufficientInventoryException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    // Not serialized; the IDs are also part of the message
+    private final transient List<Long> productIds;
+
+    public InsufficientInventoryException (List<Long> productIds) {
+        super("Insufficient inventory for products: " + productIds);
+        this.productIds = List.copyOf(productIds);
+    }
+
+    public List<Long> getProductIds () {
+        return productIds;
+    }
+}
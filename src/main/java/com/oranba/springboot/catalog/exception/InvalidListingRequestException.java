@@ -0,0 +1,23 @@
+package com.oranba.springboot.catalog.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Raised when the paging, sort, cursor or filter parameters of a listing request cannot be served. Extends
+ * RuntimeException rather than IllegalArgumentException so that repositories pass it through unchanged instead of
+ * translating it into an InvalidDataAccessApiUsageException.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidListingRequestException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidListingRequestException (String message) {
+        super(message);
+    }
+
+    public InvalidListingRequestException (String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,26 @@
+package com.oranba.springboot.catalog.health;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import com.oranba.springboot.catalog.cache.CacheSnapshotService;
+
+@Component("cacheWarmupHealthIndicator")
+public class CacheWarmupHealthIndicator implements HealthIndicator {
+
+    private final CacheSnapshotService cacheSnapshotService;
+
+    public CacheWarmupHealthIndicator (CacheSnapshotService cacheSnapshotService) {
+        this.cacheSnapshotService = cacheSnapshotService;
+    }
+
+    @Override
+    public Health health () {
+        // Keeps the pod out of rotation until the cache snapshot has been loaded
+        if (cacheSnapshotService.isRestored()) {
+            return Health.up().build();
+        }
+        return Health.outOfService().withDetail("Cache", "Restoring snapshot").build();
+    }
+}
@@ -0,0 +1,163 @@
+package com.oranba.springboot.catalog.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NullValue;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.oranba.springboot.catalog.cache.CacheRegionMonitor;
+import com.oranba.springboot.catalog.cache.KeySketch;
+import com.oranba.springboot.catalog.cache.LocalCaches;
+import com.oranba.springboot.catalog.cache.SingleFlightCache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * {@code /actuator/cacheregions}: size, estimated memory, hit and load statistics, removals by cause and the hottest
+ * and most missed keys of each cache region on this node. Rates are left to the corresponding Micrometer meters.
+ * <p>
+ * Memory is estimated from the JSON size of a few entries scaled to the entry count. It tracks the content of a region
+ * rather than its exact heap footprint, which is a multiple of it.
+ */
+@Component
+@Endpoint(id = "cacheregions")
+public class CacheRegionsEndpoint {
+
+    private static final int FOOTPRINT_SAMPLE = 32;
+    private static final long FOOTPRINT_MAX_AGE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Footprint> footprints = new ConcurrentHashMap<>();
+
+    public CacheRegionsEndpoint (CacheManager cacheManager, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void registerGauges () {
+        for (String name : cacheManager.getCacheNames()) {
+            Gauge.builder("cache.estimated.bytes", this, endpoint -> endpoint.estimatedBytes(name))
+                 .description("Estimated size of the cached content, from the JSON size of sampled entries")
+                 .tag("cache", name)
+                 .baseUnit("bytes")
+                 .register(meterRegistry);
+        }
+    }
+
+    @ReadOperation
+    public Map<String, RegionReport> regions () {
+        Map<String, RegionReport> regions = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            RegionReport report = region(name);
+            if (report != null) {
+                regions.put(name, report);
+            }
+        }
+        return regions;
+    }
+
+    @ReadOperation
+    public RegionReport region (@Selector String name) {
+        Cache<Object, Object> nativeCache = nativeCache(name);
+        if (nativeCache == null) {
+            return null;
+        }
+
+        CacheStats stats = nativeCache.stats();
+        SingleFlightCache loading = LocalCaches.find(cacheManager, name, SingleFlightCache.class);
+        CacheRegionMonitor monitor = loading != null ? loading.getMonitor() : null;
+        Timer loads = meterRegistry.find("cache.load.time").tag("cache", name).timer();
+
+        return new RegionReport(nativeCache.estimatedSize(),
+                                estimatedBytes(name),
+                                stats.hitCount(),
+                                stats.missCount(),
+                                stats.hitRate(),
+                                stats.evictionCount(),
+                                monitor != null ? monitor.removals() : Map.of(),
+                                loads != null ? loads.count() : 0,
+                                loads != null ? loads.mean(TimeUnit.MILLISECONDS) : 0,
+                                loads != null ? loads.max(TimeUnit.MILLISECONDS) : 0,
+                                monitor != null ? monitor.hotKeys() : List.of(),
+                                monitor != null ? monitor.missKeys() : List.of());
+    }
+
+    private long estimatedBytes (String name) {
+        Footprint footprint = footprints.compute(name, (key, previous) -> {
+            long now = System.currentTimeMillis();
+            if (previous != null && now - previous.measuredAt() < FOOTPRINT_MAX_AGE_MILLIS) {
+                return previous;
+            }
+            Cache<Object, Object> nativeCache = nativeCache(name);
+            return new Footprint(now, nativeCache != null ? estimate(nativeCache) : 0);
+        });
+        return footprint.bytes();
+    }
+
+    private long estimate (Cache<Object, Object> nativeCache) {
+        long sampledBytes = 0;
+        int sampled = 0;
+        // Iterating the map view leaves the eviction policy's frequency and recency data untouched
+        for (Object value : nativeCache.asMap().values()) {
+            if (sampled == FOOTPRINT_SAMPLE) {
+                break;
+            }
+            if (value instanceof NullValue) {
+                continue;
+            }
+            try {
+                sampledBytes += objectMapper.writeValueAsBytes(value).length;
+                sampled++;
+            }
+            catch (JsonProcessingException e) {
+                // Leave unserializable values out of the estimate
+            }
+        }
+        return sampled == 0 ? 0 : sampledBytes / sampled * nativeCache.estimatedSize();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> nativeCache (String name) {
+        org.springframework.cache.Cache cache = LocalCaches.get(cacheManager, name);
+        if (cache != null && cache.getNativeCache() instanceof Cache<?, ?> nativeCache) {
+            return (Cache<Object, Object>) nativeCache;
+        }
+        return null;
+    }
+
+    private record Footprint(long measuredAt, long bytes) {
+    }
+
+    public record RegionReport(long entries,
+                               long estimatedBytes,
+                               long hits,
+                               long misses,
+                               double hitRatio,
+                               long evictions,
+                               Map<String, Long> removals,
+                               long loads,
+                               double meanLoadMillis,
+                               double maxLoadMillis,
+                               List<KeySketch.Estimate> hotKeys,
+                               List<KeySketch.Estimate> missKeys) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.oranba.springboot.catalog.metrics;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Streams JFR {@code jdk.VirtualThreadPinned} events in-process and exports them as metrics, so carrier-thread pinning
+ * (blocking inside {@code synchronized} or native frames) shows up on the dashboards rather than only as lost
+ * throughput. Only active in virtual-thread mode.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final Duration threshold;
+    private final Counter pinnedCounter;
+    private final Timer pinnedTimer;
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor (@Value("${catalog.virtual-threads.pinned-threshold:20ms}") Duration threshold,
+                                        MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.pinnedCounter = Counter.builder("jvm.threads.virtual.pinned")
+                                    .description("Virtual threads that blocked while pinned to their carrier")
+                                    .register(meterRegistry);
+        this.pinnedTimer = Timer.builder("jvm.threads.virtual.pinned.duration")
+                                .description("Time virtual threads spent blocked while pinned")
+                                .register(meterRegistry);
+    }
+
+    @Override
+    public void start () {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+        logger.info("Monitoring virtual thread pinning above {}", threshold);
+    }
+
+    @Override
+    public void stop () {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning () {
+        return stream != null;
+    }
+
+    private void record (RecordedEvent event) {
+        pinnedCounter.increment();
+        pinnedTimer.record(event.getDuration());
+        if (logger.isDebugEnabled() && event.getStackTrace() != null && !event.getStackTrace().getFrames().isEmpty()) {
+            RecordedFrame top = event.getStackTrace().getFrames().get(0);
+            logger.debug("Virtual thread pinned for {} at {}.{}", event.getDuration(), top.getMethod().getType().getName(), top.getMethod().getName());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.oranba.springboot.catalog.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.oranba.springboot.catalog.domain.model.IdempotencyKey;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    // Claim a key for the current transaction: 1 when claimed, 0 when another request already holds it. A claim that
+    // is not yet committed makes this wait until its transaction ends, so the loser never starts a second order.
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, created_at) VALUES (:key, :now) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int claim (@Param("key") String key, @Param("now") LocalDateTime now);
+
+    // Record the order created under a claimed key
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.orderId = :orderId WHERE k.key = :key")
+    int assignOrder (@Param("key") String key, @Param("orderId") Long orderId);
+
+    // Purge keys past their retention window
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :cutoff")
+    int deleteCreatedBefore (@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,178 @@
+package com.oranba.springboot.catalog.repository;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.Sort;
+
+import com.oranba.springboot.catalog.dto.CursorPage;
+import com.oranba.springboot.catalog.exception.InvalidListingRequestException;
+
+/**
+ * Keyset ("seek") paging for JDBC listings. Rows are ordered by the requested sort with the ID as final tie-breaker,
+ * and each page starts strictly after the last row of the previous one, so a page costs an index range scan of
+ * {@code size + 1} rows however deep it is, where OFFSET reads and discards every earlier row.
+ * <p>
+ * The position travels as an opaque cursor holding the sort it was issued for and the key values of the last row
+ * returned. Only columns that are never NULL can be keys, since NULLs have no place in a row comparison.
+ */
+final class Keyset<T> {
+
+    static final String ID = "id";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final List<Key<T>> keys;
+    private final String signature;
+    // Key values of the last row already returned; null for the first page
+    private final List<Object> after;
+
+    private Keyset (List<Key<T>> keys, String cursor) {
+        this.keys = keys;
+        this.signature = keys.stream().map(key -> key.property() + (key.ascending() ? "+" : "-")).collect(Collectors.joining(","));
+        this.after = cursor == null || cursor.isBlank() ? null : decode(cursor);
+    }
+
+    /**
+     * @param entity
+     *        Name of the listed entity, for error messages
+     * @param columns
+     *        Key columns by sort property; must include {@code id}
+     * @param sort
+     *        Requested sort; may be unsorted
+     * @param cursor
+     *        Cursor of the previous page, or {@code null} for the first page
+     * @throws InvalidListingRequestException
+     *         if the sort cannot be paged by key or the cursor was not issued for it
+     */
+    static <T> Keyset<T> of (String entity, Map<String, Column<T>> columns, Sort sort, String cursor) {
+        List<Key<T>> keys = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Column<T> column = columns.get(order.getProperty());
+            if (column == null) {
+                throw new InvalidListingRequestException("Cannot page " + entity + " by " + order.getProperty() + " with a cursor");
+            }
+            if (order.isIgnoreCase()) {
+                throw new InvalidListingRequestException("Case-insensitive sorts cannot be paged with a cursor");
+            }
+            keys.add(new Key<>(order.getProperty(), column, order.isAscending()));
+            if (order.getProperty().equals(ID)) {
+                // Unique; later sort keys can never decide the order
+                return new Keyset<>(keys, cursor);
+            }
+        }
+        // Following the direction of the last key lets single-direction sorts use one row comparison
+        boolean ascending = keys.isEmpty() || keys.get(keys.size() - 1).ascending();
+        keys.add(new Key<>(ID, columns.get(ID), ascending));
+        return new Keyset<>(keys, cursor);
+    }
+
+    /**
+     * WHERE clause combining the listing's own (possibly empty) clause with the seek predicate. Bind values of the
+     * seek predicate are appended to {@code args}.
+     */
+    String where (String where, List<Object> args) {
+        if (after == null) {
+            return where;
+        }
+        String seek = seek(args);
+        return where.isEmpty() ? " WHERE " + seek : where + " AND " + seek;
+    }
+
+    String orderBy () {
+        return " ORDER BY " + keys.stream()
+                                  .map(key -> key.column().sql() + (key.ascending() ? " ASC" : " DESC"))
+                                  .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Page from rows fetched with {@code LIMIT size + 1}; the extra row only tells whether another page follows.
+     */
+    CursorPage<T> page (List<T> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? new ArrayList<>(rows.subList(0, size)) : rows;
+        String nextCursor = hasNext ? encode(content.get(content.size() - 1)) : null;
+        return new CursorPage<>(content, size, hasNext, nextCursor);
+    }
+
+    private String seek (List<Object> args) {
+        boolean uniform = keys.stream().allMatch(key -> key.ascending() == keys.get(0).ascending());
+        if (uniform) {
+            // Row comparison: one index range condition rather than an OR of alternatives
+            args.addAll(after);
+            String columns = keys.stream().map(key -> key.column().sql()).collect(Collectors.joining(", "));
+            String placeholders = String.join(", ", Collections.nCopies(keys.size(), "?"));
+            return "(" + columns + ") " + (keys.get(0).ascending() ? ">" : "<") + " (" + placeholders + ")";
+        }
+
+        // Mixed directions: (k1 after) OR (k1 equal AND k2 after) OR ...
+        List<String> alternatives = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            List<String> terms = new ArrayList<>(i + 1);
+            for (int j = 0; j < i; j++) {
+                terms.add(keys.get(j).column().sql() + " = ?");
+                args.add(after.get(j));
+            }
+            Key<T> key = keys.get(i);
+            terms.add(key.column().sql() + (key.ascending() ? " > ?" : " < ?"));
+            args.add(after.get(i));
+            alternatives.add("(" + String.join(" AND ", terms) + ")");
+        }
+        return "(" + String.join(" OR ", alternatives) + ")";
+    }
+
+    private String encode (T row) {
+        StringBuilder cursor = new StringBuilder(ENCODER.encodeToString(signature.getBytes(StandardCharsets.UTF_8)));
+        for (Key<T> key : keys) {
+            Object value = key.column().value().apply(row);
+            String text = value instanceof BigDecimal number ? number.toPlainString() : String.valueOf(value);
+            cursor.append('.').append(ENCODER.encodeToString(text.getBytes(StandardCharsets.UTF_8)));
+        }
+        return cursor.toString();
+    }
+
+    private List<Object> decode (String cursor) {
+        try {
+            String[] parts = cursor.split("\\.", -1);
+            if (parts.length != keys.size() + 1 || !signature.equals(text(parts[0]))) {
+                throw new InvalidListingRequestException("Cursor does not belong to this sort");
+            }
+            List<Object> values = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                values.add(keys.get(i).column().parser().apply(text(parts[i + 1])));
+            }
+            return values;
+        }
+        catch (RuntimeException e) {
+            throw new InvalidListingRequestException("Invalid cursor: " + e.getMessage(), e);
+        }
+    }
+
+    private static String text (String part) {
+        return new String(DECODER.decode(part), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A sortable, never-NULL column.
+     *
+     * @param sql
+     *        Column expression
+     * @param parser
+     *        Reads a cursor value back into the type bound for the column
+     * @param value
+     *        Reads the key value of a row
+     */
+    record Column<T>(String sql, Function<String, Object> parser, Function<T, Object> value) {
+    }
+
+    private record Key<T>(String property, Column<T> column, boolean ascending) {
+    }
+}
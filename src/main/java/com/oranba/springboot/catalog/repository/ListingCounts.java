@@ -0,0 +1,92 @@
+package com.oranba.springboot.catalog.repository;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oranba.springboot.catalog.config.ListingCountProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Approximate totals for listings served without a count query. Depending on
+ * {@link ListingCountProperties#getMode()} the total is either the planner's row estimate for the listing's predicates,
+ * which reads no rows, or an exact {@code count(*)} shared by all requests with the same predicates for the configured
+ * TTL.
+ */
+@Repository
+public class ListingCounts {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ListingCountProperties properties;
+    private final Cache<CountKey, Long> counts;
+    private final MeterRegistry meterRegistry;
+
+    private final Timer estimateTimer;
+    private final Timer countTimer;
+
+    public ListingCounts (JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, ListingCountProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.counts = Caffeine.newBuilder().maximumSize(properties.getMaxEntries()).expireAfterWrite(properties.getTtl()).build();
+        this.meterRegistry = meterRegistry;
+
+        this.estimateTimer = Timer.builder("listing.count.time")
+                                  .description("Time taken to produce an approximate listing total")
+                                  .tag("mode", "estimate")
+                                  .register(meterRegistry);
+        this.countTimer = Timer.builder("listing.count.time")
+                               .description("Time taken to produce an approximate listing total")
+                               .tag("mode", "cached")
+                               .register(meterRegistry);
+    }
+
+    /**
+     * @param from
+     *        FROM clause of the listing, e.g. {@code "products p"}
+     * @param where
+     *        WHERE clause of the listing, possibly empty
+     * @param args
+     *        Bind values of the WHERE clause
+     * @return Approximate number of rows the listing matches
+     */
+    long approximate (String from, String where, List<Object> args) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ListingCountProperties.Mode mode = properties.getMode();
+        try {
+            return switch (mode) {
+                case ESTIMATE -> estimate(from, where, args);
+                case CACHED -> counts.get(new CountKey(from + where, List.copyOf(args)), key -> count(from, where, args));
+            };
+        }
+        finally {
+            sample.stop(mode == ListingCountProperties.Mode.ESTIMATE ? estimateTimer : countTimer);
+        }
+    }
+
+    private long estimate (String from, String where, List<Object> args) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) SELECT 1 FROM " + from + where, String.class, args.toArray());
+        try {
+            return objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows").asLong();
+        }
+        catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable query plan", e);
+        }
+    }
+
+    private long count (String from, String where, List<Object> args) {
+        Long total = jdbcTemplate.queryForObject("SELECT count(*) FROM " + from + where, Long.class, args.toArray());
+        return total != null ? total : 0;
+    }
+
+    private record CountKey(String sql, List<Object> args) {
+    }
+}
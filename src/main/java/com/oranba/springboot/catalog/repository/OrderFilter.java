@@ -0,0 +1,59 @@
+package com.oranba.springboot.catalog.repository;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+
+import com.oranba.springboot.catalog.domain.model.OrderStatus;
+import com.oranba.springboot.catalog.exception.InvalidListingRequestException;
+
+/**
+ * Criteria for an order listing; every criterion is optional and they combine with AND.
+ *
+ * @param customerId
+ *        Ordering customer
+ * @param status
+ *        Current status
+ * @param startDate
+ *        Inclusive lower bound of the creation time
+ * @param endDate
+ *        Inclusive upper bound of the creation time
+ */
+public record OrderFilter(Long customerId, OrderStatus status, LocalDateTime startDate, LocalDateTime endDate) {
+
+    /**
+     * Read the filter from listing request parameters ({@code customerId}, {@code status}, {@code startDate},
+     * {@code endDate}); other parameters are ignored.
+     *
+     * @throws InvalidListingRequestException
+     *         if a parameter cannot be read
+     */
+    public static OrderFilter from (Map<String, String> filters) {
+        if (filters == null) {
+            return new OrderFilter(null, null, null, null);
+        }
+        String customerId = value(filters, "customerId");
+        String status = value(filters, "status");
+        String startDate = value(filters, "startDate");
+        String endDate = value(filters, "endDate");
+
+        try {
+            return new OrderFilter(customerId != null ? Long.valueOf(customerId) : null,
+                                   status != null ? OrderStatus.valueOf(status.toUpperCase(Locale.ROOT)) : null,
+                                   startDate != null ? LocalDateTime.parse(startDate) : null,
+                                   endDate != null ? LocalDateTime.parse(endDate) : null);
+        }
+        catch (DateTimeParseException e) {
+            throw new InvalidListingRequestException("Invalid date: " + e.getParsedString(), e);
+        }
+        catch (IllegalArgumentException e) {
+            throw new InvalidListingRequestException("Invalid filter: " + e.getMessage(), e);
+        }
+    }
+
+    private static String value (Map<String, String> filters, String name) {
+        String value = filters.get(name);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
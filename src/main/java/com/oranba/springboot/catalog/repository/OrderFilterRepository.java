@@ -0,0 +1,137 @@
+package com.oranba.springboot.catalog.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.oranba.springboot.catalog.domain.model.Order;
+import com.oranba.springboot.catalog.dto.CursorPage;
+import com.oranba.springboot.catalog.exception.InvalidListingRequestException;
+
+/**
+ * Order listings for any combination of {@link OrderFilter} criteria, as a single query and without a count.
+ * <p>
+ * Keyset pages avoid OFFSET altogether: deep OFFSET pages of the orders table scan and discard every earlier row, while
+ * a keyset page seeks past the last row of the previous one through the {@code (…, created_at, id)} indexes created in
+ * {@code schema.sql}. Slices keep page numbers but fetch one extra row to tell whether another page follows.
+ */
+@Repository
+public class OrderFilterRepository {
+
+    // Columns a listing can be paged by with a cursor: the NOT NULL ones, plus created_at which is always set on insert
+    private static final Map<String, Keyset.Column<Order>> KEYSET_COLUMNS = Map.of(
+            Keyset.ID, new Keyset.Column<>("o.id", Long::valueOf, Order::getId),
+            "orderNumber", new Keyset.Column<>("o.order_number", value -> value, Order::getOrderNumber),
+            "customerId", new Keyset.Column<>("o.customer_id", Long::valueOf, Order::getCustomerId),
+            "orderStatus", new Keyset.Column<>("o.order_status", value -> value, order -> order.getOrderStatus().name()),
+            "totalAmount", new Keyset.Column<>("o.total_amount", BigDecimal::new, Order::getTotalAmount),
+            "createdAt", new Keyset.Column<>("o.created_at", LocalDateTime::parse, Order::getCreatedAt));
+
+    // Sortable properties and their columns; anything else is rejected rather than spliced into SQL
+    private static final Map<String, Sorting.Column> SORT_COLUMNS = Map.of(Keyset.ID, Sorting.column("o.id"),
+                                                                           "orderNumber", Sorting.text("o.order_number"),
+                                                                           "customerId", Sorting.column("o.customer_id"),
+                                                                           "orderStatus", Sorting.text("o.order_status"),
+                                                                           "totalAmount", Sorting.column("o.total_amount"),
+                                                                           "createdAt", Sorting.column("o.created_at"),
+                                                                           "updatedAt", Sorting.column("o.updated_at"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ListingCounts listingCounts;
+
+    public OrderFilterRepository (JdbcTemplate jdbcTemplate, ListingCounts listingCounts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.listingCounts = listingCounts;
+    }
+
+    /**
+     * @param filter
+     *        Criteria to apply
+     * @param pageable
+     *        Page and sort; ties are always broken by ID so pages do not overlap
+     * @return Slice of matching orders, without line items
+     */
+    public Slice<Order> findSlice (OrderFilter filter, Pageable pageable) {
+        List<Object> args = new ArrayList<>();
+        String select = "SELECT o.* FROM orders o" + where(filter, args) + orderBy(pageable.getSort());
+
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(jdbcTemplate.query(select, OrderRowMapper.INSTANCE, args.toArray()));
+        }
+
+        args.add(pageable.getPageSize() + 1);
+        args.add(pageable.getOffset());
+        List<Order> rows = jdbcTemplate.query(select + " LIMIT ? OFFSET ?", OrderRowMapper.INSTANCE, args.toArray());
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? new ArrayList<>(rows.subList(0, pageable.getPageSize())) : rows, pageable, hasNext);
+    }
+
+    /**
+     * Approximate number of orders matching the filter; see {@link ListingCounts}.
+     */
+    public long approximateCount (OrderFilter filter) {
+        List<Object> args = new ArrayList<>();
+        String where = where(filter, args);
+        return listingCounts.approximate("orders o", where, args);
+    }
+
+    /**
+     * @param filter
+     *        Criteria to apply
+     * @param sort
+     *        Sort on columns that are never NULL, case-sensitive; ties are broken by ID
+     * @param cursor
+     *        Cursor of the previous page, or {@code null} for the first page
+     * @param size
+     *        Page size
+     * @return Page of matching orders, without line items
+     * @throws InvalidListingRequestException
+     *         if the sort cannot be paged with a cursor or the cursor is not valid for it
+     */
+    public CursorPage<Order> findAll (OrderFilter filter, Sort sort, String cursor, int size) {
+        Keyset<Order> keyset = Keyset.of("orders", KEYSET_COLUMNS, sort, cursor);
+
+        List<Object> args = new ArrayList<>();
+        String where = where(filter, args);
+        String select = "SELECT o.* FROM orders o" + keyset.where(where, args) + keyset.orderBy() + " LIMIT ?";
+        args.add(size + 1);
+        return keyset.page(jdbcTemplate.query(select, OrderRowMapper.INSTANCE, args.toArray()), size);
+    }
+
+    /**
+     * WHERE clause for the filter, empty when nothing is filtered; bind values are appended to {@code args}.
+     */
+    static String where (OrderFilter filter, List<Object> args) {
+        List<String> predicates = new ArrayList<>();
+        if (filter.customerId() != null) {
+            predicates.add("o.customer_id = ?");
+            args.add(filter.customerId());
+        }
+        if (filter.status() != null) {
+            predicates.add("o.order_status = ?");
+            args.add(filter.status().name());
+        }
+        if (filter.startDate() != null) {
+            predicates.add("o.created_at >= ?");
+            args.add(filter.startDate());
+        }
+        if (filter.endDate() != null) {
+            predicates.add("o.created_at <= ?");
+            args.add(filter.endDate());
+        }
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+
+    static String orderBy (Sort sort) {
+        return Sorting.orderBy("orders", SORT_COLUMNS, sort);
+    }
+}
@@ -1,11 +1,14 @@
 package com.oranba.springboot.catalog.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.oranba.springboot.catalog.domain.model.Order;
@@ -32,6 +35,46 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     // Count orders by status
     long countByOrderStatus (OrderStatus status);
 
+    // Count orders for every status in one pass
+    @Query("SELECT o.orderStatus AS orderStatus, COUNT(o) AS total FROM Order o GROUP BY o.orderStatus")
+    List<StatusCount> countGroupByOrderStatus ();
+
     // Find recent orders
     List<Order> findTop10ByOrderByCreatedAtDesc ();
+
+    // Current status of several orders without loading the full entities
+    @Query("SELECT o.id AS id, o.orderNumber AS orderNumber, o.orderStatus AS orderStatus FROM Order o WHERE o.id IN :ids")
+    List<OrderStatusView> findStatusesByIdIn (@Param("ids") Collection<Long> ids);
+
+    // Move a group of orders from one status to another and return the IDs this statement moved; rows whose status
+    // changed concurrently, including rows another request already moved to the target, are left alone
+    @Query(value = """
+            UPDATE orders
+               SET order_status = :#{#to.name()},
+                   updated_at = :now
+             WHERE id IN (:ids)
+               AND order_status = :#{#from.name()}
+               AND order_status <> :#{#to.name()}
+            RETURNING id
+            """, nativeQuery = true)
+    List<Long> updateStatus (@Param("ids") Collection<Long> ids,
+                             @Param("from") OrderStatus from,
+                             @Param("to") OrderStatus to,
+                             @Param("now") LocalDateTime now);
+
+    interface StatusCount {
+
+        OrderStatus getOrderStatus ();
+
+        long getTotal ();
+    }
+
+    interface OrderStatusView {
+
+        Long getId ();
+
+        String getOrderNumber ();
+
+        OrderStatus getOrderStatus ();
+    }
 }
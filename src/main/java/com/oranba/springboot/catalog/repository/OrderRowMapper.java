@@ -0,0 +1,34 @@
+package com.oranba.springboot.catalog.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.oranba.springboot.catalog.domain.model.Order;
+import com.oranba.springboot.catalog.domain.model.OrderStatus;
+
+/**
+ * Maps a full {@code orders} row to a detached {@link Order} for JDBC-level queries. Line items are not loaded, as with
+ * orders read through {@link OrderRepository}.
+ */
+public class OrderRowMapper implements RowMapper<Order> {
+
+    public static final OrderRowMapper INSTANCE = new OrderRowMapper();
+
+    @Override
+    public Order mapRow (ResultSet rs, int rowNum) throws SQLException {
+        Order order = new Order();
+        order.setId(rs.getLong("id"));
+        order.setOrderNumber(rs.getString("order_number"));
+        order.setCustomerId(rs.getLong("customer_id"));
+        order.setOrderStatus(OrderStatus.valueOf(rs.getString("order_status")));
+        order.setTotalAmount(rs.getBigDecimal("total_amount"));
+        order.setShippingAddress(rs.getString("shipping_address"));
+        order.setBillingAddress(rs.getString("billing_address"));
+        order.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        order.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        return order;
+    }
+}
@@ -0,0 +1,47 @@
+package com.oranba.springboot.catalog.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.oranba.springboot.catalog.domain.model.OutboxEvent;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Claim the oldest unpublished events of aggregates no other relay is draining. Candidates are row-locked first, so
+    // the advisory lock, keyed by topic and message key and held until commit, is only tried on rows the batch can
+    // actually return; a volatile lock call next to LIMIT could lock aggregates of rows that are then discarded. Events
+    // of one aggregate thus go through one relay at a time, in ID order. Rows locked by another relay are skipped, not
+    // waited on; a candidate whose aggregate is held stays row-locked until commit, which only delays it to a later poll.
+    @Query(value = """
+            WITH candidates AS (
+                SELECT *
+                  FROM outbox_events
+                 ORDER BY id
+                 LIMIT :limit
+                   FOR UPDATE SKIP LOCKED
+            )
+            SELECT *
+              FROM candidates
+             WHERE message_key IS NULL
+                OR pg_try_advisory_xact_lock(hashtext(topic), hashtext(message_key))
+             ORDER BY id
+            """, nativeQuery = true)
+    List<OutboxEvent> claimBatch (@Param("limit") int limit);
+
+    // Remove published events
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id IN :ids")
+    int deleteByIdIn (@Param("ids") Collection<Long> ids);
+
+    // Creation time of the oldest unpublished event, null when the outbox is empty
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e")
+    LocalDateTime findOldestCreatedAt ();
+}
@@ -0,0 +1,85 @@
+package com.oranba.springboot.catalog.repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+
+import com.oranba.springboot.catalog.exception.InvalidListingRequestException;
+
+/**
+ * Criteria for a product listing; every criterion is optional and they combine with AND.
+ *
+ * @param name
+ *        Case-insensitive substring of the name
+ * @param categoryId
+ *        Exact category
+ * @param minPrice
+ *        Inclusive lower price bound
+ * @param maxPrice
+ *        Inclusive upper price bound
+ * @param active
+ *        Active flag
+ * @param inStock
+ *        {@code true} for products with stock left, {@code false} for sold-out products
+ * @param categoryIds
+ *        Any of these categories, such as a category's whole subtree
+ */
+public record ProductFilter(String name,
+                            Long categoryId,
+                            BigDecimal minPrice,
+                            BigDecimal maxPrice,
+                            Boolean active,
+                            Boolean inStock,
+                            Collection<Long> categoryIds) {
+
+    /**
+     * Products of one category.
+     */
+    public static ProductFilter category (Long categoryId) {
+        return new ProductFilter(null, categoryId, null, null, null, null, null);
+    }
+
+    /**
+     * Products of any of the categories.
+     */
+    public static ProductFilter inCategories (Collection<Long> categoryIds) {
+        return new ProductFilter(null, null, null, null, null, null, categoryIds);
+    }
+
+    /**
+     * Read the filter from listing request parameters ({@code name}, {@code category}, {@code minPrice},
+     * {@code maxPrice}, {@code active}, {@code inStock}); other parameters are ignored.
+     *
+     * @throws InvalidListingRequestException
+     *         if a parameter cannot be read
+     */
+    public static ProductFilter from (Map<String, String> filters) {
+        if (filters == null) {
+            return new ProductFilter(null, null, null, null, null, null, null);
+        }
+        String name = value(filters, "name");
+        String categoryId = value(filters, "category");
+        String minPrice = value(filters, "minPrice");
+        String maxPrice = value(filters, "maxPrice");
+        String active = value(filters, "active");
+        String inStock = value(filters, "inStock");
+
+        try {
+            return new ProductFilter(name,
+                                     categoryId != null ? Long.valueOf(categoryId) : null,
+                                     minPrice != null ? new BigDecimal(minPrice) : null,
+                                     maxPrice != null ? new BigDecimal(maxPrice) : null,
+                                     active != null ? Boolean.valueOf(active) : null,
+                                     inStock != null ? Boolean.valueOf(inStock) : null,
+                                     null);
+        }
+        catch (NumberFormatException e) {
+            throw new InvalidListingRequestException("Invalid number: " + e.getMessage(), e);
+        }
+    }
+
+    private static String value (Map<String, String> filters, String name) {
+        String value = filters.get(name);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,209 @@
+package com.oranba.springboot.catalog.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.oranba.springboot.catalog.domain.model.Product;
+import com.oranba.springboot.catalog.dto.CursorPage;
+import com.oranba.springboot.catalog.exception.InvalidListingRequestException;
+
+/**
+ * Product listings for any combination of {@link ProductFilter} criteria, as a single query.
+ * <p>
+ * Predicates are written most selective first, led by the indexed ones: category equality (B-tree), the name substring
+ * (trigram GIN) and the price range (B-tree), then the flag and stock checks that are only ever evaluated as residual
+ * filters. Postgres plans on its own statistics, so the order documents which index each query is meant to be driven
+ * by rather than forcing it, and keeps the residual checks in the order that discards rows soonest.
+ */
+@Repository
+public class ProductFilterRepository {
+
+    // Sortable properties and their columns; anything else is rejected rather than spliced into SQL
+    private static final Map<String, Sorting.Column> SORT_COLUMNS = Map.of(Keyset.ID, Sorting.column("p.id"),
+                                                                           "sku", Sorting.text("p.sku"),
+                                                                           "name", Sorting.text("p.name"),
+                                                                           "price", Sorting.column("p.price"),
+                                                                           "categoryId", Sorting.column("p.category_id"),
+                                                                           "inventory", Sorting.column("p.inventory"),
+                                                                           "isActive", Sorting.column("p.is_active"),
+                                                                           "createdAt", Sorting.column("p.created_at"),
+                                                                           "updatedAt", Sorting.column("p.updated_at"));
+
+    // Columns a listing can be paged by with a cursor: the NOT NULL ones, plus created_at which is always set on insert
+    private static final Map<String, Keyset.Column<Product>> KEYSET_COLUMNS = Map.of(
+            Keyset.ID, new Keyset.Column<>("p.id", Long::valueOf, Product::getId),
+            "sku", new Keyset.Column<>("p.sku", value -> value, Product::getSku),
+            "name", new Keyset.Column<>("p.name", value -> value, Product::getName),
+            "price", new Keyset.Column<>("p.price", BigDecimal::new, Product::getPrice),
+            "inventory", new Keyset.Column<>("p.inventory", Integer::valueOf, Product::getInventory),
+            "createdAt", new Keyset.Column<>("p.created_at", LocalDateTime::parse, Product::getCreatedAt));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ListingCounts listingCounts;
+
+    public ProductFilterRepository (JdbcTemplate jdbcTemplate, ListingCounts listingCounts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.listingCounts = listingCounts;
+    }
+
+    /**
+     * @param filter
+     *        Criteria to apply
+     * @param pageable
+     *        Page and sort; ties are always broken by ID so pages do not overlap
+     * @return Page of matching products
+     */
+    public Page<Product> findAll (ProductFilter filter, Pageable pageable) {
+        Query where = where(filter);
+        String select = "SELECT p.* FROM products p" + where.sql() + orderBy(pageable.getSort());
+
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(jdbcTemplate.query(select, ProductRowMapper.INSTANCE, where.args().toArray()));
+        }
+
+        List<Object> args = new ArrayList<>(where.args());
+        args.add(pageable.getPageSize());
+        args.add(pageable.getOffset());
+        List<Product> content = jdbcTemplate.query(select + " LIMIT ? OFFSET ?", ProductRowMapper.INSTANCE, args.toArray());
+
+        Long total = jdbcTemplate.queryForObject("SELECT count(*) FROM products p" + where.sql(), Long.class, where.args().toArray());
+        return new PageImpl<>(content, pageable, total != null ? total : 0);
+    }
+
+    /**
+     * Count-free listing: one row beyond the page is fetched to tell whether another page follows, instead of counting
+     * every match.
+     *
+     * @param filter
+     *        Criteria to apply
+     * @param pageable
+     *        Page and sort; ties are always broken by ID so pages do not overlap
+     * @return Slice of matching products
+     */
+    public Slice<Product> findSlice (ProductFilter filter, Pageable pageable) {
+        Query where = where(filter);
+        String select = "SELECT p.* FROM products p" + where.sql() + orderBy(pageable.getSort());
+
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(jdbcTemplate.query(select, ProductRowMapper.INSTANCE, where.args().toArray()));
+        }
+
+        List<Object> args = new ArrayList<>(where.args());
+        args.add(pageable.getPageSize() + 1);
+        args.add(pageable.getOffset());
+        List<Product> rows = jdbcTemplate.query(select + " LIMIT ? OFFSET ?", ProductRowMapper.INSTANCE, args.toArray());
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? new ArrayList<>(rows.subList(0, pageable.getPageSize())) : rows, pageable, hasNext);
+    }
+
+    /**
+     * Approximate number of products matching the filter; see {@link ListingCounts}.
+     */
+    public long approximateCount (ProductFilter filter) {
+        Query where = where(filter);
+        return listingCounts.approximate("products p", where.sql(), where.args());
+    }
+
+    /**
+     * Keyset-paged listing: each page seeks past the previous one instead of skipping rows, so it costs the same at
+     * any depth.
+     *
+     * @param filter
+     *        Criteria to apply
+     * @param sort
+     *        Sort on columns that are never NULL, case-sensitive; ties are broken by ID
+     * @param cursor
+     *        Cursor of the previous page, or {@code null} for the first page
+     * @param size
+     *        Page size
+     * @return Page of matching products
+     * @throws InvalidListingRequestException
+     *         if the sort cannot be paged with a cursor or the cursor is not valid for it
+     */
+    public CursorPage<Product> findAll (ProductFilter filter, Sort sort, String cursor, int size) {
+        Keyset<Product> keyset = Keyset.of("products", KEYSET_COLUMNS, sort, cursor);
+        Query where = where(filter);
+
+        List<Object> args = new ArrayList<>(where.args());
+        String select = "SELECT p.* FROM products p" + keyset.where(where.sql(), args) + keyset.orderBy() + " LIMIT ?";
+        args.add(size + 1);
+        return keyset.page(jdbcTemplate.query(select, ProductRowMapper.INSTANCE, args.toArray()), size);
+    }
+
+    /**
+     * WHERE clause for the filter, with its bind values; empty when nothing is filtered.
+     */
+    static Query where (ProductFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.categoryId() != null) {
+            predicates.add(new Predicate(Selectivity.KEY, "p.category_id = ?", List.of(filter.categoryId())));
+        }
+        if (filter.categoryIds() != null) {
+            String in = filter.categoryIds().isEmpty()
+                    ? "FALSE"
+                    : "p.category_id IN (" + String.join(", ", Collections.nCopies(filter.categoryIds().size(), "?")) + ")";
+            predicates.add(new Predicate(Selectivity.KEY, in, List.copyOf(filter.categoryIds())));
+        }
+        if (filter.name() != null) {
+            predicates.add(new Predicate(Selectivity.TEXT, "lower(p.name) LIKE ? ESCAPE '\\'", List.of("%" + escapeLike(filter.name().toLowerCase(Locale.ROOT)) + "%")));
+        }
+        if (filter.minPrice() != null && filter.maxPrice() != null) {
+            predicates.add(new Predicate(Selectivity.RANGE, "p.price BETWEEN ? AND ?", List.of(filter.minPrice(), filter.maxPrice())));
+        }
+        else if (filter.minPrice() != null) {
+            predicates.add(new Predicate(Selectivity.OPEN_RANGE, "p.price >= ?", List.of(filter.minPrice())));
+        }
+        else if (filter.maxPrice() != null) {
+            predicates.add(new Predicate(Selectivity.OPEN_RANGE, "p.price <= ?", List.of(filter.maxPrice())));
+        }
+        if (filter.inStock() != null) {
+            predicates.add(new Predicate(Selectivity.FLAG, filter.inStock() ? "p.inventory > 0" : "p.inventory <= 0", List.of()));
+        }
+        if (filter.active() != null) {
+            predicates.add(new Predicate(Selectivity.FLAG, "p.is_active = ?", List.of(filter.active())));
+        }
+
+        if (predicates.isEmpty()) {
+            return new Query("", List.of());
+        }
+        // Stable: predicates of equal selectivity keep the order above
+        predicates.sort(Comparator.comparing(Predicate::selectivity));
+        return new Query(" WHERE " + predicates.stream().map(Predicate::sql).collect(Collectors.joining(" AND ")),
+                         predicates.stream().flatMap(predicate -> predicate.args().stream()).toList());
+    }
+
+    static String orderBy (Sort sort) {
+        return Sorting.orderBy("products", SORT_COLUMNS, sort);
+    }
+
+    private static String escapeLike (String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // Expected fraction of rows a predicate keeps, lowest first
+    enum Selectivity {
+        KEY, TEXT, RANGE, OPEN_RANGE, FLAG
+    }
+
+    record Predicate(Selectivity selectivity, String sql, List<Object> args) {
+    }
+
+    record Query(String sql, List<Object> args) {
+    }
+}
@@ -0,0 +1,107 @@
+package com.oranba.springboot.catalog.repository;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.oranba.springboot.catalog.domain.model.Product;
+
+/**
+ * Set-based inventory statements that bypass the entity read-modify-write cycle.
+ */
+@Repository
+public class ProductInventoryRepository {
+
+    // Decrements every requested product in one statement; only rows with enough stock are touched, and a quantity
+    // that is not positive never matches, so it cannot add stock
+    private static final String DECREMENT_BATCH_SQL = """
+            UPDATE products p
+               SET inventory = p.inventory - d.quantity,
+                   updated_at = ?
+              FROM unnest(?, ?) AS d(product_id, quantity)
+             WHERE p.id = d.product_id
+               AND d.quantity > 0
+               AND p.inventory >= d.quantity
+            RETURNING p.*
+            """;
+
+    // Guarded single-row adjustment: the row is only touched when the result stays non-negative
+    private static final String ADJUST_SQL = """
+            UPDATE products
+               SET inventory = inventory + ?,
+                   updated_at = ?
+             WHERE id = ?
+               AND inventory + ? >= 0
+            RETURNING *
+            """;
+
+    private static final String SOLD_OUT_SQL = """
+            SELECT id
+              FROM products
+             WHERE id = ANY(?)
+               AND inventory = 0
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductInventoryRepository (JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Atomically apply a stock delta to one product. Concurrent callers never lose an update and stock never goes below
+     * zero, without holding a lock across a read.
+     *
+     * @param productId
+     *        Product ID
+     * @param delta
+     *        Quantity change (positive for increase, negative for decrease)
+     * @return The product as it is after the update, or empty when the product does not exist or lacks stock
+     */
+    public Optional<Product> adjustInventory (Long productId, int delta) {
+        List<Product> updated = jdbcTemplate.query(ADJUST_SQL, ProductRowMapper.INSTANCE, delta, LocalDateTime.now(), productId, delta);
+        return updated.stream().findFirst();
+    }
+
+    /**
+     * @param productIds
+     *        Product IDs to check
+     * @return The given products whose row holds no stock
+     */
+    public List<Long> findSoldOut (Collection<Long> productIds) {
+        Long[] ids = productIds.toArray(new Long[0]);
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SOLD_OUT_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+
+    /**
+     * Decrement inventory for several products in a single round trip.
+     *
+     * @param quantities
+     *        Quantity to remove per product ID; iteration order is the order rows are locked in, so callers should pass a
+     *        sorted map to keep lock ordering consistent between concurrent orders
+     * @return The decremented products as they are after the update; any requested ID missing from the result either
+     *         does not exist or lacks stock
+     */
+    public List<Product> decrementInventory (Map<Long, Integer> quantities) {
+        Long[] productIds = quantities.keySet().toArray(new Long[0]);
+        Integer[] amounts = quantities.values().toArray(new Integer[0]);
+
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(DECREMENT_BATCH_SQL);
+            ps.setObject(1, LocalDateTime.now());
+            ps.setArray(2, con.createArrayOf("bigint", productIds));
+            ps.setArray(3, con.createArrayOf("integer", amounts));
+            return ps;
+        }, ProductRowMapper.INSTANCE);
+    }
+}
@@ -1,6 +1,7 @@
 package com.oranba.springboot.catalog.repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
@@ -21,6 +22,9 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Find products by category
     Page<Product> findByCategoryId (Long categoryId, Pageable pageable);
 
+    // Find products in any of several categories, such as a category's whole subtree
+    Page<Product> findByCategoryIdIn (Collection<Long> categoryIds, Pageable pageable);
+
     // Find products by name containing the search term
     Page<Product> findByNameContainingIgnoreCase (String name, Pageable pageable);
 
@@ -0,0 +1,34 @@
+package com.oranba.springboot.catalog.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.oranba.springboot.catalog.domain.model.Product;
+
+/**
+ * Maps a full {@code products} row to a detached {@link Product} for JDBC-level queries.
+ */
+public class ProductRowMapper implements RowMapper<Product> {
+
+    public static final ProductRowMapper INSTANCE = new ProductRowMapper();
+
+    @Override
+    public Product mapRow (ResultSet rs, int rowNum) throws SQLException {
+        Product product = new Product();
+        product.setId(rs.getLong("id"));
+        product.setSku(rs.getString("sku"));
+        product.setName(rs.getString("name"));
+        product.setDescription(rs.getString("description"));
+        product.setPrice(rs.getBigDecimal("price"));
+        product.setCategoryId(rs.getObject("category_id", Long.class));
+        product.setInventory(rs.getInt("inventory"));
+        product.setImageUrl(rs.getString("image_url"));
+        product.setIsActive(rs.getObject("is_active", Boolean.class));
+        product.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        product.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        return product;
+    }
+}
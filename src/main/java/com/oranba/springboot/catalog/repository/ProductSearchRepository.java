@@ -0,0 +1,131 @@
+package com.oranba.springboot.catalog.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.oranba.springboot.catalog.domain.model.Product;
+
+/**
+ * Relevance-ranked product search over name, SKU and description, backed by the {@code search_vector} column and the
+ * trigram indexes created in {@code schema.sql}.
+ * <p>
+ * Every term of the query is matched as a prefix, so partial input finds products while it is being typed. Only when
+ * no product matches that way, most often because of a misspelling, are names that resemble the whole query found by
+ * trigram similarity instead. Similarity is not tried alongside prefixes: short or common words share trigrams with
+ * a large part of the catalogue, and rechecking all of those rows costs far more than the prefix match. Inactive
+ * products are never found.
+ * <p>
+ * Results are slices: type-ahead only needs to know whether more follow, and counting every match of a short prefix
+ * would cost more than the page itself. An approximate total is available separately.
+ */
+@Repository
+public class ProductSearchRepository {
+
+    // Terms beyond this are ignored; they only make the query slower and the result emptier
+    private static final int MAX_TERMS = 8;
+
+    private static final String PREFIX_WHERE = " WHERE p.is_active AND p.search_vector @@ to_tsquery('simple', ?)";
+
+    private static final String SIMILAR_WHERE = " WHERE p.is_active AND lower(p.name) % ?";
+
+    private static final String PREFIX_SQL = """
+            SELECT p.*
+              FROM products p
+            %s
+             ORDER BY ts_rank_cd(p.search_vector, to_tsquery('simple', ?)) DESC, p.id
+             LIMIT ? OFFSET ?
+            """.formatted(PREFIX_WHERE);
+
+    private static final String SIMILAR_SQL = """
+            SELECT p.*
+              FROM products p
+            %s
+             ORDER BY lower(p.name) <-> ?, p.id
+             LIMIT ? OFFSET ?
+            """.formatted(SIMILAR_WHERE);
+
+    private static final String PREFIX_EXISTS_SQL = "SELECT EXISTS (SELECT 1 FROM products p" + PREFIX_WHERE + ")";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ListingCounts listingCounts;
+
+    public ProductSearchRepository (JdbcTemplate jdbcTemplate, ListingCounts listingCounts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.listingCounts = listingCounts;
+    }
+
+    /**
+     * Search products, most relevant first.
+     *
+     * @param query
+     *        Free text as typed by the user
+     * @param pageable
+     *        Page to return; its sort is ignored in favour of relevance
+     * @return Slice of matching products, empty when the query has no searchable terms
+     */
+    public Slice<Product> search (String query, Pageable pageable) {
+        String tsQuery = prefixQuery(query);
+        if (tsQuery.isEmpty()) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+
+        // One row past the page tells whether another follows
+        long limit = pageable.isPaged() ? pageable.getPageSize() + 1 : Long.MAX_VALUE;
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        List<Product> rows = jdbcTemplate.query(PREFIX_SQL, ProductRowMapper.INSTANCE, tsQuery, tsQuery, limit, offset);
+        // An empty later page only means the prefix matches ran out
+        if (rows.isEmpty() && (offset == 0 || !prefixMatches(tsQuery))) {
+            String text = normalise(query);
+            rows = jdbcTemplate.query(SIMILAR_SQL, ProductRowMapper.INSTANCE, text, text, limit, offset);
+        }
+
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(rows);
+        }
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? new ArrayList<>(rows.subList(0, pageable.getPageSize())) : rows, pageable, hasNext);
+    }
+
+    /**
+     * Approximate number of products the query matches; see {@link ListingCounts}.
+     */
+    public long approximateCount (String query) {
+        String tsQuery = prefixQuery(query);
+        if (tsQuery.isEmpty()) {
+            return 0;
+        }
+        return prefixMatches(tsQuery)
+                ? listingCounts.approximate("products p", PREFIX_WHERE, List.of(tsQuery))
+                : listingCounts.approximate("products p", SIMILAR_WHERE, List.of(normalise(query)));
+    }
+
+    /**
+     * Lower-cased word and number tokens of the query, each as a prefix term, all required:
+     * {@code "Blue sh"} becomes {@code "blue:* & sh:*"}. Anything else is dropped, so user input can never form
+     * tsquery syntax.
+     */
+    static String prefixQuery (String query) {
+        List<String> terms = new ArrayList<>();
+        for (String token : normalise(query).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty() && terms.size() < MAX_TERMS) {
+                terms.add(token + ":*");
+            }
+        }
+        return String.join(" & ", terms);
+    }
+
+    private boolean prefixMatches (String tsQuery) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(PREFIX_EXISTS_SQL, Boolean.class, tsQuery));
+    }
+
+    private static String normalise (String query) {
+        return query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+    }
+}
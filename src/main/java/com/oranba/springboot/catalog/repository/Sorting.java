@@ -0,0 +1,72 @@
+package com.oranba.springboot.catalog.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Sort;
+
+import com.oranba.springboot.catalog.exception.InvalidListingRequestException;
+
+/**
+ * ORDER BY clauses for offset-paged JDBC listings. Sort properties are looked up in a fixed set of columns, so nothing
+ * from the request is spliced into SQL, and the ID is appended as final tie-breaker so pages never overlap. Keyset
+ * pages order themselves; see {@link Keyset}.
+ */
+final class Sorting {
+
+    private Sorting () {
+    }
+
+    /**
+     * @param entity
+     *        Name of the listed entity, for error messages
+     * @param columns
+     *        Sortable columns by sort property; must include {@code id}
+     * @param sort
+     *        Requested sort; may be unsorted. Case is ignored only on text columns, and the flag is dropped on others
+     * @throws InvalidListingRequestException
+     *         if the sort names a property that is not in {@code columns}
+     */
+    static String orderBy (String entity, Map<String, Column> columns, Sort sort) {
+        List<String> orders = new ArrayList<>();
+        boolean byId = false;
+        for (Sort.Order order : sort) {
+            Column column = columns.get(order.getProperty());
+            if (column == null) {
+                throw new InvalidListingRequestException("Cannot sort " + entity + " by " + order.getProperty());
+            }
+            byId |= order.getProperty().equals(Keyset.ID);
+            String expression = order.isIgnoreCase() && column.text() ? "lower(" + column.sql() + ")" : column.sql();
+            String nulls = switch (order.getNullHandling()) {
+                case NULLS_FIRST -> " NULLS FIRST";
+                case NULLS_LAST -> " NULLS LAST";
+                case NATIVE -> "";
+            };
+            orders.add(expression + (order.isAscending() ? " ASC" : " DESC") + nulls);
+        }
+        if (!byId) {
+            orders.add(columns.get(Keyset.ID).sql() + " ASC");
+        }
+        return " ORDER BY " + String.join(", ", orders);
+    }
+
+    static Column column (String sql) {
+        return new Column(sql, false);
+    }
+
+    static Column text (String sql) {
+        return new Column(sql, true);
+    }
+
+    /**
+     * A sortable column.
+     *
+     * @param sql
+     *        Column expression
+     * @param text
+     *        Whether the column holds text, so that it can be sorted ignoring case
+     */
+    record Column(String sql, boolean text) {
+    }
+}
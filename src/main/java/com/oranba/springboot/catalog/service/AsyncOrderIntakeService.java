@@ -0,0 +1,44 @@
+package com.oranba.springboot.catalog.service;
+
+import java.util.Optional;
+
+import com.oranba.springboot.catalog.domain.model.Order;
+import com.oranba.springboot.catalog.dto.OrderIntakeStatus;
+
+/**
+ * Queued order creation. Two limits are part of the contract:
+ * <ul>
+ * <li>Single node: a tracking ID is only known to the node that accepted the order. Behind a load balancer, status
+ * lookups must reach that node (sticky routing), or they answer 404 while the order is still being processed.</li>
+ * <li>At most once: an accepted order is held in memory until its batch commits. If the node crashes first, the order
+ * is lost, and its tracking ID is lost with it. Clients that cannot tolerate this send an Idempotency-Key, which keeps
+ * the request synchronous.</li>
+ * </ul>
+ */
+public interface AsyncOrderIntakeService {
+
+    /**
+     * Whether POST /api/orders should queue orders instead of creating them inline
+     * 
+     * @return true in asynchronous intake mode
+     */
+    boolean isEnabled ();
+
+    /**
+     * Queue an order for creation by the group-commit writer
+     * 
+     * @param order
+     *        Validated order to create
+     * @return Tracking ID, or empty when the queue is full
+     */
+    Optional<String> submit (Order order);
+
+    /**
+     * Look up the progress of a queued order
+     * 
+     * @param trackingId
+     *        Tracking ID returned by {@link #submit(Order)}
+     * @return Current status, or empty if the ID is unknown on this node, expired or evicted
+     */
+    Optional<OrderIntakeStatus> getStatus (String trackingId);
+}
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import com.oranba.springboot.catalog.domain.model.Category;
+import com.oranba.springboot.catalog.service.CategoryTreeIndex.Breadcrumb;
 
 public interface CategoryService {
 
@@ -73,4 +74,13 @@ public interface CategoryService {
      * @return List of all categories ordered in a hierarchy
      */
     List<Category> getCategoryHierarchy ();
+
+    /**
+     * Get the path from the root category down to a category
+     * 
+     * @param id
+     *        Category ID
+     * @return Breadcrumbs from the root to the category, empty if it does not exist
+     */
+    List<Breadcrumb> getBreadcrumbs (Long id);
 }
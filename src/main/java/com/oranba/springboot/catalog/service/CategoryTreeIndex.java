@@ -0,0 +1,414 @@
+package com.oranba.springboot.catalog.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.oranba.springboot.catalog.domain.model.Category;
+import com.oranba.springboot.catalog.repository.CategoryRepository;
+
+/**
+ * In-memory index of the category tree. Every node carries its children, its ancestors, its descendant set and its
+ * breadcrumb path precomputed, so lookups are a single map read.
+ * <p>
+ * Built from the categories table at startup, patched when category writes on this node commit (only the moved or
+ * renamed subtree and its ancestors are recomputed), rebuilt when another replica reports a category change, and
+ * periodically rebuilt to correct any drift. Categories whose parent no longer exists are treated as roots.
+ * <p>
+ * Readers see an immutable map that every change replaces as a whole, so a lookup never observes a half-applied move
+ * and never blocks. Writers take a lock only to patch a copy and publish it; rebuilds read the table before taking it.
+ */
+@Component
+public class CategoryTreeIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryTreeIndex.class);
+
+    private final CategoryRepository categoryRepository;
+
+    // Not a monitor: virtual threads applying commits would pin their carriers while waiting on it
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Map<Long, Node> nodes = Map.of();
+    // Changes published so far, guarded by writeLock; a rebuild whose read overlapped one reads again
+    private volatile long version;
+
+    public CategoryTreeIndex (CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void load () {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.category-tree.rebuild-interval:10m}",
+               initialDelayString = "${catalog.category-tree.rebuild-interval:10m}")
+    public void rebuild () {
+        while (true) {
+            long readAt = version;
+            Map<Long, Node> built = index(categoryRepository.findAll());
+
+            writeLock.lock();
+            try {
+                // A patch published since the read began may be for a commit the read did not see
+                if (version == readAt) {
+                    publish(built);
+                    logger.debug("Indexed {} categories", built.size());
+                    return;
+                }
+            }
+            finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    private static Map<Long, Node> index (List<Category> categories) {
+        Map<Long, Category> byId = new HashMap<>();
+        Map<Long, List<Long>> childrenOf = new HashMap<>();
+        categories.forEach(category -> byId.put(category.getId(), category));
+        for (Category category : categories) {
+            Long parentId = category.getParentCategoryId();
+            if (parentId != null && byId.containsKey(parentId)) {
+                childrenOf.computeIfAbsent(parentId, id -> new ArrayList<>()).add(category.getId());
+            }
+        }
+
+        Map<Long, Node> built = new HashMap<>();
+        for (Category category : categories) {
+            if (category.getParentCategoryId() == null || !byId.containsKey(category.getParentCategoryId())) {
+                build(category.getId(), byId, childrenOf, built);
+            }
+        }
+        // Anything not reached from a root is part of a parent cycle; break it at the first member found
+        for (Category category : categories) {
+            if (!built.containsKey(category.getId())) {
+                logger.warn("Category {} is part of a parent cycle; indexing it as a root", category.getId());
+                build(category.getId(), byId, childrenOf, built);
+            }
+        }
+
+        return built;
+    }
+
+    public boolean contains (Long id) {
+        return nodes.containsKey(id);
+    }
+
+    /**
+     * @return the parent, if the category has one that exists
+     */
+    public Optional<Long> parent (Long id) {
+        Node node = nodes.get(id);
+        if (node == null || node.ancestors().isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(node.ancestors().get(node.ancestors().size() - 1));
+    }
+
+    public List<Long> children (Long id) {
+        Node node = nodes.get(id);
+        return node != null ? node.children() : List.of();
+    }
+
+    /**
+     * @return ancestor IDs from the root down to the parent
+     */
+    public List<Long> ancestors (Long id) {
+        Node node = nodes.get(id);
+        return node != null ? node.ancestors() : List.of();
+    }
+
+    /**
+     * @return the category and every category beneath it; just the ID itself when it is not indexed
+     */
+    public Set<Long> descendants (Long id) {
+        Node node = nodes.get(id);
+        return node != null ? node.descendants() : Set.of(id);
+    }
+
+    /**
+     * @return the path from the root down to the category itself, empty when it is not indexed
+     */
+    public List<Breadcrumb> breadcrumbs (Long id) {
+        Node node = nodes.get(id);
+        return node != null ? node.breadcrumbs() : List.of();
+    }
+
+    /**
+     * Index a created or updated category once its transaction commits.
+     */
+    public void recordSaved (Category category) {
+        Long id = category.getId();
+        String name = category.getName();
+        Long parentId = category.getParentCategoryId();
+        afterCommit(() -> apply(id, name, parentId));
+    }
+
+    /**
+     * Drop a deleted category once its transaction commits. Its children become roots.
+     */
+    public void recordDeleted (Long id) {
+        afterCommit(() -> remove(id));
+    }
+
+    private void apply (Long id, String name, Long parentId) {
+        boolean applied;
+        writeLock.lock();
+        try {
+            Map<Long, Node> working = new HashMap<>(nodes);
+            applied = apply(working, id, name, parentId);
+            if (applied) {
+                publish(working);
+            }
+        }
+        finally {
+            writeLock.unlock();
+        }
+        if (!applied) {
+            // Would close a cycle; let a full rebuild settle what the table now holds
+            logger.warn("Category {} was moved beneath its own subtree; rebuilding the category index", id);
+            rebuild();
+        }
+    }
+
+    private void remove (Long id) {
+        writeLock.lock();
+        try {
+            Map<Long, Node> working = new HashMap<>(nodes);
+            if (remove(working, id)) {
+                publish(working);
+            }
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Caller holds writeLock
+    private void publish (Map<Long, Node> changed) {
+        nodes = Map.copyOf(changed);
+        version++;
+    }
+
+    /**
+     * @return {@code false}, leaving the map unchanged, when the move would close a cycle
+     */
+    private static boolean apply (Map<Long, Node> nodes, Long id, String name, Long parentId) {
+        Node existing = nodes.get(id);
+        Long effectiveParent = parentId != null && nodes.containsKey(parentId) ? parentId : null;
+
+        if (existing != null && effectiveParent != null && existing.descendants().contains(effectiveParent)) {
+            return false;
+        }
+
+        Set<Long> subtree = existing != null ? existing.descendants() : Set.of(id);
+        List<Long> children = existing != null ? existing.children() : List.of();
+        Long previousParent = existing != null ? lastOrNull(existing.ancestors()) : null;
+        boolean moved = existing == null || !Objects.equals(previousParent, effectiveParent);
+
+        if (moved && existing != null) {
+            for (Long ancestor : existing.ancestors()) {
+                update(nodes, ancestor, node -> node.withDescendants(minus(node.descendants(), subtree)));
+            }
+            if (previousParent != null) {
+                update(nodes, previousParent, node -> node.withChildren(minus(node.children(), id)));
+            }
+        }
+
+        Node parent = effectiveParent != null ? nodes.get(effectiveParent) : null;
+        List<Long> ancestors = parent != null ? plus(parent.ancestors(), effectiveParent) : List.of();
+        List<Breadcrumb> breadcrumbs = plus(parent != null ? parent.breadcrumbs() : List.of(), new Breadcrumb(id, name));
+        nodes.put(id, new Node(id, name, children, ancestors, subtree, breadcrumbs));
+
+        if (moved && parent != null) {
+            update(nodes, effectiveParent, node -> node.withChildren(plus(node.children(), id)));
+            for (Long ancestor : ancestors) {
+                update(nodes, ancestor, node -> node.withDescendants(union(node.descendants(), subtree)));
+            }
+        }
+
+        if (existing == null || moved || !existing.name().equals(name)) {
+            for (Long child : children) {
+                relabel(nodes, child, plus(ancestors, id), breadcrumbs);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code false} when the category was not indexed
+     */
+    private static boolean remove (Map<Long, Node> nodes, Long id) {
+        Node removed = nodes.remove(id);
+        if (removed == null) {
+            return false;
+        }
+
+        for (Long ancestor : removed.ancestors()) {
+            update(nodes, ancestor, node -> node.withDescendants(minus(node.descendants(), removed.descendants())));
+        }
+        Long parent = lastOrNull(removed.ancestors());
+        if (parent != null) {
+            update(nodes, parent, node -> node.withChildren(minus(node.children(), id)));
+        }
+        for (Long child : removed.children()) {
+            relabel(nodes, child, List.of(), List.of());
+        }
+        return true;
+    }
+
+    /**
+     * Recompute ancestors and breadcrumbs of a subtree below the given base path. Descendant sets inside the subtree
+     * are unaffected by where it hangs.
+     */
+    private static void relabel (Map<Long, Node> nodes, Long rootId, List<Long> baseAncestors, List<Breadcrumb> baseBreadcrumbs) {
+        Deque<Node> pending = new ArrayDeque<>();
+        Node root = nodes.get(rootId);
+        if (root == null) {
+            return;
+        }
+        Node relabelled = root.withPath(baseAncestors, plus(baseBreadcrumbs, new Breadcrumb(rootId, root.name())));
+        nodes.put(rootId, relabelled);
+        pending.add(relabelled);
+
+        while (!pending.isEmpty()) {
+            Node parent = pending.poll();
+            List<Long> ancestors = plus(parent.ancestors(), parent.id());
+            for (Long childId : parent.children()) {
+                Node child = nodes.get(childId);
+                if (child != null) {
+                    Node updated = child.withPath(ancestors, plus(parent.breadcrumbs(), new Breadcrumb(childId, child.name())));
+                    nodes.put(childId, updated);
+                    pending.add(updated);
+                }
+            }
+        }
+    }
+
+    private static void build (Long id, Map<Long, Category> byId, Map<Long, List<Long>> childrenOf, Map<Long, Node> built) {
+        Category root = byId.get(id);
+        Deque<Node> pending = new ArrayDeque<>();
+        List<Node> visited = new ArrayList<>();
+        Node rootNode = new Node(id, root.getName(), childrenOf.getOrDefault(id, List.of()), List.of(), Set.of(),
+                                 List.of(new Breadcrumb(id, root.getName())));
+        built.put(id, rootNode);
+        pending.add(rootNode);
+
+        // Top-down: paths
+        while (!pending.isEmpty()) {
+            Node parent = pending.poll();
+            visited.add(parent);
+            List<Long> ancestors = plus(parent.ancestors(), parent.id());
+            List<Long> reachable = new ArrayList<>();
+            for (Long childId : parent.children()) {
+                if (built.containsKey(childId)) {
+                    continue;
+                }
+                Category child = byId.get(childId);
+                Node node = new Node(childId, child.getName(), childrenOf.getOrDefault(childId, List.of()), ancestors, Set.of(),
+                                     plus(parent.breadcrumbs(), new Breadcrumb(childId, child.getName())));
+                built.put(childId, node);
+                pending.add(node);
+                reachable.add(childId);
+            }
+            // Children already indexed elsewhere would close a cycle; leave them out of this node
+            if (reachable.size() != parent.children().size()) {
+                built.put(parent.id(), parent.withChildren(List.copyOf(reachable)));
+            }
+        }
+
+        // Bottom-up: descendant sets
+        for (int i = visited.size() - 1; i >= 0; i--) {
+            Node node = built.get(visited.get(i).id());
+            Set<Long> descendants = new HashSet<>();
+            descendants.add(node.id());
+            for (Long childId : node.children()) {
+                descendants.addAll(built.get(childId).descendants());
+            }
+            built.put(node.id(), node.withDescendants(Set.copyOf(descendants)));
+        }
+    }
+
+    private static void update (Map<Long, Node> nodes, Long id, UnaryOperator<Node> change) {
+        nodes.computeIfPresent(id, (key, node) -> change.apply(node));
+    }
+
+    private static <T> List<T> plus (List<T> list, T element) {
+        List<T> result = new ArrayList<>(list.size() + 1);
+        result.addAll(list);
+        result.add(element);
+        return List.copyOf(result);
+    }
+
+    private static List<Long> minus (List<Long> list, Long element) {
+        return list.stream().filter(value -> !value.equals(element)).toList();
+    }
+
+    private static Set<Long> minus (Set<Long> set, Collection<Long> elements) {
+        Set<Long> result = new HashSet<>(set);
+        result.removeAll(elements);
+        return Set.copyOf(result);
+    }
+
+    private static Set<Long> union (Set<Long> set, Collection<Long> elements) {
+        Set<Long> result = new LinkedHashSet<>(set);
+        result.addAll(elements);
+        return Set.copyOf(result);
+    }
+
+    private static Long lastOrNull (List<Long> list) {
+        return list.isEmpty() ? null : list.get(list.size() - 1);
+    }
+
+    private static void afterCommit (Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit () {
+                    change.run();
+                }
+            });
+        }
+        else {
+            change.run();
+        }
+    }
+
+    public record Breadcrumb(Long id, String name) {
+    }
+
+    private record Node(Long id, String name, List<Long> children, List<Long> ancestors, Set<Long> descendants, List<Breadcrumb> breadcrumbs) {
+
+        Node withChildren (List<Long> children) {
+            return new Node(id, name, children, ancestors, descendants, breadcrumbs);
+        }
+
+        Node withDescendants (Set<Long> descendants) {
+            return new Node(id, name, children, ancestors, descendants, breadcrumbs);
+        }
+
+        Node withPath (List<Long> ancestors, List<Breadcrumb> breadcrumbs) {
+            return new Node(id, name, children, ancestors, descendants, breadcrumbs);
+        }
+    }
+}
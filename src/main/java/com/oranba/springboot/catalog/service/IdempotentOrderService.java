@@ -0,0 +1,18 @@
+package com.oranba.springboot.catalog.service;
+
+import com.oranba.springboot.catalog.domain.model.Order;
+
+public interface IdempotentOrderService {
+
+    /**
+     * Create an order at most once per idempotency key. A repeated key returns the order created by the first request
+     * without creating another one; a repeat that arrives while the first request is still running waits for it.
+     * 
+     * @param idempotencyKey
+     *        Client-supplied Idempotency-Key header value
+     * @param order
+     *        Order to create
+     * @return The order created for this key
+     */
+    Order createOrder (String idempotencyKey, Order order);
+}
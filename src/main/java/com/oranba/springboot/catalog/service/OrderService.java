@@ -1,14 +1,20 @@
 package com.oranba.springboot.catalog.service;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 import com.oranba.springboot.catalog.domain.model.Order;
 import com.oranba.springboot.catalog.domain.model.OrderStatus;
+import com.oranba.springboot.catalog.dto.CursorPage;
+import com.oranba.springboot.catalog.dto.OrderStatusUpdateResult;
+import com.oranba.springboot.catalog.repository.OrderFilter;
 
 public interface OrderService {
 
@@ -23,6 +29,50 @@ public interface OrderService {
      */
     Page<Order> findAllOrders (Pageable pageable, Map<String, String> filters);
 
+    /**
+     * Find all orders with filtering, one keyset page at a time
+     * 
+     * @param filters
+     *        Map of filter criteria
+     * @param sort
+     *        Sort on columns that are never null; ties are broken by ID
+     * @param cursor
+     *        Cursor of the previous page, or {@code null} for the first page
+     * @param size
+     *        Page size
+     * @return Page of orders with the cursor of the next page
+     */
+    CursorPage<Order> scrollAllOrders (Map<String, String> filters, Sort sort, String cursor, int size);
+
+    /**
+     * Find all orders with pagination and filtering, without counting the matches
+     * 
+     * @param pageable
+     *        Pagination information
+     * @param filters
+     *        Map of filter criteria
+     * @return Slice of orders
+     */
+    Slice<Order> sliceAllOrders (Pageable pageable, Map<String, String> filters);
+
+    /**
+     * Approximate number of orders matching the filters
+     * 
+     * @param filters
+     *        Map of filter criteria
+     * @return Estimated or recently counted number of orders
+     */
+    long approximateOrderCount (Map<String, String> filters);
+
+    /**
+     * Approximate number of orders matching the filter
+     * 
+     * @param filter
+     *        Filter criteria
+     * @return Estimated or recently counted number of orders
+     */
+    long approximateOrderCount (OrderFilter filter);
+
     /**
      * Find an order by its ID
      * 
@@ -52,6 +102,15 @@ public interface OrderService {
      */
     Order updateOrderStatus (Long id, OrderStatus status);
 
+    /**
+     * Update the status of many orders at once
+     * 
+     * @param updates
+     *        Target status per order ID
+     * @return Outcome per order ID, in request order
+     */
+    List<OrderStatusUpdateResult> updateOrderStatuses (Map<Long, OrderStatus> updates);
+
     /**
      * Find orders by customer ID with pagination
      * 
@@ -63,6 +122,32 @@ public interface OrderService {
      */
     Page<Order> findOrdersByCustomer (Long customerId, Pageable pageable);
 
+    /**
+     * Find orders by customer ID, one keyset page at a time
+     * 
+     * @param customerId
+     *        Customer ID
+     * @param sort
+     *        Sort on columns that are never null; ties are broken by ID
+     * @param cursor
+     *        Cursor of the previous page, or {@code null} for the first page
+     * @param size
+     *        Page size
+     * @return Page of orders with the cursor of the next page
+     */
+    CursorPage<Order> scrollOrdersByCustomer (Long customerId, Sort sort, String cursor, int size);
+
+    /**
+     * Find orders by customer ID, without counting the matches
+     * 
+     * @param customerId
+     *        Customer ID
+     * @param pageable
+     *        Pagination information
+     * @return Slice of customer orders
+     */
+    Slice<Order> sliceOrdersByCustomer (Long customerId, Pageable pageable);
+
     /**
      * Find orders created between two dates
      * 
@@ -76,6 +161,36 @@ public interface OrderService {
      */
     Page<Order> findOrdersInDateRange (LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
 
+    /**
+     * Find orders created between two dates, one keyset page at a time
+     * 
+     * @param startDate
+     *        Start date
+     * @param endDate
+     *        End date
+     * @param sort
+     *        Sort on columns that are never null; ties are broken by ID
+     * @param cursor
+     *        Cursor of the previous page, or {@code null} for the first page
+     * @param size
+     *        Page size
+     * @return Page of orders with the cursor of the next page
+     */
+    CursorPage<Order> scrollOrdersInDateRange (LocalDateTime startDate, LocalDateTime endDate, Sort sort, String cursor, int size);
+
+    /**
+     * Find orders created between two dates, without counting the matches
+     * 
+     * @param startDate
+     *        Start date
+     * @param endDate
+     *        End date
+     * @param pageable
+     *        Pagination information
+     * @return Slice of orders within date range
+     */
+    Slice<Order> sliceOrdersInDateRange (LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
+
     /**
      * Find orders by status with pagination
      * 
@@ -87,6 +202,32 @@ public interface OrderService {
      */
     Page<Order> findOrdersByStatus (OrderStatus status, Pageable pageable);
 
+    /**
+     * Find orders by status, one keyset page at a time
+     * 
+     * @param status
+     *        Order status
+     * @param sort
+     *        Sort on columns that are never null; ties are broken by ID
+     * @param cursor
+     *        Cursor of the previous page, or {@code null} for the first page
+     * @param size
+     *        Page size
+     * @return Page of orders with the cursor of the next page
+     */
+    CursorPage<Order> scrollOrdersByStatus (OrderStatus status, Sort sort, String cursor, int size);
+
+    /**
+     * Find orders by status, without counting the matches
+     * 
+     * @param status
+     *        Order status
+     * @param pageable
+     *        Pagination information
+     * @return Slice of orders with the specified status
+     */
+    Slice<Order> sliceOrdersByStatus (OrderStatus status, Pageable pageable);
+
     /**
      * Get order metrics
      * 
@@ -0,0 +1,183 @@
+package com.oranba.springboot.catalog.service;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.oranba.springboot.catalog.domain.model.OrderStatus;
+import com.oranba.springboot.catalog.repository.OrderRepository;
+import com.oranba.springboot.catalog.repository.OrderRepository.StatusCount;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory order counts per status. Loaded with one {@code GROUP BY} query, kept current by deltas applied when order
+ * writes commit, and periodically reconciled against the database to pick up orders written by other replicas. Counts
+ * are therefore exact on a single node and eventually consistent across replicas.
+ * <p>
+ * A reconcile only adopts the database counts if no local order write committed while they were read: such a write may
+ * or may not be in the counts, so adopting them could drop or double its delta. Under a steady stream of writes a
+ * reconcile may thus give up and leave the counts to the next one.
+ */
+@Component
+public class OrderStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatistics.class);
+
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    private final OrderRepository orderRepository;
+    private final Map<OrderStatus, AtomicLong> counts = new EnumMap<>(OrderStatus.class);
+
+    // Guards adopting database counts against deltas applied at the same time
+    private final ReentrantLock lock = new ReentrantLock();
+    // Order writes between their commit starting and their delta being applied
+    private final AtomicInteger committing = new AtomicInteger();
+    private final AtomicLong appliedDeltas = new AtomicLong();
+
+    private volatile boolean loaded;
+
+    public OrderStatistics (OrderRepository orderRepository, MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+
+        for (OrderStatus status : OrderStatus.values()) {
+            AtomicLong count = new AtomicLong();
+            counts.put(status, count);
+            Gauge.builder("orders.count", count, AtomicLong::get)
+                 .description("Orders per status")
+                 .tag("status", status.name())
+                 .register(meterRegistry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load () {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.order-statistics.reconcile-interval:5m}",
+               initialDelayString = "${catalog.order-statistics.reconcile-interval:5m}")
+    public void reconcile () {
+        for (int attempt = 0; attempt < RECONCILE_ATTEMPTS; attempt++) {
+            long deltasBefore = appliedDeltas.get();
+            boolean quietBefore = committing.get() == 0;
+
+            Map<OrderStatus, Long> fromDatabase = new EnumMap<>(OrderStatus.class);
+            for (StatusCount row : orderRepository.countGroupByOrderStatus()) {
+                fromDatabase.put(row.getOrderStatus(), row.getTotal());
+            }
+
+            lock.lock();
+            try {
+                // Before the first load there is nothing better than the database counts
+                if (!loaded || quietBefore && committing.get() == 0 && appliedDeltas.get() == deltasBefore) {
+                    adopt(fromDatabase);
+                    return;
+                }
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+        logger.debug("Order counts not reconciled; local writes kept committing");
+    }
+
+    private void adopt (Map<OrderStatus, Long> fromDatabase) {
+        counts.forEach((status, count) -> {
+            long actual = fromDatabase.getOrDefault(status, 0L);
+            long previous = count.getAndSet(actual);
+            if (loaded && previous != actual) {
+                logger.debug("Order count for {} drifted by {}", status, actual - previous);
+            }
+        });
+        loaded = true;
+    }
+
+    /**
+     * Count a newly created order once its transaction commits.
+     */
+    public void recordCreated () {
+        afterCommit(() -> counts.get(OrderStatus.CREATED).incrementAndGet());
+    }
+
+    /**
+     * Move {@code amount} orders from one status to another once the transaction commits.
+     */
+    public void recordTransition (OrderStatus from, OrderStatus to, long amount) {
+        afterCommit(() -> {
+            counts.get(from).addAndGet(-amount);
+            counts.get(to).addAndGet(amount);
+        });
+    }
+
+    /**
+     * Current counts keyed by status name, plus {@code TOTAL}.
+     */
+    public Map<String, Object> snapshot () {
+        if (!loaded) {
+            reconcile();
+        }
+
+        Map<String, Object> metrics = new HashMap<>();
+        long total = 0;
+        for (Map.Entry<OrderStatus, AtomicLong> entry : counts.entrySet()) {
+            long count = entry.getValue().get();
+            metrics.put(entry.getKey().toString(), count);
+            total += count;
+        }
+        metrics.put("TOTAL", total);
+        return metrics;
+    }
+
+    private void afterCommit (Runnable delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                private boolean commitStarted;
+
+                @Override
+                public void beforeCommit (boolean readOnly) {
+                    commitStarted = true;
+                    committing.incrementAndGet();
+                }
+
+                @Override
+                public void afterCompletion (int status) {
+                    if (status == STATUS_COMMITTED) {
+                        apply(delta);
+                    }
+                    if (commitStarted) {
+                        committing.decrementAndGet();
+                    }
+                }
+            });
+        }
+        else {
+            apply(delta);
+        }
+    }
+
+    private void apply (Runnable delta) {
+        lock.lock();
+        try {
+            delta.run();
+            appliedDeltas.incrementAndGet();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+}
@@ -5,8 +5,11 @@ import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 import com.oranba.springboot.catalog.domain.model.Product;
+import com.oranba.springboot.catalog.dto.CursorPage;
 
 public interface ProductService {
 
@@ -21,6 +24,41 @@ public interface ProductService {
      */
     Page<Product> findAllProducts (Pageable pageable, Map<String, String> filters);
 
+    /**
+     * Find all products with filtering, one keyset page at a time
+     * 
+     * @param filters
+     *        Map of filter criteria
+     * @param sort
+     *        Sort on columns that are never null; ties are broken by ID
+     * @param cursor
+     *        Cursor of the previous page, or {@code null} for the first page
+     * @param size
+     *        Page size
+     * @return Page of products with the cursor of the next page
+     */
+    CursorPage<Product> scrollAllProducts (Map<String, String> filters, Sort sort, String cursor, int size);
+
+    /**
+     * Find all products with pagination and filtering, without counting the matches
+     * 
+     * @param pageable
+     *        Pagination information
+     * @param filters
+     *        Map of filter criteria
+     * @return Slice of products
+     */
+    Slice<Product> sliceAllProducts (Pageable pageable, Map<String, String> filters);
+
+    /**
+     * Approximate number of products matching the filters
+     * 
+     * @param filters
+     *        Map of filter criteria
+     * @return Estimated or recently counted number of products
+     */
+    long approximateProductCount (Map<String, String> filters);
+
     /**
      * Find a product by its ID
      * 
@@ -30,6 +68,15 @@ public interface ProductService {
      */
     Optional<Product> findProductById (Long id);
 
+    /**
+     * Find a product by its SKU
+     * 
+     * @param sku
+     *        Stock keeping unit
+     * @return Optional containing the product if found
+     */
+    Optional<Product> findProductBySku (String sku);
+
     /**
      * Create a new product
      * 
@@ -69,6 +116,100 @@ public interface ProductService {
      */
     Page<Product> findProductsByCategory (Long categoryId, Pageable pageable);
 
+    /**
+     * Find products by category, one keyset page at a time
+     * 
+     * @param categoryId
+     *        Category ID
+     * @param sort
+     *        Sort on columns that are never null; ties are broken by ID
+     * @param cursor
+     *        Cursor of the previous page, or {@code null} for the first page
+     * @param size
+     *        Page size
+     * @return Page of products with the cursor of the next page
+     */
+    CursorPage<Product> scrollProductsByCategory (Long categoryId, Sort sort, String cursor, int size);
+
+    /**
+     * Find products by category, without counting the matches
+     * 
+     * @param categoryId
+     *        Category ID
+     * @param pageable
+     *        Pagination information
+     * @return Slice of products
+     */
+    Slice<Product> sliceProductsByCategory (Long categoryId, Pageable pageable);
+
+    /**
+     * Find products in a category or any of its subcategories
+     * 
+     * @param categoryId
+     *        Category ID
+     * @param pageable
+     *        Pagination information
+     * @return Page of products
+     */
+    Page<Product> findProductsInCategoryTree (Long categoryId, Pageable pageable);
+
+    /**
+     * Find products in a category or any of its subcategories, one keyset page at a time
+     * 
+     * @param categoryId
+     *        Category ID
+     * @param sort
+     *        Sort on columns that are never null; ties are broken by ID
+     * @param cursor
+     *        Cursor of the previous page, or {@code null} for the first page
+     * @param size
+     *        Page size
+     * @return Page of products with the cursor of the next page
+     */
+    CursorPage<Product> scrollProductsInCategoryTree (Long categoryId, Sort sort, String cursor, int size);
+
+    /**
+     * Find products in a category or any of its subcategories, without counting the matches
+     * 
+     * @param categoryId
+     *        Category ID
+     * @param pageable
+     *        Pagination information
+     * @return Slice of products
+     */
+    Slice<Product> sliceProductsInCategoryTree (Long categoryId, Pageable pageable);
+
+    /**
+     * Approximate number of products in a category
+     * 
+     * @param categoryId
+     *        Category ID
+     * @param includeDescendants
+     *        Whether products of its subcategories count too
+     * @return Estimated or recently counted number of products
+     */
+    long approximateProductCountInCategory (Long categoryId, boolean includeDescendants);
+
+    /**
+     * Search active products by name, SKU and description, most relevant first. Every term is matched as a prefix.
+     * 
+     * @param query
+     *        Search text
+     * @param pageable
+     *        Pagination information
+     * @return Slice of matching products, without a total
+     */
+    Slice<Product> searchProducts (String query, Pageable pageable);
+
+    /**
+     * Approximate number of active products a search matches
+     * 
+     * @param query
+     *        Search text
+     * @return Estimated or recently counted number of products
+     */
+    long approximateSearchCount (String query);
+
     /**
      * Update product inventory
      * 
@@ -80,6 +221,14 @@ public interface ProductService {
      */
     Product updateInventory (Long productId, int quantityChange);
 
+    /**
+     * Decrement inventory for several products at once, failing if any of them cannot cover its quantity
+     * 
+     * @param quantities
+     *        Quantity to remove per product ID
+     */
+    void decrementInventory (Map<Long, Integer> quantities);
+
     /**
      * Find products with low inventory
      * 
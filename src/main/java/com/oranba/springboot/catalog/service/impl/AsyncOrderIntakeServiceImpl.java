@@ -0,0 +1,231 @@
+package com.oranba.springboot.catalog.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oranba.springboot.catalog.config.OrderIntakeProperties;
+import com.oranba.springboot.catalog.domain.model.Order;
+import com.oranba.springboot.catalog.dto.OrderIntakeStatus;
+import com.oranba.springboot.catalog.service.AsyncOrderIntakeService;
+import com.oranba.springboot.catalog.service.OrderService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Asynchronous order intake. Requests only enqueue; a single writer thread drains the queue and creates many orders in
+ * one transaction, paying for one commit (and one fsync) per batch instead of per order. If any order in a batch fails,
+ * the batch is rolled back and replayed one order per transaction, so a bad order only fails itself.
+ * <p>
+ * Queue and statuses are node-local memory by design; see {@link AsyncOrderIntakeService} for what that means for
+ * callers.
+ */
+@Service
+public class AsyncOrderIntakeServiceImpl implements AsyncOrderIntakeService, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncOrderIntakeServiceImpl.class);
+
+    private final OrderService orderService;
+    private final OrderIntakeProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<QueuedOrder> queue;
+    private final Cache<String, OrderIntakeStatus> statuses;
+
+    private final Counter rejectedCounter;
+    private final DistributionSummary batchSizeSummary;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public AsyncOrderIntakeServiceImpl (OrderService orderService,
+                                        OrderIntakeProperties properties,
+                                        PlatformTransactionManager transactionManager,
+                                        MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.statuses = Caffeine.newBuilder()
+                                .maximumSize(properties.getTrackingMaxEntries())
+                                .expireAfterWrite(properties.getTrackingTtl())
+                                .build();
+
+        Gauge.builder("order.intake.queue.depth", queue, BlockingQueue::size)
+             .description("Orders waiting for the group-commit writer")
+             .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("order.intake.rejected")
+                                      .description("Orders rejected because the intake queue was full")
+                                      .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("order.intake.commit.batch.size")
+                                                   .description("Orders committed per group-commit transaction")
+                                                   .register(meterRegistry);
+    }
+
+    @Override
+    public boolean isEnabled () {
+        return properties.getMode() == OrderIntakeProperties.Mode.ASYNC;
+    }
+
+    @Override
+    public Optional<String> submit (Order order) {
+        String trackingId = UUID.randomUUID().toString();
+        statuses.put(trackingId, OrderIntakeStatus.queued(trackingId));
+
+        if (!running || !queue.offer(new QueuedOrder(trackingId, order))) {
+            statuses.invalidate(trackingId);
+            rejectedCounter.increment();
+            return Optional.empty();
+        }
+        return Optional.of(trackingId);
+    }
+
+    @Override
+    public Optional<OrderIntakeStatus> getStatus (String trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    @Override
+    public void start () {
+        if (!isEnabled()) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "order-intake-writer");
+        writer.start();
+        logger.info("Asynchronous order intake started (queue capacity {}, batch size {})", properties.getQueueCapacity(),
+                    properties.getMaxBatchSize());
+    }
+
+    @Override
+    public void stop () {
+        if (writer == null) {
+            return;
+        }
+        // Stop accepting, then let the writer drain what is already queued
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("Shutting down with {} queued orders not committed", queue.size());
+        }
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning () {
+        return writer != null;
+    }
+
+    private void writeLoop () {
+        List<QueuedOrder> batch = new ArrayList<>(properties.getMaxBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+                commit(batch);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            catch (RuntimeException e) {
+                logger.error("Order intake writer failed on a batch of {} orders", batch.size(), e);
+            }
+            finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void fillBatch (List<QueuedOrder> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + properties.getLinger().toNanos();
+        while (batch.size() < properties.getMaxBatchSize()) {
+            queue.drainTo(batch, properties.getMaxBatchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= properties.getMaxBatchSize() || remaining <= 0) {
+                return;
+            }
+            QueuedOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void commit (List<QueuedOrder> batch) {
+        try {
+            List<Order> created = transactionTemplate.execute(status -> batch.stream().map(queued -> orderService.createOrder(queued.order())).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                markCommitted(batch.get(i).trackingId(), created.get(i));
+            }
+            batchSizeSummary.record(batch.size());
+        }
+        catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                markFailed(batch.get(0).trackingId(), e);
+                return;
+            }
+            logger.debug("Group commit of {} orders failed, retrying individually: {}", batch.size(), e.getMessage());
+            for (QueuedOrder queued : batch) {
+                resetGeneratedIds(queued.order());
+                try {
+                    markCommitted(queued.trackingId(), transactionTemplate.execute(status -> orderService.createOrder(queued.order())));
+                    batchSizeSummary.record(1);
+                }
+                catch (RuntimeException single) {
+                    markFailed(queued.trackingId(), single);
+                }
+            }
+        }
+    }
+
+    // The rolled-back attempt already assigned IDs; clear them so the retry inserts rather than merges
+    private static void resetGeneratedIds (Order order) {
+        order.setId(null);
+        if (order.getOrderItems() != null) {
+            order.getOrderItems().forEach(item -> {
+                item.setId(null);
+                item.setOrderId(null);
+            });
+        }
+    }
+
+    private void markCommitted (String trackingId, Order order) {
+        statuses.put(trackingId, OrderIntakeStatus.committed(trackingId, order.getId(), order.getOrderNumber()));
+    }
+
+    private void markFailed (String trackingId, RuntimeException e) {
+        statuses.put(trackingId, OrderIntakeStatus.failed(trackingId, e.getMessage()));
+    }
+
+    private record QueuedOrder(String trackingId, Order order) {
+    }
+}
@@ -1,7 +1,10 @@
 package com.oranba.springboot.catalog.service.impl;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,28 +14,43 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.oranba.springboot.catalog.cache.CacheRefresher;
+import com.oranba.springboot.catalog.cache.ProductCacheInvalidator;
 import com.oranba.springboot.catalog.config.CacheConfig;
 import com.oranba.springboot.catalog.domain.model.Category;
 import com.oranba.springboot.catalog.repository.CategoryRepository;
 import com.oranba.springboot.catalog.service.CategoryService;
+import com.oranba.springboot.catalog.service.CategoryTreeIndex;
+import com.oranba.springboot.catalog.service.CategoryTreeIndex.Breadcrumb;
 
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 
 @Service
-public class CategoryServiceImpl implements CategoryService {
+public class CategoryServiceImpl implements CategoryService, CacheRefresher {
 
     private static final Logger logger = LoggerFactory.getLogger(CategoryServiceImpl.class);
 
+    // Cache keys of the menu lists, the only entries served stale while they are refreshed
+    private static final Set<String> MENU_KEYS = Set.of("all", "root", "hierarchy");
+    private static final String CHILDREN_KEY_PREFIX = "parent:";
+
     private final CategoryRepository categoryRepository;
+    private final CategoryTreeIndex categoryTreeIndex;
+    private final ProductCacheInvalidator productCacheInvalidator;
     private final MeterRegistry meterRegistry;
 
     // Timer metric for performance monitoring
     private final Timer findCategoryTimer;
 
     @Autowired
-    public CategoryServiceImpl (CategoryRepository categoryRepository, MeterRegistry meterRegistry) {
+    public CategoryServiceImpl (CategoryRepository categoryRepository,
+                                CategoryTreeIndex categoryTreeIndex,
+                                ProductCacheInvalidator productCacheInvalidator,
+                                MeterRegistry meterRegistry) {
         this.categoryRepository = categoryRepository;
+        this.categoryTreeIndex = categoryTreeIndex;
+        this.productCacheInvalidator = productCacheInvalidator;
         this.meterRegistry = meterRegistry;
 
         // Initialize performance metrics
@@ -40,7 +58,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
-    @Cacheable(value = CacheConfig.CATEGORIES_CACHE, key = "'all'")
+    @Cacheable(value = CacheConfig.CATEGORIES_CACHE, key = "'all'", sync = true)
     public List<Category> findAllCategories () {
         Timer.Sample sample = Timer.start(meterRegistry);
         try {
@@ -53,7 +71,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
-    @Cacheable(value = CacheConfig.CATEGORIES_CACHE, key = "#id")
+    @Cacheable(value = CacheConfig.CATEGORIES_CACHE, key = "#id", sync = true)
     public Optional<Category> findCategoryById (Long id) {
         Timer.Sample sample = Timer.start(meterRegistry);
         try {
@@ -70,7 +88,9 @@ public class CategoryServiceImpl implements CategoryService {
     @CacheEvict(value = CacheConfig.CATEGORIES_CACHE, allEntries = true)
     public Category createCategory (Category category) {
         logger.info("Creating new category: {}", category.getName());
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        categoryTreeIndex.recordSaved(savedCategory);
+        return savedCategory;
     }
 
     @Override
@@ -83,13 +103,32 @@ public class CategoryServiceImpl implements CategoryService {
 
         if (existingCategory.isPresent()) {
             Category categoryToUpdate = existingCategory.get();
+            Long previousParentId = categoryToUpdate.getParentCategoryId();
+            Long parentId = category.getParentCategoryId();
+
+            if (parentId != null && categoryTreeIndex.descendants(id).contains(parentId)) {
+                throw new RuntimeException("Category cannot be moved beneath itself or its subcategories: " + id);
+            }
 
             // Update fields
             categoryToUpdate.setName(category.getName());
             categoryToUpdate.setDescription(category.getDescription());
-            categoryToUpdate.setParentCategoryId(category.getParentCategoryId());
-
-            return categoryRepository.save(categoryToUpdate);
+            categoryToUpdate.setParentCategoryId(parentId);
+
+            Category savedCategory = categoryRepository.save(categoryToUpdate);
+            if (!Objects.equals(previousParentId, parentId)) {
+                // Subtree listings of both the old and the new ancestors now cover different products
+                Set<Long> affected = new HashSet<>();
+                if (previousParentId != null) {
+                    affected.add(previousParentId);
+                }
+                if (parentId != null) {
+                    affected.add(parentId);
+                }
+                productCacheInvalidator.categoryTreeChanged(affected);
+            }
+            categoryTreeIndex.recordSaved(savedCategory);
+            return savedCategory;
         }
         else {
             throw new RuntimeException("Category not found with ID: " + id);
@@ -102,10 +141,13 @@ public class CategoryServiceImpl implements CategoryService {
     public void deleteCategory (Long id) {
         logger.info("Deleting category with ID: {}", id);
         categoryRepository.deleteById(id);
+        // Its subcategories become roots, so they drop out of its ancestors' subtree listings
+        categoryTreeIndex.parent(id).ifPresent(parentId -> productCacheInvalidator.categoryTreeChanged(Set.of(parentId)));
+        categoryTreeIndex.recordDeleted(id);
     }
 
     @Override
-    @Cacheable(value = CacheConfig.CATEGORIES_CACHE, key = "'parent:' + #parentId")
+    @Cacheable(value = CacheConfig.CATEGORIES_CACHE, key = "'parent:' + #parentId", sync = true)
     public List<Category> findByParentCategoryId (Long parentId) {
         Timer.Sample sample = Timer.start(meterRegistry);
         try {
@@ -118,7 +160,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
-    @Cacheable(value = CacheConfig.CATEGORIES_CACHE, key = "'root'")
+    @Cacheable(value = CacheConfig.CATEGORIES_CACHE, key = "'root'", sync = true)
     public List<Category> findRootCategories () {
         Timer.Sample sample = Timer.start(meterRegistry);
         try {
@@ -131,7 +173,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
-    @Cacheable(value = CacheConfig.CATEGORIES_CACHE, key = "'hierarchy'")
+    @Cacheable(value = CacheConfig.CATEGORIES_CACHE, key = "'hierarchy'", sync = true)
     public List<Category> getCategoryHierarchy () {
         Timer.Sample sample = Timer.start(meterRegistry);
         try {
@@ -142,4 +184,34 @@ public class CategoryServiceImpl implements CategoryService {
             sample.stop(findCategoryTimer);
         }
     }
+
+    @Override
+    public List<Breadcrumb> getBreadcrumbs (Long id) {
+        return categoryTreeIndex.breadcrumbs(id);
+    }
+
+    @Override
+    public String getCacheName () {
+        return CacheConfig.CATEGORIES_CACHE;
+    }
+
+    @Override
+    public boolean isRefreshable (Object key) {
+        // Lookups by ID are evicted, so a read after a write sees it
+        return key instanceof String name && (MENU_KEYS.contains(name) || name.startsWith(CHILDREN_KEY_PREFIX));
+    }
+
+    @Override
+    public Object reload (Object key) {
+        String name = (String) key;
+        return switch (name) {
+            case "all" -> categoryRepository.findAll();
+            case "root" -> categoryRepository.findByParentCategoryIdIsNull();
+            case "hierarchy" -> categoryRepository.findAllWithHierarchy();
+            default -> {
+                String parentId = name.substring(CHILDREN_KEY_PREFIX.length());
+                yield categoryRepository.findByParentCategoryId("null".equals(parentId) ? null : Long.valueOf(parentId));
+            }
+        };
+    }
 }
@@ -0,0 +1,150 @@
+package com.oranba.springboot.catalog.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oranba.springboot.catalog.config.IdempotencyProperties;
+import com.oranba.springboot.catalog.domain.model.IdempotencyKey;
+import com.oranba.springboot.catalog.domain.model.Order;
+import com.oranba.springboot.catalog.repository.IdempotencyKeyRepository;
+import com.oranba.springboot.catalog.repository.OrderItemRepository;
+import com.oranba.springboot.catalog.repository.OrderRepository;
+import com.oranba.springboot.catalog.service.IdempotentOrderService;
+import com.oranba.springboot.catalog.service.OrderService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Two-level dedup store for order creation. A bounded, expiring in-memory map of key to future answers repeats on
+ * this node with a single map operation and lets concurrent duplicates wait on the original. The idempotency_keys
+ * table catches repeats that land on another node or after a restart: the key is claimed as the first statement of the
+ * order's transaction, and only a successful claim goes on to create the order. A request that finds the key taken
+ * returns the stored order instead, without touching inventory.
+ */
+@Service
+public class IdempotentOrderServiceImpl implements IdempotentOrderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotentOrderServiceImpl.class);
+
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final IdempotencyProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Cache<String, CompletableFuture<Order>> responses;
+
+    private final Counter replayCounter;
+
+    @Autowired
+    public IdempotentOrderServiceImpl (OrderService orderService,
+                                       OrderRepository orderRepository,
+                                       OrderItemRepository orderItemRepository,
+                                       IdempotencyKeyRepository idempotencyKeyRepository,
+                                       IdempotencyProperties properties,
+                                       PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.responses = Caffeine.newBuilder().maximumSize(properties.getMaxEntries()).expireAfterWrite(properties.getTtl()).build();
+
+        this.replayCounter = Counter.builder("order.idempotency.replays")
+                                    .description("Order requests answered from an earlier request with the same Idempotency-Key")
+                                    .register(meterRegistry);
+    }
+
+    @Override
+    public Order createOrder (String idempotencyKey, Order order) {
+        CompletableFuture<Order> pending = new CompletableFuture<>();
+        CompletableFuture<Order> existing = responses.asMap().putIfAbsent(idempotencyKey, pending);
+
+        if (existing != null) {
+            replayCounter.increment();
+            logger.debug("Replaying order for Idempotency-Key {}", idempotencyKey);
+            return await(idempotencyKey, existing);
+        }
+
+        try {
+            Order result = createOnce(idempotencyKey, order);
+            pending.complete(result);
+            return result;
+        }
+        catch (RuntimeException e) {
+            // Let a later retry run again rather than replaying a failure
+            responses.asMap().remove(idempotencyKey, pending);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "PT1H")
+    public void purgeExpiredKeys () {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getTtl());
+        Integer purged = transactionTemplate.execute(status -> idempotencyKeyRepository.deleteCreatedBefore(cutoff));
+        logger.debug("Purged {} expired idempotency keys", purged);
+    }
+
+    private Order createOnce (String idempotencyKey, Order order) {
+        return transactionTemplate.execute(status -> {
+            if (idempotencyKeyRepository.claim(idempotencyKey, LocalDateTime.now()) == 0) {
+                // Another node or an earlier run already committed an order for this key
+                replayCounter.increment();
+                logger.info("Idempotency-Key {} was already used, returning the original order", idempotencyKey);
+                return storedOrder(idempotencyKey);
+            }
+            Order created = orderService.createOrder(order);
+            idempotencyKeyRepository.assignOrder(idempotencyKey, created.getId());
+            return created;
+        });
+    }
+
+    private Order storedOrder (String idempotencyKey) {
+        Order stored = idempotencyKeyRepository.findById(idempotencyKey)
+                                               .map(IdempotencyKey::getOrderId)
+                                               .flatMap(orderRepository::findById)
+                                               .orElseThrow(() -> new IllegalStateException("No order stored for Idempotency-Key "
+                                                                                            + idempotencyKey));
+        // Line items are not mapped on the entity; the replay answers with the same items as the original response
+        stored.setOrderItems(orderItemRepository.findByOrderId(stored.getId()));
+        return stored;
+    }
+
+    private Order await (String idempotencyKey, CompletableFuture<Order> original) {
+        try {
+            return original.get(properties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Original request for Idempotency-Key " + idempotencyKey + " failed", e.getCause());
+        }
+        catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out waiting for the original request with Idempotency-Key " + idempotencyKey, e);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Idempotency-Key " + idempotencyKey, e);
+        }
+    }
+}
@@ -2,22 +2,38 @@ package com.oranba.springboot.catalog.service.impl;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.oranba.springboot.catalog.domain.model.Order;
 import com.oranba.springboot.catalog.domain.model.OrderItem;
 import com.oranba.springboot.catalog.domain.model.OrderStatus;
+import com.oranba.springboot.catalog.dto.CursorPage;
+import com.oranba.springboot.catalog.dto.OrderStatusUpdateResult;
+import com.oranba.springboot.catalog.dto.OrderStatusUpdateResult.Outcome;
+import com.oranba.springboot.catalog.event.InventoryChangedEvent;
+import com.oranba.springboot.catalog.event.InventoryEventProducer;
+import com.oranba.springboot.catalog.event.OrderEventProducer;
+import com.oranba.springboot.catalog.exception.InsufficientInventoryException;
+import com.oranba.springboot.catalog.repository.OrderFilter;
+import com.oranba.springboot.catalog.repository.OrderFilterRepository;
 import com.oranba.springboot.catalog.repository.OrderItemRepository;
 import com.oranba.springboot.catalog.repository.OrderRepository;
+import com.oranba.springboot.catalog.repository.OrderRepository.OrderStatusView;
+import com.oranba.springboot.catalog.service.OrderNumberGenerator;
 import com.oranba.springboot.catalog.service.OrderService;
+import com.oranba.springboot.catalog.service.OrderStatistics;
 import com.oranba.springboot.catalog.service.ProductService;
+import com.oranba.springboot.catalog.service.inventory.HotInventoryLedger;
 
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
@@ -27,24 +43,57 @@ public class OrderServiceImpl implements OrderService {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderServiceImpl.class);
 
+    // Order state machine: allowed target statuses per current status
+    private static final Map<OrderStatus, Set<OrderStatus>> VALID_TRANSITIONS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        VALID_TRANSITIONS.put(OrderStatus.CREATED, EnumSet.of(OrderStatus.PAID, OrderStatus.CANCELLED));
+        VALID_TRANSITIONS.put(OrderStatus.PAID, EnumSet.of(OrderStatus.SHIPPED, OrderStatus.CANCELLED));
+        VALID_TRANSITIONS.put(OrderStatus.SHIPPED, EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED));
+        VALID_TRANSITIONS.put(OrderStatus.DELIVERED, EnumSet.noneOf(OrderStatus.class));
+        VALID_TRANSITIONS.put(OrderStatus.CANCELLED, EnumSet.noneOf(OrderStatus.class));
+    }
+
+    // Keeps each IN list of a bulk status update well below the driver's bind parameter limit
+    private static final int STATUS_UPDATE_CHUNK_SIZE = 1000;
+
     private final OrderRepository orderRepository;
+    private final OrderFilterRepository orderFilterRepository;
     private final OrderItemRepository orderItemRepository;
     private final ProductService productService;
+    private final HotInventoryLedger hotInventoryLedger;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final OrderEventProducer orderEventProducer;
+    private final InventoryEventProducer inventoryEventProducer;
+    private final OrderStatistics orderStatistics;
     private final MeterRegistry meterRegistry;
 
     // Timer metrics for performance monitoring
     private final Timer findOrderTimer;
     private final Timer createOrderTimer;
     private final Timer updateStatusTimer;
+    private final Timer batchUpdateStatusTimer;
 
     @Autowired
     public OrderServiceImpl (OrderRepository orderRepository,
+                             OrderFilterRepository orderFilterRepository,
                              OrderItemRepository orderItemRepository,
                              ProductService productService,
+                             HotInventoryLedger hotInventoryLedger,
+                             OrderNumberGenerator orderNumberGenerator,
+                             OrderEventProducer orderEventProducer,
+                             InventoryEventProducer inventoryEventProducer,
+                             OrderStatistics orderStatistics,
                              MeterRegistry meterRegistry) {
         this.orderRepository = orderRepository;
+        this.orderFilterRepository = orderFilterRepository;
         this.orderItemRepository = orderItemRepository;
         this.productService = productService;
+        this.hotInventoryLedger = hotInventoryLedger;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.orderEventProducer = orderEventProducer;
+        this.inventoryEventProducer = inventoryEventProducer;
+        this.orderStatistics = orderStatistics;
         this.meterRegistry = meterRegistry;
 
         // Initialize performance metrics
@@ -53,6 +102,9 @@ public class OrderServiceImpl implements OrderService {
         this.updateStatusTimer = Timer.builder("order.status.update.time")
                                       .description("Time taken to update order status")
                                       .register(meterRegistry);
+        this.batchUpdateStatusTimer = Timer.builder("order.status.batch.update.time")
+                                           .description("Time taken to update the status of a batch of orders")
+                                           .register(meterRegistry);
     }
 
     @Override
@@ -95,6 +147,41 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
+    @Override
+    public CursorPage<Order> scrollAllOrders (Map<String, String> filters, Sort sort, String cursor, int size) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            logger.debug("Scrolling all orders with filters: {}", filters);
+            // Unlike the offset listing, all criteria combine in one query
+            return orderFilterRepository.findAll(OrderFilter.from(filters), sort, cursor, size);
+        }
+        finally {
+            sample.stop(findOrderTimer);
+        }
+    }
+
+    @Override
+    public Slice<Order> sliceAllOrders (Pageable pageable, Map<String, String> filters) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            logger.debug("Slicing all orders with filters: {}", filters);
+            return orderFilterRepository.findSlice(OrderFilter.from(filters), pageable);
+        }
+        finally {
+            sample.stop(findOrderTimer);
+        }
+    }
+
+    @Override
+    public long approximateOrderCount (Map<String, String> filters) {
+        return approximateOrderCount(OrderFilter.from(filters));
+    }
+
+    @Override
+    public long approximateOrderCount (OrderFilter filter) {
+        return orderFilterRepository.approximateCount(filter);
+    }
+
     @Override
     public Optional<Order> findOrderById (Long id) {
         Timer.Sample sample = Timer.start(meterRegistry);
@@ -115,26 +202,41 @@ public class OrderServiceImpl implements OrderService {
             logger.info("Creating new order for customer: {}", order.getCustomerId());
 
             // Generate unique order number
-            order.setOrderNumber("ORD-" + System.currentTimeMillis());
+            order.setOrderNumber(orderNumberGenerator.nextOrderNumber());
             order.setOrderStatus(OrderStatus.CREATED);
 
             // Save the order first to get the ID
             Order savedOrder = orderRepository.save(order);
 
             // Save order items and update inventory
-            if (order.getOrderItems() != null) {
-                for (OrderItem item : order.getOrderItems()) {
-                    // Set the order ID for the item
+            List<OrderItem> items = order.getOrderItems();
+            if (items != null && !items.isEmpty()) {
+                // Aggregate per product, sorted by ID so concurrent orders lock rows in the same order
+                Map<Long, Integer> quantities = new TreeMap<>();
+                for (OrderItem item : items) {
+                    // A non-positive quantity would put stock back; callers validate, this keeps other paths honest
+                    if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                        throw new IllegalArgumentException("Order item quantity must be positive: " + item.getQuantity());
+                    }
                     item.setOrderId(savedOrder.getId());
-                    orderItemRepository.save(item);
+                    quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+                }
+
+                // Fails fast before any item row is written
+                reserveInventory(quantities);
 
-                    // Update product inventory
-                    productService.updateInventory(item.getProductId(), -item.getQuantity());
+                // Sequence-backed IDs let Hibernate send all item inserts as one JDBC batch
+                orderItemRepository.saveAll(items);
+
+                for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                    inventoryEventProducer.publishInventoryChangedEvent(line.getKey(), -line.getValue(), InventoryChangedEvent.REASON_ORDER,
+                                                                        savedOrder.getOrderNumber());
                 }
             }
 
-            // Publish order created event (to be implemented)
-            // orderEventProducer.publishOrderCreatedEvent(savedOrder);
+            // Written to the outbox in this transaction; the relay publishes it after commit
+            orderEventProducer.publishOrderCreatedEvent(savedOrder);
+            orderStatistics.recordCreated();
 
             return savedOrder;
         }
@@ -143,6 +245,37 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
+    /**
+     * Reserve stock for every product in the order. Hot products reserve from the node-local ledger; everything else
+     * goes out as one set-based decrement. All shortfalls are reported together.
+     */
+    private void reserveInventory (Map<Long, Integer> quantities) {
+        List<Long> failed = new ArrayList<>();
+        Map<Long, Integer> rowQuantities = new TreeMap<>();
+
+        quantities.forEach((productId, quantity) -> {
+            if (!hotInventoryLedger.isHot(productId)) {
+                rowQuantities.put(productId, quantity);
+            }
+            else if (!hotInventoryLedger.reserve(productId, quantity)) {
+                failed.add(productId);
+            }
+        });
+
+        if (!rowQuantities.isEmpty()) {
+            try {
+                productService.decrementInventory(rowQuantities);
+            }
+            catch (InsufficientInventoryException e) {
+                failed.addAll(e.getProductIds());
+            }
+        }
+
+        if (!failed.isEmpty()) {
+            throw new InsufficientInventoryException(failed);
+        }
+    }
+
     @Override
     @Transactional
     public Order updateOrderStatus (Long id, OrderStatus status) {
@@ -162,8 +295,8 @@ public class OrderServiceImpl implements OrderService {
                 orderToUpdate.setOrderStatus(status);
                 Order updatedOrder = orderRepository.save(orderToUpdate);
 
-                // Publish order status changed event (to be implemented)
-                // orderEventProducer.publishOrderStatusChangedEvent(updatedOrder, previousStatus);
+                orderEventProducer.publishOrderStatusChangedEvent(updatedOrder, previousStatus);
+                orderStatistics.recordTransition(previousStatus, status, 1);
 
                 return updatedOrder;
             }
@@ -176,17 +309,81 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
+    @Override
+    @Transactional
+    public List<OrderStatusUpdateResult> updateOrderStatuses (Map<Long, OrderStatus> updates) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            logger.info("Updating status of {} orders", updates.size());
+
+            List<Long> ids = new ArrayList<>(updates.keySet());
+            Map<Long, OrderStatusUpdateResult> results = new HashMap<>();
+
+            for (int from = 0; from < ids.size(); from += STATUS_UPDATE_CHUNK_SIZE) {
+                applyStatusUpdates(ids.subList(from, Math.min(from + STATUS_UPDATE_CHUNK_SIZE, ids.size())), updates, results);
+            }
+
+            return ids.stream().map(results::get).toList();
+        }
+        finally {
+            sample.stop(batchUpdateStatusTimer);
+        }
+    }
+
+    /**
+     * Validate one chunk against the state machine in memory, then apply one guarded UPDATE per (from, to) pair.
+     */
+    private void applyStatusUpdates (List<Long> ids, Map<Long, OrderStatus> updates, Map<Long, OrderStatusUpdateResult> results) {
+        Map<Long, OrderStatusView> current = orderRepository.findStatusesByIdIn(ids)
+                                                            .stream()
+                                                            .collect(Collectors.toMap(OrderStatusView::getId, view -> view));
+
+        Map<OrderStatus, Map<OrderStatus, List<OrderStatusView>>> groups = new EnumMap<>(OrderStatus.class);
+        for (Long id : ids) {
+            OrderStatusView view = current.get(id);
+            OrderStatus target = updates.get(id);
+
+            if (view == null) {
+                results.put(id, OrderStatusUpdateResult.failed(id, Outcome.NOT_FOUND, null, "Order not found with ID: " + id));
+            }
+            else if (!isValidTransition(view.getOrderStatus(), target)) {
+                results.put(id, OrderStatusUpdateResult.failed(id, Outcome.INVALID_TRANSITION, view.getOrderStatus(),
+                                                               "Invalid status transition from " + view.getOrderStatus() + " to " + target));
+            }
+            else {
+                groups.computeIfAbsent(view.getOrderStatus(), status -> new EnumMap<>(OrderStatus.class))
+                      .computeIfAbsent(target, status -> new ArrayList<>())
+                      .add(view);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        groups.forEach((from, byTarget) -> byTarget.forEach((to, views) -> {
+            List<Long> groupIds = views.stream().map(OrderStatusView::getId).toList();
+
+            // Only orders this UPDATE moved get an event; any other order was changed concurrently
+            Set<Long> moved = new HashSet<>(orderRepository.updateStatus(groupIds, from, to, now));
+
+            orderStatistics.recordTransition(from, to, moved.size());
+            for (OrderStatusView view : views) {
+                if (moved.contains(view.getId())) {
+                    results.put(view.getId(), OrderStatusUpdateResult.updated(view.getId(), from, to));
+                    orderEventProducer.publishOrderStatusChangedEvent(view.getId(), view.getOrderNumber(), from, to);
+                }
+                else {
+                    results.put(view.getId(), OrderStatusUpdateResult.failed(view.getId(), Outcome.CONFLICT, from,
+                                                                             "Order status changed concurrently"));
+                }
+            }
+        }));
+    }
+
+    private static boolean isValidTransition (OrderStatus currentStatus, OrderStatus newStatus) {
+        return VALID_TRANSITIONS.getOrDefault(currentStatus, Set.of()).contains(newStatus);
+    }
+
     private void validateStatusTransition (OrderStatus currentStatus, OrderStatus newStatus) {
-        // Define valid transitions
-        Map<OrderStatus, Set<OrderStatus>> validTransitions = new HashMap<>();
-        validTransitions.put(OrderStatus.CREATED, new HashSet<>(Arrays.asList(OrderStatus.PAID, OrderStatus.CANCELLED)));
-        validTransitions.put(OrderStatus.PAID, new HashSet<>(Arrays.asList(OrderStatus.SHIPPED, OrderStatus.CANCELLED)));
-        validTransitions.put(OrderStatus.SHIPPED, new HashSet<>(Arrays.asList(OrderStatus.DELIVERED, OrderStatus.CANCELLED)));
-        validTransitions.put(OrderStatus.DELIVERED, new HashSet<>(Collections.emptyList()));
-        validTransitions.put(OrderStatus.CANCELLED, new HashSet<>(Collections.emptyList()));
-
-        // Check if transition is valid
-        if (!validTransitions.containsKey(currentStatus) || !validTransitions.get(currentStatus).contains(newStatus)) {
+        if (!isValidTransition(currentStatus, newStatus)) {
             throw new IllegalStateException("Invalid status transition from " + currentStatus + " to " + newStatus);
         }
     }
@@ -203,6 +400,30 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
+    @Override
+    public CursorPage<Order> scrollOrdersByCustomer (Long customerId, Sort sort, String cursor, int size) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            logger.debug("Scrolling orders for customer ID: {}", customerId);
+            return orderFilterRepository.findAll(new OrderFilter(customerId, null, null, null), sort, cursor, size);
+        }
+        finally {
+            sample.stop(findOrderTimer);
+        }
+    }
+
+    @Override
+    public Slice<Order> sliceOrdersByCustomer (Long customerId, Pageable pageable) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            logger.debug("Slicing orders for customer ID: {}", customerId);
+            return orderFilterRepository.findSlice(new OrderFilter(customerId, null, null, null), pageable);
+        }
+        finally {
+            sample.stop(findOrderTimer);
+        }
+    }
+
     @Override
     public Page<Order> findOrdersInDateRange (LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
         Timer.Sample sample = Timer.start(meterRegistry);
@@ -215,6 +436,30 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
+    @Override
+    public CursorPage<Order> scrollOrdersInDateRange (LocalDateTime startDate, LocalDateTime endDate, Sort sort, String cursor, int size) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            logger.debug("Scrolling orders between dates: {} and {}", startDate, endDate);
+            return orderFilterRepository.findAll(new OrderFilter(null, null, startDate, endDate), sort, cursor, size);
+        }
+        finally {
+            sample.stop(findOrderTimer);
+        }
+    }
+
+    @Override
+    public Slice<Order> sliceOrdersInDateRange (LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            logger.debug("Slicing orders between dates: {} and {}", startDate, endDate);
+            return orderFilterRepository.findSlice(new OrderFilter(null, null, startDate, endDate), pageable);
+        }
+        finally {
+            sample.stop(findOrderTimer);
+        }
+    }
+
     @Override
     public Page<Order> findOrdersByStatus (OrderStatus status, Pageable pageable) {
         Timer.Sample sample = Timer.start(meterRegistry);
@@ -228,21 +473,34 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    public Map<String, Object> getOrderMetrics () {
-        logger.debug("Calculating order metrics");
-
-        Map<String, Object> metrics = new HashMap<>();
+    public CursorPage<Order> scrollOrdersByStatus (OrderStatus status, Sort sort, String cursor, int size) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            logger.debug("Scrolling orders with status: {}", status);
+            return orderFilterRepository.findAll(new OrderFilter(null, status, null, null), sort, cursor, size);
+        }
+        finally {
+            sample.stop(findOrderTimer);
+        }
+    }
 
-        // Count orders by status
-        for (OrderStatus status : OrderStatus.values()) {
-            long count = orderRepository.countByOrderStatus(status);
-            metrics.put(status.toString(), count);
+    @Override
+    public Slice<Order> sliceOrdersByStatus (OrderStatus status, Pageable pageable) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            logger.debug("Slicing orders with status: {}", status);
+            return orderFilterRepository.findSlice(new OrderFilter(null, status, null, null), pageable);
         }
+        finally {
+            sample.stop(findOrderTimer);
+        }
+    }
 
-        // Add total order count
-        long totalOrders = orderRepository.count();
-        metrics.put("TOTAL", totalOrders);
+    @Override
+    public Map<String, Object> getOrderMetrics () {
+        logger.debug("Calculating order metrics");
 
-        return metrics;
+        // Served from incrementally maintained counts; no per-status COUNT queries
+        return orderStatistics.snapshot();
     }
 }
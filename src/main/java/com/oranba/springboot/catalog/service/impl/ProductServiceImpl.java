@@ -1,24 +1,40 @@
 package com.oranba.springboot.catalog.service.impl;
 
-import java.math.BigDecimal;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.oranba.springboot.catalog.cache.ProductCacheInvalidator;
+import com.oranba.springboot.catalog.cache.ProductExistenceFilter;
 import com.oranba.springboot.catalog.config.CacheConfig;
 import com.oranba.springboot.catalog.domain.model.Product;
+import com.oranba.springboot.catalog.dto.CursorPage;
+import com.oranba.springboot.catalog.event.InventoryChangedEvent;
+import com.oranba.springboot.catalog.event.InventoryEventProducer;
+import com.oranba.springboot.catalog.exception.InsufficientInventoryException;
+import com.oranba.springboot.catalog.repository.ProductFilter;
+import com.oranba.springboot.catalog.repository.ProductFilterRepository;
+import com.oranba.springboot.catalog.repository.ProductInventoryRepository;
 import com.oranba.springboot.catalog.repository.ProductRepository;
+import com.oranba.springboot.catalog.repository.ProductSearchRepository;
+import com.oranba.springboot.catalog.service.CategoryTreeIndex;
 import com.oranba.springboot.catalog.service.ProductService;
 
 import io.micrometer.core.instrument.MeterRegistry;
@@ -30,6 +46,14 @@ public class ProductServiceImpl implements ProductService {
     private static final Logger logger = LoggerFactory.getLogger(ProductServiceImpl.class);
 
     private final ProductRepository productRepository;
+    private final ProductFilterRepository productFilterRepository;
+    private final ProductInventoryRepository productInventoryRepository;
+    private final ProductSearchRepository productSearchRepository;
+    private final CacheManager cacheManager;
+    private final ProductCacheInvalidator productCacheInvalidator;
+    private final ProductExistenceFilter productExistenceFilter;
+    private final CategoryTreeIndex categoryTreeIndex;
+    private final InventoryEventProducer inventoryEventProducer;
     private final MeterRegistry meterRegistry;
 
     // Timer metrics for performance monitoring
@@ -37,8 +61,25 @@ public class ProductServiceImpl implements ProductService {
     private final Timer updateInventoryTimer;
 
     @Autowired
-    public ProductServiceImpl (ProductRepository productRepository, MeterRegistry meterRegistry) {
+    public ProductServiceImpl (ProductRepository productRepository,
+                               ProductFilterRepository productFilterRepository,
+                               ProductInventoryRepository productInventoryRepository,
+                               ProductSearchRepository productSearchRepository,
+                               CacheManager cacheManager,
+                               ProductCacheInvalidator productCacheInvalidator,
+                               ProductExistenceFilter productExistenceFilter,
+                               CategoryTreeIndex categoryTreeIndex,
+                               InventoryEventProducer inventoryEventProducer,
+                               MeterRegistry meterRegistry) {
         this.productRepository = productRepository;
+        this.productFilterRepository = productFilterRepository;
+        this.productInventoryRepository = productInventoryRepository;
+        this.productSearchRepository = productSearchRepository;
+        this.cacheManager = cacheManager;
+        this.productCacheInvalidator = productCacheInvalidator;
+        this.productExistenceFilter = productExistenceFilter;
+        this.categoryTreeIndex = categoryTreeIndex;
+        this.inventoryEventProducer = inventoryEventProducer;
         this.meterRegistry = meterRegistry;
 
         // Initialize performance metrics
@@ -49,36 +90,36 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    @Cacheable(value = CacheConfig.PRODUCTS_CACHE, key = "'all:' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #filters")
+    @Cacheable(value = CacheConfig.PRODUCTS_CACHE, key = "@queryFingerprint.listing(#filters, #pageable)", sync = true)
     public Page<Product> findAllProducts (Pageable pageable, Map<String, String> filters) {
         Timer.Sample sample = Timer.start(meterRegistry);
         try {
-            if (filters == null) {
-                filters = new HashMap<>();
-            }
+            // All criteria combine into one query; see ProductFilterRepository for predicate order
+            return productFilterRepository.findAll(ProductFilter.from(filters), pageable);
+        }
+        finally {
+            sample.stop(findProductTimer);
+        }
+    }
 
-            // Extract filter parameters
-            String name = filters.getOrDefault("name", null);
-            String categoryId = filters.getOrDefault("category", null);
-            String minPrice = filters.getOrDefault("minPrice", null);
-            String maxPrice = filters.getOrDefault("maxPrice", null);
+    // Keyset pages are not cached: each cursor is a distinct key, and every page is an index seek of size + 1 rows anyway
+    @Override
+    public CursorPage<Product> scrollAllProducts (Map<String, String> filters, Sort sort, String cursor, int size) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return productFilterRepository.findAll(ProductFilter.from(filters), sort, cursor, size);
+        }
+        finally {
+            sample.stop(findProductTimer);
+        }
+    }
 
-            // Apply filters based on provided parameters
-            if (categoryId != null && name != null) {
-                return productRepository.findByNameContainingIgnoreCaseAndCategoryId(name, Long.valueOf(categoryId), pageable);
-            }
-            else if (categoryId != null) {
-                return productRepository.findByCategoryId(Long.valueOf(categoryId), pageable);
-            }
-            else if (name != null) {
-                return productRepository.findByNameContainingIgnoreCase(name, pageable);
-            }
-            else if (minPrice != null && maxPrice != null) {
-                return productRepository.findByPriceBetween(new BigDecimal(minPrice), new BigDecimal(maxPrice), pageable);
-            }
-            else {
-                return productRepository.findAll(pageable);
-            }
+    @Override
+    @Cacheable(value = CacheConfig.PRODUCTS_CACHE, key = "@queryFingerprint.slice(@queryFingerprint.listing(#filters, #pageable))", sync = true)
+    public Slice<Product> sliceAllProducts (Pageable pageable, Map<String, String> filters) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return productFilterRepository.findSlice(ProductFilter.from(filters), pageable);
         }
         finally {
             sample.stop(findProductTimer);
@@ -86,12 +127,48 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    @Cacheable(value = CacheConfig.PRODUCT_DETAILS_CACHE, key = "#id")
+    public long approximateProductCount (Map<String, String> filters) {
+        return productFilterRepository.approximateCount(ProductFilter.from(filters));
+    }
+
+    @Override
+    @Cacheable(value = CacheConfig.PRODUCT_DETAILS_CACHE, key = "#id", sync = true)
     public Optional<Product> findProductById (Long id) {
         Timer.Sample sample = Timer.start(meterRegistry);
         try {
             logger.debug("Finding product with ID: {}", id);
-            return productRepository.findById(id);
+
+            // Definitely absent: no query, and the cached miss expires quickly
+            if (!productExistenceFilter.mightContainId(id)) {
+                return Optional.empty();
+            }
+
+            Optional<Product> product = productRepository.findById(id);
+            if (product.isEmpty()) {
+                productExistenceFilter.recordMissingId(id);
+            }
+            return product;
+        }
+        finally {
+            sample.stop(findProductTimer);
+        }
+    }
+
+    @Override
+    public Optional<Product> findProductBySku (String sku) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            logger.debug("Finding product with SKU: {}", sku);
+
+            if (!productExistenceFilter.mightContainSku(sku)) {
+                return Optional.empty();
+            }
+
+            Optional<Product> product = Optional.ofNullable(productRepository.findBySku(sku));
+            if (product.isEmpty()) {
+                productExistenceFilter.recordMissingSku(sku);
+            }
+            return product;
         }
         finally {
             sample.stop(findProductTimer);
@@ -100,15 +177,19 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     @Transactional
+    @CacheEvict(value = CacheConfig.PRODUCT_DETAILS_CACHE, key = "#result.id")
     public Product createProduct (Product product) {
         logger.info("Creating new product: {}", product.getName());
-        return productRepository.save(product);
+
+        Product savedProduct = productRepository.save(product);
+        productCacheInvalidator.productCreated(savedProduct);
+        productExistenceFilter.recordCreated(savedProduct);
+        return savedProduct;
     }
 
     @Override
     @Transactional
     @CachePut(value = CacheConfig.PRODUCT_DETAILS_CACHE, key = "#id")
-    @CacheEvict(value = CacheConfig.PRODUCTS_CACHE, allEntries = true)
     public Product updateProduct (Long id, Product product) {
         logger.info("Updating product with ID: {}", id);
 
@@ -116,6 +197,7 @@ public class ProductServiceImpl implements ProductService {
 
         if (existingProduct.isPresent()) {
             Product productToUpdate = existingProduct.get();
+            Long previousCategoryId = productToUpdate.getCategoryId();
 
             // Update fields
             productToUpdate.setName(product.getName());
@@ -127,7 +209,9 @@ public class ProductServiceImpl implements ProductService {
 
             // Don't update inventory through this method
 
-            return productRepository.save(productToUpdate);
+            Product savedProduct = productRepository.save(productToUpdate);
+            productCacheInvalidator.productChanged(savedProduct, previousCategoryId);
+            return savedProduct;
         }
         else {
             throw new RuntimeException("Product not found with ID: " + id);
@@ -136,7 +220,7 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     @Transactional
-    @CacheEvict(value = { CacheConfig.PRODUCTS_CACHE, CacheConfig.PRODUCT_DETAILS_CACHE }, key = "#id")
+    @CacheEvict(value = CacheConfig.PRODUCT_DETAILS_CACHE, key = "#id")
     public void deleteProduct (Long id) {
         logger.info("Deleting product with ID: {}", id);
 
@@ -146,6 +230,7 @@ public class ProductServiceImpl implements ProductService {
             Product productToDelete = product.get();
             productToDelete.setIsActive(false);
             productRepository.save(productToDelete);
+            productCacheInvalidator.productChanged(productToDelete, null);
         }
         else {
             throw new RuntimeException("Product not found with ID: " + id);
@@ -153,7 +238,7 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    @Cacheable(value = CacheConfig.PRODUCTS_CACHE, key = "'category:' + #categoryId + ':' + #pageable.pageNumber + ':' + #pageable.pageSize")
+    @Cacheable(value = CacheConfig.PRODUCTS_CACHE, key = "@queryFingerprint.category(#categoryId, #pageable)", sync = true)
     public Page<Product> findProductsByCategory (Long categoryId, Pageable pageable) {
         Timer.Sample sample = Timer.start(meterRegistry);
         try {
@@ -165,31 +250,150 @@ public class ProductServiceImpl implements ProductService {
         }
     }
 
+    @Override
+    public CursorPage<Product> scrollProductsByCategory (Long categoryId, Sort sort, String cursor, int size) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            logger.debug("Scrolling products by category ID: {}", categoryId);
+            return productFilterRepository.findAll(ProductFilter.category(categoryId), sort, cursor, size);
+        }
+        finally {
+            sample.stop(findProductTimer);
+        }
+    }
+
+    @Override
+    @Cacheable(value = CacheConfig.PRODUCTS_CACHE, key = "@queryFingerprint.slice(@queryFingerprint.category(#categoryId, #pageable))", sync = true)
+    public Slice<Product> sliceProductsByCategory (Long categoryId, Pageable pageable) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            logger.debug("Slicing products by category ID: {}", categoryId);
+            return productFilterRepository.findSlice(ProductFilter.category(categoryId), pageable);
+        }
+        finally {
+            sample.stop(findProductTimer);
+        }
+    }
+
+    @Override
+    @Cacheable(value = CacheConfig.PRODUCTS_CACHE, key = "@queryFingerprint.subtree(#categoryId, #pageable)", sync = true)
+    public Page<Product> findProductsInCategoryTree (Long categoryId, Pageable pageable) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Set<Long> categoryIds = categoryTreeIndex.descendants(categoryId);
+            logger.debug("Finding products in the {} categories under category ID: {}", categoryIds.size(), categoryId);
+            return categoryIds.size() == 1
+                    ? productRepository.findByCategoryId(categoryId, pageable)
+                    : productRepository.findByCategoryIdIn(categoryIds, pageable);
+        }
+        finally {
+            sample.stop(findProductTimer);
+        }
+    }
+
+    @Override
+    public CursorPage<Product> scrollProductsInCategoryTree (Long categoryId, Sort sort, String cursor, int size) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            logger.debug("Scrolling products in the category tree under category ID: {}", categoryId);
+            return productFilterRepository.findAll(categoryFilter(categoryId, true), sort, cursor, size);
+        }
+        finally {
+            sample.stop(findProductTimer);
+        }
+    }
+
+    @Override
+    @Cacheable(value = CacheConfig.PRODUCTS_CACHE, key = "@queryFingerprint.slice(@queryFingerprint.subtree(#categoryId, #pageable))", sync = true)
+    public Slice<Product> sliceProductsInCategoryTree (Long categoryId, Pageable pageable) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            logger.debug("Slicing products in the category tree under category ID: {}", categoryId);
+            return productFilterRepository.findSlice(categoryFilter(categoryId, true), pageable);
+        }
+        finally {
+            sample.stop(findProductTimer);
+        }
+    }
+
+    @Override
+    public long approximateProductCountInCategory (Long categoryId, boolean includeDescendants) {
+        return productFilterRepository.approximateCount(categoryFilter(categoryId, includeDescendants));
+    }
+
+    private ProductFilter categoryFilter (Long categoryId, boolean includeDescendants) {
+        Set<Long> categoryIds = includeDescendants ? categoryTreeIndex.descendants(categoryId) : Set.of(categoryId);
+        return categoryIds.size() == 1 ? ProductFilter.category(categoryId) : ProductFilter.inCategories(categoryIds);
+    }
+
+    @Override
+    @Cacheable(value = CacheConfig.PRODUCTS_CACHE, key = "@queryFingerprint.search(#query, #pageable)", sync = true)
+    public Slice<Product> searchProducts (String query, Pageable pageable) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            logger.debug("Searching products for: {}", query);
+            return productSearchRepository.search(query, pageable);
+        }
+        finally {
+            sample.stop(findProductTimer);
+        }
+    }
+
+    @Override
+    public long approximateSearchCount (String query) {
+        return productSearchRepository.approximateCount(query);
+    }
+
     @Override
     @Transactional
-    @CachePut(value = CacheConfig.PRODUCT_DETAILS_CACHE, key = "#productId")
-    @CacheEvict(value = CacheConfig.PRODUCTS_CACHE, allEntries = true)
+    @CacheEvict(value = CacheConfig.PRODUCT_DETAILS_CACHE, key = "#productId")
     public Product updateInventory (Long productId, int quantityChange) {
         Timer.Sample sample = Timer.start(meterRegistry);
         try {
             logger.info("Updating inventory for product ID: {} by {}", productId, quantityChange);
 
-            Optional<Product> product = productRepository.findById(productId);
+            // Guarded UPDATE ... RETURNING: no lost updates under concurrency and no second SELECT for the new stock
+            Optional<Product> updated = productInventoryRepository.adjustInventory(productId, quantityChange);
 
-            if (product.isPresent()) {
-                Product productToUpdate = product.get();
-                int newInventory = productToUpdate.getInventory() + quantityChange;
+            if (updated.isPresent()) {
+                // Listings keep their entries; only the stock of this product is rewritten in them
+                productCacheInvalidator.inventoryAdjusted(updated.get(), quantityChange);
+                inventoryEventProducer.publishInventoryChangedEvent(productId, quantityChange, InventoryChangedEvent.REASON_ADJUSTMENT, null);
+                return updated.get();
+            }
+            else if (!productRepository.existsById(productId)) {
+                throw new RuntimeException("Product not found with ID: " + productId);
+            }
+            else {
+                throw new InsufficientInventoryException(List.of(productId));
+            }
+        }
+        finally {
+            sample.stop(updateInventoryTimer);
+        }
+    }
 
-                if (newInventory < 0) {
-                    throw new RuntimeException("Insufficient inventory for product: " + productId);
-                }
+    @Override
+    @Transactional
+    public void decrementInventory (Map<Long, Integer> quantities) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            logger.info("Decrementing inventory for {} products", quantities.size());
+
+            List<Product> decremented = productInventoryRepository.decrementInventory(quantities);
+            Set<Long> updated = decremented.stream().map(Product::getId).collect(Collectors.toSet());
 
-                productToUpdate.setInventory(newInventory);
-                return productRepository.save(productToUpdate);
+            if (updated.size() < quantities.size()) {
+                List<Long> failed = quantities.keySet().stream().filter(id -> !updated.contains(id)).toList();
+                throw new InsufficientInventoryException(failed);
             }
-            else {
-                throw new RuntimeException("Product not found with ID: " + productId);
+
+            // Cached details still carry the old stock level
+            Cache productDetails = cacheManager.getCache(CacheConfig.PRODUCT_DETAILS_CACHE);
+            if (productDetails != null) {
+                updated.forEach(productDetails::evict);
             }
+            productCacheInvalidator.inventoryChanged(decremented);
         }
         finally {
             sample.stop(updateInventoryTimer);
@@ -0,0 +1,279 @@
+package com.oranba.springboot.catalog.service.inventory;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oranba.springboot.catalog.cache.ProductCacheInvalidator;
+import com.oranba.springboot.catalog.config.CacheConfig;
+import com.oranba.springboot.catalog.config.HotInventoryProperties;
+import com.oranba.springboot.catalog.domain.model.Product;
+import com.oranba.springboot.catalog.repository.ProductInventoryRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Reservation ledger for designated hot products. Stock is borrowed from the products row in chunks into node-local
+ * striped buckets, and orders reserve from those buckets without touching the row.
+ * <p>
+ * Borrowing decrements the row in the transaction of the order that triggered it, so the row always holds exactly the
+ * stock that no node has claimed: nothing can be oversold across nodes. The rest of a borrowed chunk only becomes
+ * available locally once that transaction commits. Unused stock goes back to the row when a product goes idle, when its
+ * row runs dry and at shutdown. Nothing stays stranded on a node, and listings do not show a product as sold out while a
+ * node still holds its stock.
+ */
+@Component
+public class HotInventoryLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotInventoryLedger.class);
+
+    private final HotInventoryProperties properties;
+    private final ProductInventoryRepository productInventoryRepository;
+    private final CacheManager cacheManager;
+    private final ProductCacheInvalidator productCacheInvalidator;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, StripedStock> stocks = new ConcurrentHashMap<>();
+
+    private final Counter borrowedCounter;
+    private final Counter returnedCounter;
+
+    @Autowired
+    public HotInventoryLedger (HotInventoryProperties properties,
+                               ProductInventoryRepository productInventoryRepository,
+                               CacheManager cacheManager,
+                               ProductCacheInvalidator productCacheInvalidator,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.productInventoryRepository = productInventoryRepository;
+        this.cacheManager = cacheManager;
+        this.productCacheInvalidator = productCacheInvalidator;
+
+        // Borrows join the order's transaction, so an order never waits for a second pooled connection
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.borrowedCounter = Counter.builder("inventory.hot.borrowed")
+                                      .description("Units borrowed from product rows into local buckets")
+                                      .register(meterRegistry);
+        this.returnedCounter = Counter.builder("inventory.hot.returned")
+                                      .description("Units returned from local buckets to product rows")
+                                      .register(meterRegistry);
+
+        for (Long productId : properties.getProductIds()) {
+            StripedStock stock = new StripedStock(properties.getStripes());
+            stocks.put(productId, stock);
+            Gauge.builder("inventory.hot.local.stock", stock, StripedStock::available)
+                 .description("Units held in local buckets for a hot product")
+                 .tag("productId", String.valueOf(productId))
+                 .register(meterRegistry);
+        }
+    }
+
+    public boolean isHot (Long productId) {
+        return stocks.containsKey(productId);
+    }
+
+    /**
+     * Reserve stock for a hot product from the local buckets, refilling from the products row when they run dry. If a
+     * transaction is active the reservation is handed back to the buckets when it does not commit.
+     *
+     * @param productId
+     *        Hot product ID
+     * @param quantity
+     *        Quantity to reserve
+     * @return true when the full quantity was reserved
+     */
+    public boolean reserve (Long productId, int quantity) {
+        StripedStock stock = stocks.get(productId);
+        if (stock == null) {
+            throw new IllegalArgumentException("Product is not managed by the hot inventory ledger: " + productId);
+        }
+
+        int home = stock.homeStripe();
+        if (stock.tryTake(home, quantity)) {
+            settle(stock, home, quantity, quantity, 0);
+            return true;
+        }
+        return refillAndTake(productId, stock, home, quantity);
+    }
+
+    /**
+     * Return the stock of products that saw no reservations since the last flush, and of products whose row ran dry.
+     * A dry row shows the product as sold out in listings, and other nodes cannot borrow what this node holds.
+     */
+    @Scheduled(fixedDelayString = "${catalog.inventory.hot.flush-interval:5s}")
+    public void flushIdle () {
+        Set<Long> soldOut = findSoldOutHeldLocally();
+        stocks.forEach((productId, stock) -> {
+            if (stock.takeRecentlyReserved() == 0 || soldOut.contains(productId)) {
+                stock.refillLock.lock();
+                try {
+                    giveBack(productId, stock, stock.drain());
+                }
+                finally {
+                    stock.refillLock.unlock();
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void returnAll () {
+        logger.info("Returning hot inventory buckets for {} products", stocks.size());
+        stocks.forEach((productId, stock) -> {
+            stock.refillLock.lock();
+            try {
+                giveBack(productId, stock, stock.drain());
+            }
+            finally {
+                stock.refillLock.unlock();
+            }
+        });
+    }
+
+    private boolean refillAndTake (Long productId, StripedStock stock, int home, int quantity) {
+        // Only the refill path serializes, and only per product
+        stock.refillLock.lock();
+        try {
+            if (stock.tryTake(home, quantity)) {
+                settle(stock, home, quantity, quantity, 0);
+                return true;
+            }
+
+            int chunk = Math.max(properties.getChunkSize(), quantity);
+            if (borrow(productId, chunk)) {
+                // A rollback undoes the borrow itself, so there is nothing to hand back then
+                settle(stock, home, quantity, 0, chunk - quantity);
+                return true;
+            }
+
+            // The row cannot cover a full chunk: pool what this node still holds and borrow only the shortfall
+            long held = stock.drain();
+            if (held >= quantity) {
+                stock.add(home, held - quantity);
+                settle(stock, home, quantity, quantity, 0);
+                return true;
+            }
+            if (borrow(productId, (int) (quantity - held))) {
+                settle(stock, home, quantity, held, 0);
+                return true;
+            }
+            stock.add(home, held);
+            return false;
+        }
+        finally {
+            stock.refillLock.unlock();
+        }
+    }
+
+    private boolean borrow (Long productId, int quantity) {
+        if (!transfer(productId, -quantity)) {
+            return false;
+        }
+        borrowedCounter.increment(quantity);
+        return true;
+    }
+
+    private void giveBack (Long productId, StripedStock stock, long quantity) {
+        if (quantity <= 0) {
+            return;
+        }
+        try {
+            if (!transfer(productId, (int) quantity)) {
+                throw new IllegalStateException("Product no longer exists: " + productId);
+            }
+            returnedCounter.increment(quantity);
+            logger.debug("Returned {} units of hot product {}", quantity, productId);
+        }
+        catch (RuntimeException e) {
+            // Keep the stock locally rather than losing it; the next flush retries
+            logger.error("Failed to return {} units of hot product {}", quantity, productId, e);
+            stock.add(0, quantity);
+        }
+    }
+
+    private Set<Long> findSoldOutHeldLocally () {
+        List<Long> held = stocks.entrySet()
+                                .stream()
+                                .filter(entry -> entry.getValue().available() > 0)
+                                .map(Map.Entry::getKey)
+                                .toList();
+        if (held.isEmpty()) {
+            return Set.of();
+        }
+        try {
+            return new HashSet<>(productInventoryRepository.findSoldOut(held));
+        }
+        catch (DataAccessException e) {
+            logger.warn("Could not check hot products for dry rows: {}", e.getMessage());
+            return Set.of();
+        }
+    }
+
+    /**
+     * Move stock between the products row and this node, joining the caller's transaction if there is one. Deliberately
+     * bypasses ProductService so these internal transfers are not published as inventory changes; the orders
+     * themselves are.
+     */
+    private boolean transfer (Long productId, int delta) {
+        Boolean applied = transactionTemplate.execute(status -> {
+            Optional<Product> updated = productInventoryRepository.adjustInventory(productId, delta);
+            if (updated.isEmpty()) {
+                return false;
+            }
+            evictCachedStock(updated.get(), delta);
+            return true;
+        });
+        return Boolean.TRUE.equals(applied);
+    }
+
+    private void evictCachedStock (Product product, int delta) {
+        Cache productDetails = cacheManager.getCache(CacheConfig.PRODUCT_DETAILS_CACHE);
+        if (productDetails != null) {
+            productDetails.evict(product.getId());
+        }
+        productCacheInvalidator.inventoryAdjusted(product, delta);
+    }
+
+    /**
+     * Record a reservation and settle the buckets once the caller's transaction completes.
+     *
+     * @param restock
+     *        Units that came out of the buckets and go back to them when the transaction does not commit
+     * @param onCommit
+     *        Units of a borrowed chunk that become available locally once the borrow has committed
+     */
+    private void settle (StripedStock stock, int home, int quantity, long restock, long onCommit) {
+        stock.recordReserved(quantity);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Any borrow already committed on its own
+            stock.add(home, onCommit);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion (int status) {
+                stock.add(home, status == STATUS_COMMITTED ? onCommit : restock);
+            }
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package com.oranba.springboot.catalog.service.inventory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Node-local stock for one hot product, split into independent lock-free buckets. Each bucket sits on its own cache
+ * line so concurrent reservations on different stripes do not contend.
+ */
+class StripedStock {
+
+    // 8 longs = 64 bytes between buckets to avoid false sharing
+    private static final int PADDING = 8;
+
+    private final int stripes;
+    private final AtomicLongArray buckets;
+
+    // Quantity reserved since the last flush, used to detect idle products
+    private final LongAdder recentlyReserved = new LongAdder();
+
+    // Serializes refills and returns, which do database I/O; a j.u.c. lock does not pin virtual threads
+    final ReentrantLock refillLock = new ReentrantLock();
+
+    StripedStock (int stripes) {
+        this.stripes = stripes;
+        this.buckets = new AtomicLongArray(stripes * PADDING);
+    }
+
+    int homeStripe () {
+        return ThreadLocalRandom.current().nextInt(stripes);
+    }
+
+    /**
+     * Take {@code quantity} from the home stripe, falling back to the other stripes. Never blocks.
+     */
+    boolean tryTake (int home, int quantity) {
+        for (int i = 0; i < stripes; i++) {
+            if (tryTakeFrom((home + i) % stripes, quantity)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void add (int stripe, long quantity) {
+        if (quantity > 0) {
+            buckets.addAndGet(stripe * PADDING, quantity);
+        }
+    }
+
+    /**
+     * Empty every bucket and return the total that was held.
+     */
+    long drain () {
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += buckets.getAndSet(i * PADDING, 0);
+        }
+        return total;
+    }
+
+    long available () {
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += buckets.get(i * PADDING);
+        }
+        return total;
+    }
+
+    void recordReserved (int quantity) {
+        recentlyReserved.add(quantity);
+    }
+
+    long takeRecentlyReserved () {
+        return recentlyReserved.sumThenReset();
+    }
+
+    private boolean tryTakeFrom (int stripe, int quantity) {
+        int index = stripe * PADDING;
+        while (true) {
+            long current = buckets.get(index);
+            if (current < quantity) {
+                return false;
+            }
+            if (buckets.compareAndSet(index, current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+}
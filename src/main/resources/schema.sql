@@ -0,0 +1,43 @@
+-- Product search: trigram matching for substring and fuzzy name matches, and a weighted full-text vector over name,
+-- SKU and description. The 'simple' configuration keeps words unstemmed so prefix queries match what was typed.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE products
+    ADD COLUMN IF NOT EXISTS search_vector tsvector
+        GENERATED ALWAYS AS (setweight(to_tsvector('simple', coalesce(name, '')), 'A')
+                             || setweight(to_tsvector('simple', coalesce(sku, '')), 'A')
+                             || setweight(to_tsvector('simple', coalesce(description, '')), 'C')) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_products_search_vector ON products USING gin (search_vector);
+
+-- Also serves the lower(name) LIKE '%term%' filters generated for findByNameContainingIgnoreCase
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING gin (lower(name) gin_trgm_ops);
+
+-- Search falls back to the names nearest a misspelled query; only GiST returns those in distance order, so the scan
+-- stops at the page instead of rechecking every name that shares a few trigrams with it
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm_gist ON products USING gist (lower(name) gist_trgm_ops);
+
+-- Category listings, including whole-subtree listings (category_id IN the descendant set). The trailing id lets
+-- keyset pages of a category seek straight to their first row.
+CREATE INDEX IF NOT EXISTS idx_products_category_id_id ON products (category_id, id);
+
+-- Price range filters of product listings, and keyset pages sorted by price
+CREATE INDEX IF NOT EXISTS idx_products_price_id ON products (price, id);
+
+-- The existence filter's minutely read of recently created products
+CREATE INDEX IF NOT EXISTS idx_products_created_at ON products (created_at);
+
+-- Keyset pages of order listings, newest or oldest first, unfiltered and per customer or status; also serve the
+-- created_at range filters
+CREATE INDEX IF NOT EXISTS idx_orders_created_at_id ON orders (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_orders_customer_created_at_id ON orders (customer_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_orders_status_created_at_id ON orders (order_status, created_at, id);
+
+-- Idempotency keys are claimed before their order exists (created by Hibernate as NOT NULL in earlier versions)
+ALTER TABLE idempotency_keys ALTER COLUMN order_id DROP NOT NULL;
+
+-- order_items ids come from a pooled sequence (allocation size 50); keep it ahead of ids that were
+-- assigned by the former IDENTITY column. Never moves the sequence backwards.
+SELECT setval('order_items_seq',
+              GREATEST((SELECT last_value FROM order_items_seq),
+                       (SELECT COALESCE(MAX(id), 0) FROM order_items) + 50));
@@ -0,0 +1,226 @@
+package com.oranba.springboot.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.oranba.springboot.catalog.domain.model.Order;
+import com.oranba.springboot.catalog.service.OrderService;
+import com.oranba.springboot.catalog.service.ProductService;
+import com.oranba.springboot.catalog.support.IntegrationTest;
+import com.oranba.springboot.catalog.support.TestData;
+
+/**
+ * Throughput and latency at 2,000 concurrent HTTP clients during a slow-database incident, with Tomcat on platform
+ * threads and on virtual threads. Every connection checkout is held for an extra 50 ms, so order reads queue on the
+ * Hikari pool in both modes; product reads are served from the cache. On platform threads the queued order reads
+ * occupy Tomcat's 200 workers and the cached reads wait behind them, which virtual threads should avoid.
+ * <p>
+ * Each mode runs in its own server on the test database. Clients share the JVM and CPU with the server, so compare
+ * the modes rather than the absolute numbers. Run with {@code mvn test -Pbenchmark -Dtest=ThreadModeLoadBenchmark}.
+ */
+@Tag("benchmark")
+class ThreadModeLoadBenchmark extends IntegrationTest {
+
+    private static final int CLIENTS = 2_000;
+    private static final int PRODUCTS = 100;
+    private static final int ORDERS = 100;
+    // Share of requests that need a database connection
+    private static final double ORDER_READ_SHARE = 0.2;
+    private static final Duration DB_LATENCY = Duration.ofMillis(50);
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(15);
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${spring.datasource.url}")
+    private String datasourceUrl;
+
+    @Test
+    void platformVersusVirtualThreads () throws Exception {
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            productIds.add(productService.createProduct(TestData.product("Load " + i, new BigDecimal("9.99"), 100)).getId());
+        }
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order();
+            order.setCustomerId(ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE));
+            order.setTotalAmount(BigDecimal.TEN);
+            orderIds.add(orderService.createOrder(order).getId());
+        }
+
+        System.out.printf("%n%8s %10s %8s %14s %14s %12s %12s%n",
+                          "threads", "req/s", "errors", "product p50", "product p99", "order p50", "order p99");
+        Result platform = run(false, productIds, orderIds);
+        Result virtual = run(true, productIds, orderIds);
+
+        assertThat(virtual.productP99()).isLessThan(platform.productP99());
+    }
+
+    private Result run (boolean virtualThreads, List<Long> productIds, List<Long> orderIds) throws Exception {
+        try (ConfigurableApplicationContext server = server(virtualThreads);
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                                         .version(HttpClient.Version.HTTP_1_1)
+                                         .executor(Executors.newVirtualThreadPerTaskExecutor())
+                                         .build()) {
+            String base = "http://localhost:" + ((WebServerApplicationContext) server).getWebServer().getPort();
+            // Fill the product cache so that only order reads reach the database
+            for (Long id : productIds) {
+                send(http, base + "/api/products/" + id);
+            }
+
+            long warmupEnd = System.nanoTime() + WARMUP.toNanos();
+            long end = warmupEnd + MEASUREMENT.toNanos();
+            List<Future<Client>> futures = new ArrayList<>(CLIENTS);
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(clients.submit(() -> {
+                    Client client = new Client();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < end) {
+                        boolean orderRead = random.nextDouble() < ORDER_READ_SHARE;
+                        String uri = orderRead ? base + "/api/orders/" + orderIds.get(random.nextInt(orderIds.size()))
+                                               : base + "/api/products/" + productIds.get(random.nextInt(productIds.size()));
+                        long start = System.nanoTime();
+                        boolean ok = send(http, uri);
+                        if (start >= warmupEnd) {
+                            client.record(orderRead, ok, System.nanoTime() - start);
+                        }
+                    }
+                    return client;
+                }));
+            }
+
+            Client total = new Client();
+            for (Future<Client> future : futures) {
+                total.add(future.get());
+            }
+            long[] product = total.products.stream().mapToLong(Long::longValue).sorted().toArray();
+            long[] order = total.orders.stream().mapToLong(Long::longValue).sorted().toArray();
+            Result result = new Result((product.length + order.length) / (double) MEASUREMENT.toSeconds(), total.errors,
+                                       millis(product, 0.50), millis(product, 0.99), millis(order, 0.50), millis(order, 0.99));
+            System.out.printf("%8s %10.0f %8d %14.1f %14.1f %12.1f %12.1f%n", virtualThreads ? "virtual" : "platform",
+                              result.throughput(), result.errors(), result.productP50(), result.productP99(), result.orderP50(),
+                              result.orderP99());
+            return result;
+        }
+    }
+
+    private ConfigurableApplicationContext server (boolean virtualThreads) {
+        ApplicationContextInitializer<ConfigurableApplicationContext> slowDatabase = context -> context.getBeanFactory()
+                                                                                                        .addBeanPostProcessor(new SlowDatabase());
+        // Arguments, unlike builder properties, take precedence over application.yml
+        return new SpringApplicationBuilder(ProductCatalogApplication.class)
+                .initializers(slowDatabase)
+                .run("--server.port=0",
+                     "--spring.threads.virtual.enabled=" + virtualThreads,
+                     "--spring.datasource.url=" + datasourceUrl,
+                     "--spring.datasource.username=postgres",
+                     "--spring.datasource.password=",
+                     "--spring.kafka.bootstrap-servers=" + bootstrapServers,
+                     "--catalog.cache.snapshot.enabled=false",
+                     "--spring.jpa.properties.hibernate.show_sql=false",
+                     "--logging.level.root=warn");
+    }
+
+    private static boolean send (HttpClient http, String uri) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(uri)).timeout(Duration.ofSeconds(60)).build();
+            return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        }
+        catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static double millis (long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private record Result(double throughput, long errors, double productP50, double productP99, double orderP50, double orderP99) {
+    }
+
+    // Latencies of one client, merged after the run
+    private static final class Client {
+
+        private final List<Long> products = new ArrayList<>();
+        private final List<Long> orders = new ArrayList<>();
+        private long errors;
+
+        void record (boolean orderRead, boolean ok, long nanos) {
+            if (!ok) {
+                errors++;
+            }
+            (orderRead ? orders : products).add(nanos);
+        }
+
+        void add (Client other) {
+            products.addAll(other.products);
+            orders.addAll(other.orders);
+            errors += other.errors;
+        }
+    }
+
+    // Holds every connection checkout for DB_LATENCY, like a database that answers slowly
+    private static final class SlowDatabase implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization (Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)) {
+                return new DelegatingDataSource(dataSource) {
+
+                    @Override
+                    public Connection getConnection () throws SQLException {
+                        Connection connection = super.getConnection();
+                        try {
+                            Thread.sleep(DB_LATENCY);
+                        }
+                        catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return connection;
+                    }
+                };
+            }
+            return bean;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.oranba.springboot.catalog.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oranba.springboot.catalog.config.CacheConfig;
+import com.oranba.springboot.catalog.config.CacheInvalidationProperties;
+import com.oranba.springboot.catalog.support.IntegrationTest;
+import com.oranba.springboot.catalog.support.TestData;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CacheInvalidationListenerTests extends IntegrationTest {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheInvalidationProperties properties;
+
+    @Test
+    void evictionOnAnotherNodeDropsTheLocalEntry () {
+        // This context is node B; node A is a second bus with its own node id on the same topic
+        Cache nodeB = LocalCaches.get(cacheManager, CacheConfig.PRODUCT_DETAILS_CACHE);
+        CacheInvalidationBus busA = new CacheInvalidationBus(kafkaTemplate, objectMapper, properties, new SimpleMeterRegistry());
+        Cache nodeA = new BroadcastingCache(new ConcurrentMapCache(CacheConfig.PRODUCT_DETAILS_CACHE), busA);
+        busA.start();
+        try {
+            // Node B seeks to the end of the topic when its listener starts; keep evicting until it is reading
+            Long probe = key();
+            nodeB.put(probe, TestData.product("Probe", BigDecimal.ONE, 1));
+            await().atMost(Duration.ofSeconds(30)).pollInterval(Duration.ofMillis(200)).until(() -> {
+                nodeA.evict(probe);
+                return nodeB.get(probe) == null;
+            });
+
+            Long id = key();
+            nodeB.put(id, TestData.product("Cached", BigDecimal.ONE, 1));
+            nodeA.evict(id);
+
+            await().atMost(Duration.ofSeconds(10)).until(() -> nodeB.get(id) == null);
+        }
+        finally {
+            busA.stop();
+        }
+    }
+
+    @Test
+    void ownInvalidationsAreIgnored () throws Exception {
+        CacheInvalidationBus bus = new CacheInvalidationBus(kafkaTemplate, objectMapper, properties, new SimpleMeterRegistry());
+        Cache nodeB = LocalCaches.get(cacheManager, CacheConfig.PRODUCT_DETAILS_CACHE);
+        Long id = key();
+        nodeB.put(id, TestData.product("Cached", BigDecimal.ONE, 1));
+
+        CacheInvalidationListener listener = new CacheInvalidationListener(cacheManager, bus, null, null, null, objectMapper,
+                                                                           new SimpleMeterRegistry());
+        listener.onInvalidation(message(CacheInvalidation.key(bus.getNodeId(), CacheConfig.PRODUCT_DETAILS_CACHE, id)));
+        assertThat(nodeB.get(id)).isNotNull();
+
+        listener.onInvalidation(message(CacheInvalidation.key("other", CacheConfig.PRODUCT_DETAILS_CACHE, id)));
+        assertThat(nodeB.get(id)).isNull();
+    }
+
+    // Never a real product id, so no other test reads or writes these entries
+    private static Long key () {
+        return -ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+    }
+
+    private String message (CacheInvalidation invalidation) throws Exception {
+        return objectMapper.writeValueAsString(invalidation);
+    }
+}
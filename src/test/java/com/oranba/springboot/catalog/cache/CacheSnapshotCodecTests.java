@@ -0,0 +1,118 @@
+package com.oranba.springboot.catalog.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.oranba.springboot.catalog.cache.CacheSnapshotCodec.CategoryRef;
+import com.oranba.springboot.catalog.cache.CacheSnapshotCodec.Entry;
+import com.oranba.springboot.catalog.cache.CacheSnapshotCodec.ProductRef;
+import com.oranba.springboot.catalog.cache.CacheSnapshotCodec.Snapshot;
+import com.oranba.springboot.catalog.domain.model.Category;
+import com.oranba.springboot.catalog.domain.model.Product;
+import com.oranba.springboot.catalog.support.TestData;
+
+class CacheSnapshotCodecTests {
+
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2026, 10, 1, 12, 30, 15, 123_456_789);
+
+    @Test
+    void roundTripKeepsEveryField () throws IOException {
+        Product product = product(7);
+        product.setDescription("é".repeat(40_000));
+        Product sparse = new Product();
+        sparse.setId(8L);
+        Category category = new Category();
+        category.setId(3L);
+        category.setName("Books");
+        category.setParentCategoryId(1L);
+        category.setUpdatedAt(UPDATED);
+
+        Map<String, List<Entry>> regions = new LinkedHashMap<>();
+        regions.put("productDetails", List.of(new Entry(7L, new ProductRef(7)), new Entry(8L, new ProductRef(8))));
+        regions.put("categories", List.of(new Entry("3", new CategoryRef(3))));
+        Snapshot snapshot = new Snapshot(42, Map.of(7L, product, 8L, sparse), Map.of(3L, category), regions);
+
+        Snapshot read = roundTrip(snapshot);
+
+        assertThat(read.writtenAt()).isEqualTo(42);
+        assertThat(read.products().get(7L)).usingRecursiveComparison().isEqualTo(product);
+        assertThat(read.products().get(8L)).usingRecursiveComparison().isEqualTo(sparse);
+        assertThat(read.categories().get(3L)).usingRecursiveComparison().isEqualTo(category);
+        assertThat(read.regions()).isEqualTo(regions);
+    }
+
+    @Test
+    void earlierFormatIsRejected () throws IOException {
+        ByteBuffer version1 = ByteBuffer.allocate(Integer.BYTES).putInt(0, 0x43435331);
+
+        assertThatIOException().isThrownBy(() -> CacheSnapshotCodec.read(version1));
+    }
+
+    @Test
+    void hundredsOfThousandsOfEntriesLoadWellUnderASecond () throws IOException {
+        int count = 200_000;
+        byte[] file = write(productDetails(count));
+
+        // One warm-up read, as the restore runs in a JVM that has loaded the classes but not compiled them; the
+        // collection afterwards keeps the garbage of the warm-up and of building the file out of the measurement
+        read(file);
+        System.gc();
+        long start = System.nanoTime();
+        Snapshot read = read(file);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(read.regions().get("productDetails")).hasSize(count);
+        assertThat(elapsed).isLessThan(Duration.ofMillis(500));
+    }
+
+    private static Snapshot productDetails (int count) {
+        Map<Long, Product> products = new HashMap<>(count * 2);
+        List<Entry> entries = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            products.put(id, product(id));
+            entries.add(new Entry(id, new ProductRef(id)));
+        }
+        return new Snapshot(1, products, Map.of(), Map.of("productDetails", entries));
+    }
+
+    private static Product product (long id) {
+        Product product = TestData.product("Product " + id, new BigDecimal("19.99"), 100);
+        product.setId(id);
+        product.setCategoryId(id % 50);
+        product.setImageUrl("https://img.example/" + id + ".png");
+        product.setCreatedAt(UPDATED.minusDays(1));
+        product.setUpdatedAt(UPDATED);
+        return product;
+    }
+
+    private static Snapshot roundTrip (Snapshot snapshot) throws IOException {
+        return read(write(snapshot));
+    }
+
+    private static byte[] write (Snapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            CacheSnapshotCodec.write(snapshot, out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Snapshot read (byte[] file) throws IOException {
+        return CacheSnapshotCodec.read(ByteBuffer.wrap(file));
+    }
+}
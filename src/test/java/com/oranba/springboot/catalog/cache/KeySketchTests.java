@@ -0,0 +1,68 @@
+package com.oranba.springboot.catalog.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class KeySketchTests {
+
+    @Test
+    void countsNeverFallBelowTheTrueCountAndFrequentKeysAreKept () {
+        int capacity = 20;
+        int length = 20_000;
+        KeySketch sketch = new KeySketch(capacity);
+        Map<String, Long> trueCounts = new HashMap<>();
+
+        // Skewed like cache traffic: a few popular keys among many rare ones
+        Random random = new Random(42);
+        for (int i = 0; i < length; i++) {
+            String key = String.valueOf((int) Math.floor(Math.pow(random.nextDouble(), 3) * 1_000));
+            sketch.add(key);
+            trueCounts.merge(key, 1L, Long::sum);
+        }
+
+        List<KeySketch.Estimate> estimates = sketch.top(capacity, 1);
+        assertThat(estimates).hasSize(capacity);
+        for (KeySketch.Estimate estimate : estimates) {
+            long trueCount = trueCounts.get(estimate.key());
+            assertThat(estimate.count()).isGreaterThanOrEqualTo(trueCount);
+            assertThat(estimate.count() - estimate.error()).isLessThanOrEqualTo(trueCount);
+        }
+        List<String> tracked = estimates.stream().map(KeySketch.Estimate::key).toList();
+        trueCounts.forEach((key, count) -> {
+            if (count > length / capacity) {
+                assertThat(tracked).contains(key);
+            }
+        });
+    }
+
+    @Test
+    void replacementInheritsTheEvictedCountAsItsError () {
+        KeySketch sketch = new KeySketch(2);
+        sketch.add("a");
+        sketch.add("a");
+        sketch.add("a");
+        sketch.add("b");
+        sketch.add("b");
+
+        sketch.add("c");
+
+        assertThat(sketch.top(2, 1)).containsExactly(new KeySketch.Estimate("a", 3, 0), new KeySketch.Estimate("c", 3, 2));
+    }
+
+    @Test
+    void countsAreScaledToUndoSampling () {
+        KeySketch sketch = new KeySketch(2);
+        sketch.add(1L);
+        sketch.add(1L);
+        sketch.add(2L);
+        sketch.add(3L);
+
+        assertThat(sketch.top(1, 10)).containsExactly(new KeySketch.Estimate("1", 20, 0));
+    }
+}
@@ -0,0 +1,92 @@
+package com.oranba.springboot.catalog.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oranba.springboot.catalog.config.CacheConfig;
+import com.oranba.springboot.catalog.domain.model.Product;
+import com.oranba.springboot.catalog.service.CategoryService;
+import com.oranba.springboot.catalog.service.ProductService;
+import com.oranba.springboot.catalog.support.IntegrationTest;
+import com.oranba.springboot.catalog.support.TestData;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProductCacheInvalidatorTests extends IntegrationTest {
+
+    private static final Pageable BY_STOCK = PageRequest.of(0, 3, Sort.by("inventory"));
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductCacheInvalidator productCacheInvalidator;
+
+    @Autowired
+    private CacheInvalidationBus bus;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void listingSortedByStockIsReorderedAfterADecrement () {
+        Long categoryId = categoryService.createCategory(TestData.category("Stock order", null)).getId();
+        List<Long> ids = products(categoryId, 10, 20, 30);
+        assertThat(listing(categoryId)).containsExactly(ids.get(0), ids.get(1), ids.get(2));
+
+        productService.updateInventory(ids.get(2), -25);
+
+        assertThat(listing(categoryId)).containsExactly(ids.get(2), ids.get(0), ids.get(1));
+    }
+
+    @Test
+    void stockChangeFromAnotherNodeEvictsListingsSortedByStock () throws Exception {
+        Long categoryId = categoryService.createCategory(TestData.category("Stock order", null)).getId();
+        List<Long> ids = products(categoryId, 10, 20, 30);
+        assertThat(listing(categoryId)).containsExactly(ids.get(0), ids.get(1), ids.get(2));
+
+        // Stands in for another replica's decrement and the stock invalidation it broadcasts
+        jdbcTemplate.update("UPDATE products SET inventory = 5 WHERE id = ?", ids.get(2));
+        Product changed = TestData.product("Stock 30", BigDecimal.ONE, 5);
+        changed.setId(ids.get(2));
+        changed.setCategoryId(categoryId);
+        CacheInvalidationListener listener = new CacheInvalidationListener(cacheManager, bus, productCacheInvalidator, null, null,
+                                                                           objectMapper, new SimpleMeterRegistry());
+        listener.onInvalidation(objectMapper.writeValueAsString(CacheInvalidation.stock("other", CacheConfig.PRODUCTS_CACHE, changed)));
+
+        assertThat(listing(categoryId)).containsExactly(ids.get(2), ids.get(0), ids.get(1));
+    }
+
+    private List<Long> products (Long categoryId, int... inventories) {
+        return Arrays.stream(inventories).mapToObj(inventory -> {
+            Product product = TestData.product("Stock " + inventory, BigDecimal.ONE, inventory);
+            product.setCategoryId(categoryId);
+            return productService.createProduct(product).getId();
+        }).toList();
+    }
+
+    private List<Long> listing (Long categoryId) {
+        return productService.findProductsByCategory(categoryId, BY_STOCK).map(Product::getId).getContent();
+    }
+}
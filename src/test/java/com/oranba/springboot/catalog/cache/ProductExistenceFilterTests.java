@@ -0,0 +1,105 @@
+package com.oranba.springboot.catalog.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oranba.springboot.catalog.config.CacheConfig;
+import com.oranba.springboot.catalog.domain.model.Product;
+import com.oranba.springboot.catalog.repository.ProductRepository;
+import com.oranba.springboot.catalog.service.ProductService;
+import com.oranba.springboot.catalog.support.IntegrationTest;
+import com.oranba.springboot.catalog.support.TestData;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProductExistenceFilterTests extends IntegrationTest {
+
+    @Autowired
+    private ProductExistenceFilter productExistenceFilter;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheInvalidationBus bus;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void createdProductIsAddedWhenItsTransactionCommits () {
+        productExistenceFilter.rebuild();
+
+        Product product = new TransactionTemplate(transactionManager).execute(status -> {
+            Product created = productService.createProduct(TestData.product("Filtered", new BigDecimal("2.00"), 1));
+            // A rebuild scanning now could not see the row, so neither does the filter
+            assertThat(productExistenceFilter.mightContainId(created.getId())).isFalse();
+            assertThat(productExistenceFilter.mightContainSku(created.getSku())).isFalse();
+            return created;
+        });
+
+        assertThat(productExistenceFilter.mightContainId(product.getId())).isTrue();
+        assertThat(productExistenceFilter.mightContainSku(product.getSku())).isTrue();
+    }
+
+    @Test
+    void rolledBackProductIsNotAdded () {
+        productExistenceFilter.rebuild();
+
+        Product product = new TransactionTemplate(transactionManager).execute(status -> {
+            status.setRollbackOnly();
+            return productService.createProduct(TestData.product("Filtered", new BigDecimal("2.00"), 1));
+        });
+
+        assertThat(productExistenceFilter.mightContainId(product.getId())).isFalse();
+    }
+
+    @Test
+    void productCreatedOnAnotherNodeReplacesTheCachedMiss () throws Exception {
+        productExistenceFilter.rebuild();
+        Product product = createdElsewhere();
+        assertThat(productService.findProductById(product.getId())).isEmpty();
+
+        CacheInvalidationListener listener = new CacheInvalidationListener(cacheManager, bus, null, productExistenceFilter, null,
+                                                                           objectMapper, new SimpleMeterRegistry());
+        listener.onInvalidation(objectMapper.writeValueAsString(
+                CacheInvalidation.created("other", CacheConfig.PRODUCT_DETAILS_CACHE, product)));
+
+        assertThat(productService.findProductById(product.getId())).isPresent();
+    }
+
+    @Test
+    void catchUpAddsProductsWhoseBroadcastWasLost () {
+        productExistenceFilter.rebuild();
+        Product product = createdElsewhere();
+        assertThat(productService.findProductById(product.getId())).isEmpty();
+        assertThat(productService.findProductBySku(product.getSku())).isEmpty();
+
+        productExistenceFilter.catchUp();
+
+        assertThat(productService.findProductById(product.getId())).isPresent();
+        assertThat(productService.findProductBySku(product.getSku())).isPresent();
+    }
+
+    // Stands in for another replica, whose creation this node never hears about by itself
+    private Product createdElsewhere () {
+        return productRepository.save(TestData.product("Created elsewhere", new BigDecimal("2.00"), 1));
+    }
+}
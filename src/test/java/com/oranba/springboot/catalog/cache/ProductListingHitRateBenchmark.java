@@ -0,0 +1,116 @@
+package com.oranba.springboot.catalog.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.oranba.springboot.catalog.config.CacheConfig;
+import com.oranba.springboot.catalog.domain.model.Product;
+import com.oranba.springboot.catalog.service.CategoryService;
+import com.oranba.springboot.catalog.service.OrderService;
+import com.oranba.springboot.catalog.service.ProductService;
+import com.oranba.springboot.catalog.support.IntegrationTest;
+import com.oranba.springboot.catalog.support.TestData;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Hit rate of the products listing region under a mixed browse/order workload, with every order clearing the region
+ * (the former {@code @CacheEvict(allEntries = true)}) and with tag-based invalidation, where orders only rewrite the
+ * stock of the listings containing the ordered products. Both runs replay the same seeded operation sequence.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dtest=ProductListingHitRateBenchmark}.
+ */
+@Tag("benchmark")
+class ProductListingHitRateBenchmark extends IntegrationTest {
+
+    private static final int CATEGORIES = 20;
+    private static final int PRODUCTS_PER_CATEGORY = 50;
+    private static final int OPERATIONS = 5_000;
+    // Share of operations that place an order; the rest browse listings
+    private static final double ORDER_SHARE = 0.1;
+    private static final int PAGES = 3;
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void clearOnEveryOrderVersusTaggedInvalidation () {
+        List<Long> categoryIds = new ArrayList<>();
+        List<Product> products = new ArrayList<>();
+        for (int c = 0; c < CATEGORIES; c++) {
+            Long categoryId = categoryService.createCategory(TestData.category("Hit rate " + c, null)).getId();
+            categoryIds.add(categoryId);
+            for (int p = 0; p < PRODUCTS_PER_CATEGORY; p++) {
+                Product product = TestData.product("Hit rate " + c + "/" + p, new BigDecimal("9.99"), 1_000_000);
+                product.setCategoryId(categoryId);
+                products.add(productService.createProduct(product));
+            }
+        }
+
+        System.out.printf("%n%12s %10s %10s %10s%n", "invalidation", "hits", "misses", "hit rate");
+        double cleared = run("clear all", true, categoryIds, products);
+        double tagged = run("tagged", false, categoryIds, products);
+
+        assertThat(tagged).isGreaterThan(cleared);
+    }
+
+    private double run (String label, boolean clearOnOrder, List<Long> categoryIds, List<Product> products) {
+        LocalCaches.get(cacheManager, CacheConfig.PRODUCTS_CACHE).clear();
+        double hitsBefore = gets("hit");
+        double missesBefore = gets("miss");
+
+        Random random = new Random(42);
+        for (int i = 0; i < OPERATIONS; i++) {
+            if (random.nextDouble() < ORDER_SHARE) {
+                Map<Product, Integer> lines = new LinkedHashMap<>();
+                for (int line = 1 + random.nextInt(3); line > 0; line--) {
+                    lines.put(products.get(random.nextInt(products.size())), 1);
+                }
+                orderService.createOrder(TestData.order(1L, lines));
+                if (clearOnOrder) {
+                    LocalCaches.get(cacheManager, CacheConfig.PRODUCTS_CACHE).clear();
+                }
+            }
+            else {
+                Long categoryId = categoryIds.get(random.nextInt(categoryIds.size()));
+                productService.findProductsByCategory(categoryId, PageRequest.of(random.nextInt(PAGES), PAGE_SIZE, Sort.by("name")));
+            }
+        }
+
+        double hits = gets("hit") - hitsBefore;
+        double misses = gets("miss") - missesBefore;
+        double hitRate = hits / (hits + misses);
+        System.out.printf("%12s %10.0f %10.0f %9.1f%%%n", label, hits, misses, hitRate * 100);
+        return hitRate;
+    }
+
+    private double gets (String result) {
+        return meterRegistry.get("cache.gets").tag("cache", CacheConfig.PRODUCTS_CACHE).tag("result", result).functionCounter().count();
+    }
+}
@@ -0,0 +1,149 @@
+package com.oranba.springboot.catalog.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Hit rate of the product listing cache keyed the former way ({@code 'all:' + page + ':' + size + ':' + #filters},
+ * the raw request parameters in arrival order) and by {@link QueryFingerprint}, replaying one request log through a
+ * bounded cache. A wrong hit is a hit on an entry cached for a query with a different result.
+ * <p>
+ * No production request logs are kept, so the log is generated: a few hundred distinct listing queries requested
+ * with Zipf-like popularity, each rendered the way clients send them, with parameters in varying order, differently
+ * cased names, {@code 10} and {@code 10.00} for the same price, optional sort directions and tracking parameters.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dtest=QueryFingerprintReplayBenchmark}.
+ */
+@Tag("benchmark")
+class QueryFingerprintReplayBenchmark {
+
+    private static final int QUERIES = 500;
+    private static final int REQUESTS = 200_000;
+    private static final int CACHE_SIZE = 200;
+
+    private static final String[] NAMES = { "phone", "laptop", "cable", "charger", "case" };
+    private static final String[] SORTS = { "name", "price", "createdAt" };
+
+    private final QueryFingerprint fingerprint = new QueryFingerprint();
+
+    @Test
+    void rawParametersVersusFingerprint () {
+        Random random = new Random(42);
+        List<Query> queries = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            queries.add(Query.random(random));
+        }
+        double[] popularity = new double[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            popularity[i] = (i == 0 ? 0 : popularity[i - 1]) + 1.0 / (i + 1);
+        }
+
+        List<Query> log = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            double pick = random.nextDouble() * popularity[QUERIES - 1];
+            int index = 0;
+            while (popularity[index] < pick) {
+                index++;
+            }
+            log.add(queries.get(index));
+        }
+
+        System.out.printf("%n%12s %10s %12s %10s%n", "key", "hit rate", "wrong hits", "entries");
+        double raw = replay("raw params", log, new Random(7),
+                            (request, pageable) -> "all:" + pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + request);
+        double fingerprinted = replay("fingerprint", log, new Random(7), fingerprint::listing);
+
+        assertThat(fingerprinted).isGreaterThan(raw);
+    }
+
+    private static double replay (String label, List<Query> log, Random random,
+                                  BiFunction<Map<String, String>, Pageable, String> key) {
+        Cache<String, Query> cache = Caffeine.newBuilder().maximumSize(CACHE_SIZE).executor(Runnable::run).build();
+        Map<String, Boolean> distinct = new LinkedHashMap<>();
+        long hits = 0;
+        long wrongHits = 0;
+        for (Query query : log) {
+            String cacheKey = key.apply(query.render(random), query.pageable());
+            distinct.put(cacheKey, Boolean.TRUE);
+            Query cached = cache.getIfPresent(cacheKey);
+            if (cached == null) {
+                cache.put(cacheKey, query);
+            }
+            else {
+                hits++;
+                if (!cached.equals(query)) {
+                    wrongHits++;
+                }
+            }
+        }
+
+        double hitRate = (double) hits / log.size();
+        System.out.printf("%12s %9.1f%% %12d %10d%n", label, hitRate * 100, wrongHits, distinct.size());
+        return hitRate;
+    }
+
+    /**
+     * One logical listing query; equal queries return equal results.
+     */
+    private record Query(String name, Long category, Integer minPrice, String sort, Sort.Direction direction, int page) {
+
+        static Query random (Random random) {
+            return new Query(random.nextBoolean() ? NAMES[random.nextInt(NAMES.length)] : null,
+                             random.nextBoolean() ? 1L + random.nextInt(10) : null,
+                             random.nextInt(3) == 0 ? 10 * (1 + random.nextInt(5)) : null,
+                             SORTS[random.nextInt(SORTS.length)],
+                             random.nextInt(4) == 0 ? Sort.Direction.DESC : Sort.Direction.ASC,
+                             random.nextInt(10) < 7 ? 0 : 1 + random.nextInt(4));
+        }
+
+        Pageable pageable () {
+            return PageRequest.of(page, 20, Sort.by(direction, sort));
+        }
+
+        // The request parameters as one client would send them; Spring binds all of them into the filters map
+        Map<String, String> render (Random random) {
+            List<Map.Entry<String, String>> parameters = new ArrayList<>();
+            if (name != null) {
+                parameters.add(Map.entry("name", random.nextBoolean() ? name : Character.toUpperCase(name.charAt(0)) + name.substring(1)));
+            }
+            if (category != null) {
+                parameters.add(Map.entry("category", String.valueOf(category)));
+            }
+            if (minPrice != null) {
+                parameters.add(Map.entry("minPrice", random.nextBoolean() ? minPrice + "" : minPrice + ".00"));
+            }
+            if (page > 0 || random.nextBoolean()) {
+                parameters.add(Map.entry("page", String.valueOf(page)));
+            }
+            if (random.nextBoolean()) {
+                parameters.add(Map.entry("size", "20"));
+            }
+            boolean explicitDirection = direction == Sort.Direction.DESC || random.nextBoolean();
+            parameters.add(Map.entry("sort", explicitDirection ? sort + "," + direction.name().toLowerCase() : sort));
+            if (random.nextInt(5) == 0) {
+                parameters.add(Map.entry("utm_source", "newsletter"));
+            }
+            Collections.shuffle(parameters, random);
+
+            Map<String, String> request = new LinkedHashMap<>();
+            parameters.forEach(parameter -> request.put(parameter.getKey(), parameter.getValue()));
+            return request;
+        }
+    }
+}
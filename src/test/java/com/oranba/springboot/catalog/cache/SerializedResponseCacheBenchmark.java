@@ -0,0 +1,97 @@
+package com.oranba.springboot.catalog.cache;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oranba.springboot.catalog.config.SerializedResponseProperties;
+import com.oranba.springboot.catalog.domain.model.Product;
+import com.oranba.springboot.catalog.support.TestData;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Requests per second one core can answer for a cached 20-product listing: written by Jackson on every request, as
+ * without the serialized response cache, and copied from the cached JSON. Each benchmark runs on a single thread, so
+ * its score is the per-core rate.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dtest=SerializedResponseCacheBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SerializedResponseCacheBenchmark {
+
+    private static final String REGION = "products";
+    private static final String KEY = "category:1:page:0";
+
+    private List<Product> listing;
+    private MappingJackson2HttpMessageConverter jackson;
+    private SerializedJsonHttpMessageConverter serialized;
+    private SerializedResponseCache responses;
+
+    @Setup
+    public void setUp () {
+        listing = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            Product product = TestData.product("Product " + id, new BigDecimal("19.99"), 100);
+            product.setId(id);
+            product.setCategoryId(1L);
+            product.setDescription("A product description of typical length, shown on listing pages under the name.");
+            product.setCreatedAt(LocalDateTime.now());
+            listing.add(product);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        jackson = new MappingJackson2HttpMessageConverter(objectMapper);
+        serialized = new SerializedJsonHttpMessageConverter();
+        responses = new SerializedResponseCache(new SerializedResponseProperties(), objectMapper, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage jacksonPerRequest () throws IOException {
+        MockHttpOutputMessage response = new MockHttpOutputMessage();
+        jackson.write(listing, MediaType.APPLICATION_JSON, response);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage serializedResponse () throws IOException {
+        MockHttpOutputMessage response = new MockHttpOutputMessage();
+        serialized.write(responses.of(REGION, KEY, listing), MediaType.APPLICATION_JSON, response);
+        return response;
+    }
+
+    @Test
+    @Tag("benchmark")
+    void run () throws RunnerException {
+        new Runner(new OptionsBuilder().include(getClass().getName())
+                                       .forks(1)
+                                       .warmupIterations(3)
+                                       .warmupTime(TimeValue.seconds(1))
+                                       .measurementIterations(5)
+                                       .measurementTime(TimeValue.seconds(1))
+                                       .build()).run();
+    }
+}
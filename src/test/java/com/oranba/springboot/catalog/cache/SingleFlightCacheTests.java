@@ -0,0 +1,81 @@
+package com.oranba.springboot.catalog.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import com.oranba.springboot.catalog.config.CacheMonitoringProperties;
+import com.oranba.springboot.catalog.config.SingleFlightProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightCacheTests {
+
+    @Test
+    void evictionDuringLoadKeepsTheLoadedValueOutOfTheCache () throws Exception {
+        assertLoadIsNotCachedAfter(cache -> cache.evict(1L));
+    }
+
+    @Test
+    void clearDuringLoadKeepsTheLoadedValueOutOfTheCache () throws Exception {
+        assertLoadIsNotCachedAfter(Cache::clear);
+    }
+
+    @Test
+    void putDuringLoadIsNotOverwritten () throws Exception {
+        SingleFlightCache cache = cache();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<String> reader = executor.submit(() -> cache.get(1L, () -> {
+                loading.countDown();
+                release.await();
+                return "before";
+            }));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            cache.put(1L, "after");
+            release.countDown();
+
+            assertThat(reader.get(5, TimeUnit.SECONDS)).isEqualTo("before");
+        }
+        assertThat(cache.get(1L)).extracting(Cache.ValueWrapper::get).isEqualTo("after");
+    }
+
+    private static void assertLoadIsNotCachedAfter (Consumer<Cache> invalidation) throws Exception {
+        SingleFlightCache cache = cache();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<String> reader = executor.submit(() -> cache.get(1L, () -> {
+                loading.countDown();
+                release.await();
+                return "before";
+            }));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            invalidation.accept(cache);
+            release.countDown();
+
+            // The caller still gets what it read; the next miss loads again
+            assertThat(reader.get(5, TimeUnit.SECONDS)).isEqualTo("before");
+        }
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(1L, () -> "after")).isEqualTo("after");
+    }
+
+    private static SingleFlightCache cache () {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new SingleFlightCache(new ConcurrentMapCache("test"), new SingleFlightProperties(),
+                                     new CacheRegionMonitor("test", new CacheMonitoringProperties(), meterRegistry), meterRegistry);
+    }
+}
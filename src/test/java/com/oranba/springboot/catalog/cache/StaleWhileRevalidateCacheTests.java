@@ -0,0 +1,124 @@
+package com.oranba.springboot.catalog.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oranba.springboot.catalog.config.CacheMonitoringProperties;
+import com.oranba.springboot.catalog.config.SingleFlightProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class StaleWhileRevalidateCacheTests {
+
+    private static final Callable<String> NOT_CALLED = () -> {
+        throw new AssertionError("Refreshes must not replay the reader's loader");
+    };
+
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor();
+    private final AtomicInteger reloads = new AtomicInteger();
+    // Each permit lets one reload finish
+    private final Semaphore reloadPermits = new Semaphore(0);
+    private final CountDownLatch reloading = new CountDownLatch(1);
+
+    @AfterEach
+    void shutDown () {
+        refreshExecutor.shutdownNow();
+    }
+
+    @Test
+    void invalidationDuringRefreshIsNotLost () throws Exception {
+        StaleWhileRevalidateCache cache = cache();
+        cache.put("menu", "v0");
+        cache.evict("menu");
+
+        // Served stale; the refresh runs through the refresher and blocks
+        assertThat(cache.get("menu", NOT_CALLED)).isEqualTo("v0");
+        assertThat(reloading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // A second write lands while the refresh still holds what it read before it
+        cache.evict("menu");
+        reloadPermits.release();
+
+        // The first refresh's value was not cached as fresh, so the next reader triggers another
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            cache.get("menu", NOT_CALLED);
+            assertThat(reloads).hasValue(2);
+        });
+        reloadPermits.release();
+        await().atMost(Duration.ofSeconds(5)).until(() -> "v2".equals(cache.get("menu", NOT_CALLED)));
+    }
+
+    @Test
+    void keysTheRefresherCannotReloadAreEvicted () {
+        StaleWhileRevalidateCache cache = cache();
+        cache.put(1L, "by id");
+
+        cache.evict(1L);
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(1L, () -> "loaded")).isEqualTo("loaded");
+        assertThat(reloads).hasValue(0);
+    }
+
+    @Test
+    void clearMarksRefreshableKeysAndEvictsTheRest () {
+        StaleWhileRevalidateCache cache = cache();
+        cache.put("menu", "v0");
+        cache.put(1L, "by id");
+
+        cache.clear();
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get("menu", NOT_CALLED)).isEqualTo("v0");
+    }
+
+    private StaleWhileRevalidateCache cache () {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Cache local = new CaffeineCache("test", Caffeine.newBuilder().expireAfterWrite(Duration.ofHours(1)).build());
+        return new StaleWhileRevalidateCache(local, new SingleFlightProperties(),
+                                             new CacheRegionMonitor("test", new CacheMonitoringProperties(), meterRegistry), null, true,
+                                             () -> new MenuRefresher(), refreshExecutor, meterRegistry);
+    }
+
+    // String keys are menu entries, reloaded as "v" and the reload count
+    private class MenuRefresher implements CacheRefresher {
+
+        @Override
+        public String getCacheName () {
+            return "test";
+        }
+
+        @Override
+        public boolean isRefreshable (Object key) {
+            return key instanceof String;
+        }
+
+        @Override
+        public Object reload (Object key) {
+            int reload = reloads.incrementAndGet();
+            reloading.countDown();
+            try {
+                reloadPermits.acquire();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "v" + reload;
+        }
+    }
+}
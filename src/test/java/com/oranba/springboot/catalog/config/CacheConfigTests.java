@@ -0,0 +1,102 @@
+package com.oranba.springboot.catalog.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.oranba.springboot.catalog.cache.CacheRegionMonitor;
+import com.oranba.springboot.catalog.cache.SerializedResponseCache;
+import com.oranba.springboot.catalog.config.CacheRegionProperties.Region;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CacheConfigTests {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+
+    @Test
+    void refreshAfterNeedsAFixedExpireAfterWrite () {
+        Region withoutExpiry = new Region();
+        withoutExpiry.setRefreshAfter(Duration.ofMinutes(1));
+        assertThatIllegalStateException().isThrownBy(() -> build(withoutExpiry)).withMessageContaining("refresh-after");
+
+        // A negative TTL makes the write lifetime vary per entry
+        Region withNegativeTtl = new Region();
+        withNegativeTtl.setRefreshAfter(Duration.ofMinutes(1));
+        withNegativeTtl.setExpireAfterWrite(Duration.ofMinutes(10));
+        withNegativeTtl.setNegativeTtl(Duration.ofSeconds(30));
+        assertThatIllegalStateException().isThrownBy(() -> build(withNegativeTtl)).withMessageContaining("refresh-after");
+    }
+
+    @Test
+    void negativeTtlCannotBeCombinedWithExpireAfterAccess () {
+        Region region = new Region();
+        region.setNegativeTtl(Duration.ofSeconds(30));
+        region.setExpireAfterAccess(Duration.ofMinutes(10));
+
+        assertThatIllegalStateException().isThrownBy(() -> build(region)).withMessageContaining("expire-after-access");
+    }
+
+    @Test
+    void cachedNotFoundExpiresBeforeRealEntries () {
+        Region region = new Region();
+        region.setExpireAfterWrite(Duration.ofMinutes(10));
+        region.setNegativeTtl(Duration.ofSeconds(30));
+        Cache cache = build(region);
+
+        cache.put(1L, null);
+        cache.put(2L, "product");
+        assertThat(cache.get(1L)).isNotNull();
+
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(2L)).isNotNull();
+
+        nanos.addAndGet(Duration.ofMinutes(10).toNanos());
+        assertThat(cache.get(2L)).isNull();
+    }
+
+    @Test
+    void sizeIsBoundedAndFrequentEntriesSurviveAScan () {
+        Region region = new Region();
+        region.setMaximumSize(100);
+        CaffeineCache cache = (CaffeineCache) build(region);
+
+        // Frequencies are only sampled once the cache is half full
+        for (int i = 0; i < 100; i++) {
+            cache.put("warm-" + i, "listing");
+        }
+        cache.put("hot", "listing");
+        // One-off keys, like rarely repeated filter combinations, among reads of a popular listing spaced further apart
+        // than the cache is large, so that a recency-only policy would evict it between reads
+        for (int i = 0; i < 10_000; i++) {
+            cache.put("scan-" + i, "listing");
+            if (i % 200 == 0) {
+                cache.get("hot");
+            }
+        }
+        cache.getNativeCache().cleanUp();
+
+        assertThat(cache.getNativeCache().estimatedSize()).isLessThanOrEqualTo(100);
+        assertThat(cache.get("hot")).isNotNull();
+    }
+
+    private Cache build (Region region) {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SerializedResponseCache serializedResponses = new SerializedResponseCache(new SerializedResponseProperties(), new ObjectMapper(),
+                                                                                  meterRegistry);
+        CacheRegionMonitor monitor = new CacheRegionMonitor(CacheConfig.PRODUCT_DETAILS_CACHE, new CacheMonitoringProperties(),
+                                                            meterRegistry);
+        return CacheConfig.buildCache(CacheConfig.PRODUCT_DETAILS_CACHE, region, serializedResponses, monitor, meterRegistry, ticker);
+    }
+}
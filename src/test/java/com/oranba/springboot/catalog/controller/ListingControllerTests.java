@@ -0,0 +1,110 @@
+package com.oranba.springboot.catalog.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oranba.springboot.catalog.domain.model.Order;
+import com.oranba.springboot.catalog.service.OrderService;
+import com.oranba.springboot.catalog.support.IntegrationTest;
+
+class ListingControllerTests extends IntegrationTest {
+
+    @Autowired
+    private ProductController productController;
+
+    @Autowired
+    private OrderController orderController;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp () {
+        mvc = MockMvcBuilders.standaloneSetup(productController, orderController)
+                             .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                             .build();
+    }
+
+    @Test
+    void unknownSortIsABadRequestInEveryPagingMode () throws Exception {
+        for (String paging : new String[] { "offset", "slice", "keyset" }) {
+            mvc.perform(get("/api/products").param("paging", paging).param("sort", "bogus"))
+               .andExpect(status().isBadRequest())
+               .andExpect(header().string("error", containsString("products by bogus")));
+            mvc.perform(get("/api/products/category/1").param("paging", paging).param("sort", "bogus"))
+               .andExpect(status().isBadRequest());
+            mvc.perform(get("/api/orders/status/created").param("paging", paging).param("sort", "bogus"))
+               .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    void invalidPagingParametersAreBadRequests () throws Exception {
+        mvc.perform(get("/api/products").param("paging", "sideways"))
+           .andExpect(status().isBadRequest())
+           .andExpect(header().string("error", "Invalid paging: sideways"));
+        mvc.perform(get("/api/orders").param("cursor", "abc"))
+           .andExpect(status().isBadRequest())
+           .andExpect(header().string("error", "A cursor requires keyset paging"));
+        mvc.perform(get("/api/orders").param("paging", "slice").param("cursor", "abc"))
+           .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/orders").param("paging", "keyset").param("cursor", "not a cursor"))
+           .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/orders/status/lost"))
+           .andExpect(status().isBadRequest())
+           .andExpect(header().string("error", "Invalid status: lost"));
+        mvc.perform(get("/api/products").param("minPrice", "cheap"))
+           .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/orders").param("paging", "slice").param("startDate", "yesterday"))
+           .andExpect(status().isBadRequest())
+           .andExpect(header().string("error", "Invalid date: yesterday"));
+    }
+
+    @Test
+    void keysetPagesFollowTheCursor () throws Exception {
+        long customerId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+        for (int i = 0; i < 3; i++) {
+            Order order = new Order();
+            order.setCustomerId(customerId);
+            order.setTotalAmount(BigDecimal.TEN);
+            orderService.createOrder(order);
+        }
+
+        String body = mvc.perform(get("/api/orders/customer/" + customerId).param("paging", "keyset").param("size", "2"))
+                         .andExpect(status().isOk())
+                         .andExpect(jsonPath("$.content", hasSize(2)))
+                         .andExpect(jsonPath("$.hasNext").value(true))
+                         .andReturn().getResponse().getContentAsString();
+        JsonNode first = objectMapper.readTree(body);
+
+        mvc.perform(get("/api/orders/customer/" + customerId).param("paging", "keyset")
+                                                               .param("size", "2")
+                                                               .param("cursor", first.get("nextCursor").asText()))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.content", hasSize(1)))
+           .andExpect(jsonPath("$.hasNext").value(false))
+           .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+}
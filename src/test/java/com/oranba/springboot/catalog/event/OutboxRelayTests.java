@@ -0,0 +1,111 @@
+package com.oranba.springboot.catalog.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oranba.springboot.catalog.repository.OutboxEventRepository;
+import com.oranba.springboot.catalog.support.IntegrationTest;
+
+class OutboxRelayTests extends IntegrationTest {
+
+    private static final String TOPIC = "outbox-relay-test";
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void aggregateHeldByAnotherRelayIsLeftAlone () throws SQLException {
+        // Stands in for another replica that is draining aggregate "held"
+        try (Connection otherRelay = dataSource.getConnection()) {
+            lock(otherRelay, "pg_advisory_lock");
+
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                outboxWriter.append(TOPIC, "held", "TestEvent", "first");
+                outboxWriter.append(TOPIC, "free", "TestEvent", "second");
+                outboxWriter.append(TOPIC, "held", "TestEvent", "third");
+            });
+
+            await().atMost(Duration.ofSeconds(20)).until(() -> pendingKeys().equals(List.of("held", "held")));
+
+            lock(otherRelay, "pg_advisory_unlock");
+        }
+
+        await().atMost(Duration.ofSeconds(20)).until(() -> pendingKeys().isEmpty());
+    }
+
+    @Test
+    void claimLocksOnlyTheAggregatesItReturns () throws SQLException {
+        try (Connection otherRelay = dataSource.getConnection()) {
+            // Uncommitted, so the running relay cannot see these events; the claim may still return older ones
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                for (String key : List.of("a", "b", "c")) {
+                    outboxWriter.append(TOPIC, key, "TestEvent", key);
+                }
+                // A sorted scan filters every row before the limit applies, which is where stray locks were taken
+                jdbcTemplate.execute("SET LOCAL enable_indexscan = off");
+                jdbcTemplate.execute("SET LOCAL enable_bitmapscan = off");
+                assertThat(outboxEventRepository.claimBatch(1)).hasSize(1);
+
+                long held = List.of("a", "b", "c").stream().filter(key -> !tryLock(otherRelay, key)).count();
+                assertThat(held).isLessThanOrEqualTo(1);
+                status.setRollbackOnly();
+            });
+        }
+    }
+
+    private static boolean tryLock (Connection connection, String key) {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT pg_try_advisory_lock(hashtext(?), hashtext(?)) AND pg_advisory_unlock(hashtext(?), hashtext(?))")) {
+            ps.setString(1, TOPIC);
+            ps.setString(2, key);
+            ps.setString(3, TOPIC);
+            ps.setString(4, key);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getBoolean(1);
+            }
+        }
+        catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<String> pendingKeys () {
+        return jdbcTemplate.queryForList("SELECT message_key FROM outbox_events WHERE topic = ? ORDER BY id", String.class, TOPIC);
+    }
+
+    private static void lock (Connection connection, String function) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT " + function + "(hashtext(?), hashtext(?))")) {
+            ps.setString(1, TOPIC);
+            ps.setString(2, "held");
+            ps.executeQuery();
+        }
+    }
+}
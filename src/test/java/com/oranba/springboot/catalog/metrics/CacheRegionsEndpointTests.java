@@ -0,0 +1,80 @@
+package com.oranba.springboot.catalog.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import com.github.benmanes.caffeine.cache.Policy;
+import com.oranba.springboot.catalog.cache.LocalCaches;
+import com.oranba.springboot.catalog.config.CacheConfig;
+import com.oranba.springboot.catalog.metrics.CacheRegionsEndpoint.RegionReport;
+import com.oranba.springboot.catalog.support.IntegrationTest;
+import com.oranba.springboot.catalog.support.TestData;
+
+class CacheRegionsEndpointTests extends IntegrationTest {
+
+    private static final String REGION = CacheConfig.PRODUCT_DETAILS_CACHE;
+
+    @Autowired
+    private CacheRegionsEndpoint endpoint;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void removalsAreSplitByCause () {
+        Cache cache = LocalCaches.get(cacheManager, REGION);
+        @SuppressWarnings("unchecked")
+        var nativeCache = (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache();
+        Policy.Eviction<Object, Object> eviction = nativeCache.policy().eviction().orElseThrow();
+        long maximum = eviction.getMaximum();
+        RegionReport before = endpoint.region(REGION);
+
+        // Counters are shared with the rest of the suite, so only their growth is compared
+        long key = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+        cache.put(key, TestData.product("Evicted", BigDecimal.ONE, 1));
+        cache.evict(key);
+
+        // Expired entries are removed as Caffeine's timer wheel passes them, in steps of about a second
+        Policy.VarExpiration<Object, Object> expiration = nativeCache.policy().expireVariably().orElseThrow();
+        expiration.put(key + 1, TestData.product("Expiring", BigDecimal.ONE, 1), Duration.ofNanos(1));
+        await().atMost(Duration.ofSeconds(10)).until(() -> {
+            nativeCache.cleanUp();
+            return growth(before.removals(), endpoint.region(REGION).removals()).get("expired") > 0;
+        });
+
+        cache.put(key + 2, TestData.product("Crowded out", BigDecimal.ONE, 1));
+        try {
+            eviction.setMaximum(0);
+            nativeCache.cleanUp();
+        }
+        finally {
+            eviction.setMaximum(maximum);
+        }
+
+        RegionReport after = endpoint.region(REGION);
+        Map<String, Long> removed = growth(before.removals(), after.removals());
+        assertThat(removed.get("explicit")).isEqualTo(1);
+        // Misses cached by earlier tests may expire alongside
+        assertThat(removed.get("expired")).isPositive();
+        assertThat(removed.get("size")).isPositive();
+        // Caffeine counts both kinds of eviction together; the explicit removal is in neither
+        assertThat(after.evictions() - before.evictions()).isEqualTo(removed.get("size") + removed.get("expired"));
+    }
+
+    private static Map<String, Long> growth (Map<String, Long> before, Map<String, Long> after) {
+        Map<String, Long> growth = new HashMap<>();
+        after.forEach((cause, count) -> growth.put(cause, count - before.getOrDefault(cause, 0L)));
+        return growth;
+    }
+}
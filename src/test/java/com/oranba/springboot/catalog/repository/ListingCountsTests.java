@@ -0,0 +1,79 @@
+package com.oranba.springboot.catalog.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oranba.springboot.catalog.config.ListingCountProperties;
+import com.oranba.springboot.catalog.domain.model.Order;
+import com.oranba.springboot.catalog.service.OrderService;
+import com.oranba.springboot.catalog.support.IntegrationTest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ListingCountsTests extends IntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Test
+    void estimateFollowsTheTableStatistics () {
+        ListingCounts counts = listingCounts(ListingCountProperties.Mode.ESTIMATE);
+        long customerId = createOrders(3);
+
+        jdbcTemplate.execute("ANALYZE orders");
+        Long total = jdbcTemplate.queryForObject("SELECT count(*) FROM orders", Long.class);
+
+        assertThat(counts.approximate("orders o", "", List.of())).isCloseTo(total, withinPercentage(10));
+        assertThat(counts.approximate("orders o", " WHERE o.customer_id = ?", List.of(customerId))).isPositive();
+    }
+
+    @Test
+    void cachedCountIsSharedByLaterRequests () {
+        ListingCounts counts = listingCounts(ListingCountProperties.Mode.CACHED);
+        long customerId = createOrders(3);
+        List<Object> args = List.of(customerId);
+
+        assertThat(counts.approximate("orders o", " WHERE o.customer_id = ?", args)).isEqualTo(3);
+
+        createOrders(customerId, 1);
+        assertThat(counts.approximate("orders o", " WHERE o.customer_id = ?", args)).isEqualTo(3);
+        assertThat(listingCounts(ListingCountProperties.Mode.CACHED).approximate("orders o", " WHERE o.customer_id = ?", args))
+                .isEqualTo(4);
+    }
+
+    private ListingCounts listingCounts (ListingCountProperties.Mode mode) {
+        ListingCountProperties properties = new ListingCountProperties();
+        properties.setMode(mode);
+        return new ListingCounts(jdbcTemplate, objectMapper, properties, new SimpleMeterRegistry());
+    }
+
+    private long createOrders (int count) {
+        long customerId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+        createOrders(customerId, count);
+        return customerId;
+    }
+
+    private void createOrders (long customerId, int count) {
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            order.setCustomerId(customerId);
+            order.setTotalAmount(BigDecimal.TEN);
+            orderService.createOrder(order);
+        }
+    }
+}
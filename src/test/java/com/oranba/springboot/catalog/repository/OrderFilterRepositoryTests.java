@@ -0,0 +1,83 @@
+package com.oranba.springboot.catalog.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import com.oranba.springboot.catalog.domain.model.Order;
+import com.oranba.springboot.catalog.dto.CursorPage;
+import com.oranba.springboot.catalog.service.OrderService;
+import com.oranba.springboot.catalog.support.IntegrationTest;
+
+class OrderFilterRepositoryTests extends IntegrationTest {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt");
+
+    @Autowired
+    private OrderFilterRepository orderFilterRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Test
+    void sliceHasNextOnlyWhenARowFollowsThePage () {
+        OrderFilter filter = customerWithOrders(3);
+
+        Slice<Order> exact = orderFilterRepository.findSlice(filter, PageRequest.of(0, 3, NEWEST_FIRST));
+        assertThat(exact.getContent()).hasSize(3);
+        assertThat(exact.hasNext()).isFalse();
+
+        Slice<Order> first = orderFilterRepository.findSlice(filter, PageRequest.of(0, 2, NEWEST_FIRST));
+        assertThat(first.getContent()).hasSize(2);
+        assertThat(first.hasNext()).isTrue();
+
+        Slice<Order> last = orderFilterRepository.findSlice(filter, PageRequest.of(1, 2, NEWEST_FIRST));
+        assertThat(last.getContent()).hasSize(1);
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    void keysetPageHasACursorOnlyWhenARowFollows () {
+        OrderFilter filter = customerWithOrders(3);
+
+        CursorPage<Order> exact = orderFilterRepository.findAll(filter, NEWEST_FIRST, null, 3);
+        assertThat(exact.content()).hasSize(3);
+        assertThat(exact.hasNext()).isFalse();
+        assertThat(exact.nextCursor()).isNull();
+
+        CursorPage<Order> first = orderFilterRepository.findAll(filter, NEWEST_FIRST, null, 2);
+        assertThat(first.content()).hasSize(2);
+        assertThat(first.hasNext()).isTrue();
+
+        CursorPage<Order> last = orderFilterRepository.findAll(filter, NEWEST_FIRST, first.nextCursor(), 2);
+        assertThat(last.content()).extracting(Order::getId).hasSize(1)
+                                  .doesNotContainAnyElementsOf(first.content().stream().map(Order::getId).toList());
+        assertThat(last.hasNext()).isFalse();
+        assertThat(last.nextCursor()).isNull();
+    }
+
+    @Test
+    void caseIsIgnoredOnTextColumnsOnly () {
+        assertThat(OrderFilterRepository.orderBy(Sort.by(Sort.Order.asc("orderNumber").ignoreCase(),
+                                                          Sort.Order.desc("totalAmount").ignoreCase())))
+                .isEqualTo(" ORDER BY lower(o.order_number) ASC, o.total_amount DESC, o.id ASC");
+    }
+
+    private OrderFilter customerWithOrders (int count) {
+        long customerId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            order.setCustomerId(customerId);
+            order.setTotalAmount(BigDecimal.TEN);
+            orderService.createOrder(order);
+        }
+        return new OrderFilter(customerId, null, null, null);
+    }
+}
@@ -0,0 +1,106 @@
+package com.oranba.springboot.catalog.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oranba.springboot.catalog.exception.InvalidListingRequestException;
+import com.oranba.springboot.catalog.repository.ProductFilterRepository.Query;
+import com.oranba.springboot.catalog.support.IntegrationTest;
+
+class ProductFilterRepositoryTests extends IntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void predicatesAreOrderedMostSelectiveFirst () {
+        ProductFilter filter = new ProductFilter("Mug", 7L, new BigDecimal("5"), new BigDecimal("10"), true, true, null);
+
+        Query where = ProductFilterRepository.where(filter);
+
+        assertThat(where.sql()).isEqualTo(" WHERE p.category_id = ? AND lower(p.name) LIKE ? ESCAPE '\\'"
+                                          + " AND p.price BETWEEN ? AND ? AND p.inventory > 0 AND p.is_active = ?");
+        assertThat(where.args()).containsExactly(7L, "%mug%", new BigDecimal("5"), new BigDecimal("10"), true);
+    }
+
+    @Test
+    void nameIsMatchedLiterally () {
+        Query where = ProductFilterRepository.where(new ProductFilter("50%_off\\", null, null, null, null, null, null));
+
+        assertThat(where.args()).containsExactly("%50\\%\\_off\\\\%");
+    }
+
+    @Test
+    void emptyFilterHasNoWhereClause () {
+        assertThat(ProductFilterRepository.where(ProductFilter.from(Map.of()))).isEqualTo(new Query("", List.of()));
+    }
+
+    @Test
+    void emptyCategoryListMatchesNothing () {
+        Query where = ProductFilterRepository.where(ProductFilter.inCategories(List.of()));
+
+        assertThat(where.sql()).isEqualTo(" WHERE FALSE");
+        assertThat(where.args()).isEmpty();
+    }
+
+    @Test
+    void orderIsCompletedByTheId () {
+        assertThat(ProductFilterRepository.orderBy(Sort.unsorted())).isEqualTo(" ORDER BY p.id ASC");
+        assertThat(ProductFilterRepository.orderBy(Sort.by(Sort.Order.desc("price").nullsLast())))
+                .isEqualTo(" ORDER BY p.price DESC NULLS LAST, p.id ASC");
+        assertThat(ProductFilterRepository.orderBy(Sort.by("name", "id"))).isEqualTo(" ORDER BY p.name ASC, p.id ASC");
+    }
+
+    @Test
+    void caseIsIgnoredOnTextColumnsOnly () {
+        assertThat(ProductFilterRepository.orderBy(Sort.by(Sort.Order.asc("name").ignoreCase(), Sort.Order.asc("price").ignoreCase())))
+                .isEqualTo(" ORDER BY lower(p.name) ASC, p.price ASC, p.id ASC");
+    }
+
+    @Test
+    void unknownSortPropertyIsRejected () {
+        assertThatExceptionOfType(InvalidListingRequestException.class)
+                .isThrownBy(() -> ProductFilterRepository.orderBy(Sort.by("description; DROP TABLE products")));
+    }
+
+    @Test
+    void categoryListingIsDrivenByTheCategoryIndex () {
+        assertThat(plan(ProductFilter.category(1L), Sort.unsorted())).contains("idx_products_category_id_id");
+    }
+
+    @Test
+    void nameFilterIsDrivenByTheTrigramIndex () {
+        assertThat(plan(ProductFilter.from(Map.of("name", "mug")), Sort.unsorted())).contains("idx_products_name_trgm");
+    }
+
+    @Test
+    void priceRangeSortedByPriceIsDrivenByThePriceIndex () {
+        ProductFilter filter = ProductFilter.from(Map.of("minPrice", "5", "maxPrice", "10"));
+
+        assertThat(plan(filter, Sort.by("price"))).contains("idx_products_price_id");
+    }
+
+    // Plan of the listing query with sequential scans discouraged, so a test table this small still shows the index
+    // each filter is meant to be driven by
+    private String plan (ProductFilter filter, Sort sort) {
+        Query where = ProductFilterRepository.where(filter);
+        String select = "SELECT p.* FROM products p" + where.sql() + ProductFilterRepository.orderBy(sort) + " LIMIT 20";
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + select, String.class, where.args().toArray()));
+        });
+    }
+}
@@ -0,0 +1,104 @@
+package com.oranba.springboot.catalog.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.oranba.springboot.catalog.support.IntegrationTest;
+
+/**
+ * Search latency over 1,000,000 products: the former {@code findByNameContainingIgnoreCase} name filter, whose
+ * {@code lower(name) LIKE '%term%'} plus count query scans the table, against the indexed relevance search, for short
+ * type-ahead prefixes, whole words and a misspelling.
+ * <p>
+ * Names are two words from a small vocabulary plus a number, so common words match many rows and rarer combinations
+ * few; the descriptions give the full-text vector some bulk. Loading and indexing the rows takes a few minutes.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dtest=ProductSearchBenchmark}.
+ */
+@Tag("benchmark")
+class ProductSearchBenchmark extends IntegrationTest {
+
+    private static final int PRODUCTS = 1_000_000;
+    private static final int WARMUP_REQUESTS = 5;
+    private static final int MEASURED_REQUESTS = 30;
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+
+    private static final List<String> WORDS = List.of("lantern", "kettle", "blanket", "charger", "speaker", "backpack", "candle",
+                                                      "notebook", "umbrella", "headphones", "thermos", "skillet", "pillow",
+                                                      "monitor", "keyboard", "bicycle", "helmet", "jacket", "sneaker", "wallet");
+    private static final List<String> COLOURS = List.of("red", "blue", "green", "black", "white", "silver", "amber", "olive",
+                                                        "navy", "coral");
+
+    @Autowired
+    private ProductSearchRepository productSearchRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void likeScanVersusIndexedSearch () {
+        String run = UUID.randomUUID().toString();
+        jdbcTemplate.update("""
+                INSERT INTO products (sku, name, description, price, inventory, is_active, created_at, updated_at)
+                SELECT 'SEARCH-' || ? || '-' || n,
+                       (?::text[])[1 + n % 10] || ' ' || (?::text[])[1 + (n / 10) % 20] || ' ' || n,
+                       'Benchmark product ' || md5(n::text) || ' for everyday use',
+                       9.99, 10, true, now(), now()
+                FROM generate_series(1, ?) AS n
+                """, run, COLOURS.toArray(new String[0]), WORDS.toArray(new String[0]), PRODUCTS);
+        jdbcTemplate.execute("ANALYZE products");
+
+        try {
+            System.out.printf("%n%24s %8s %10s %10s%n", "query", "method", "p50 ms", "p99 ms");
+            for (String query : List.of("lan", "kettle", "amber skil", "navy umbrela")) {
+                double like = measure(query, "like", text -> productRepository.findByNameContainingIgnoreCase(text, FIRST_PAGE));
+                double search = measure(query, "search", text -> productSearchRepository.search(text, FIRST_PAGE));
+                if (!query.equals("navy umbrela")) {
+                    // The LIKE filter finds nothing for the misspelling, so it is no baseline there
+                    assertThat(search).isLessThan(like);
+                }
+            }
+        }
+        finally {
+            jdbcTemplate.update("DELETE FROM products WHERE sku LIKE ?", "SEARCH-" + run + "-%");
+        }
+    }
+
+    // Median latency in milliseconds
+    private static double measure (String query, String method, Function<String, ?> request) {
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            request.apply(query);
+        }
+
+        long[] nanos = new long[MEASURED_REQUESTS];
+        for (int i = 0; i < MEASURED_REQUESTS; i++) {
+            long start = System.nanoTime();
+            request.apply(query);
+            nanos[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(nanos);
+        System.out.printf("%24s %8s %10.2f %10.2f%n", query, method, millis(nanos, 0.50), millis(nanos, 0.99));
+        return millis(nanos, 0.50);
+    }
+
+    private static double millis (long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
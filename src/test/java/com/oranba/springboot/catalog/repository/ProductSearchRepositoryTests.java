@@ -0,0 +1,140 @@
+package com.oranba.springboot.catalog.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import com.oranba.springboot.catalog.domain.model.Product;
+import com.oranba.springboot.catalog.support.IntegrationTest;
+import com.oranba.springboot.catalog.support.TestData;
+
+class ProductSearchRepositoryTests extends IntegrationTest {
+
+    @Autowired
+    private ProductSearchRepository productSearchRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void everyTokenBecomesARequiredPrefixTerm () {
+        assertThat(ProductSearchRepository.prefixQuery("  Blue SH ")).isEqualTo("blue:* & sh:*");
+        assertThat(ProductSearchRepository.prefixQuery("Crème brûlée 2")).isEqualTo("crème:* & brûlée:* & 2:*");
+    }
+
+    @Test
+    void tsqueryOperatorsAreDropped () {
+        assertThat(ProductSearchRepository.prefixQuery("a&b | !c:* (d) <-> 'e' f\\g"))
+                .isEqualTo("a:* & b:* & c:* & d:* & e:* & f:* & g:*");
+        assertThat(ProductSearchRepository.prefixQuery("&|!():*")).isEmpty();
+        assertThat(ProductSearchRepository.prefixQuery("   ")).isEmpty();
+        assertThat(ProductSearchRepository.prefixQuery(null)).isEmpty();
+    }
+
+    @Test
+    void termsBeyondTheLimitAreIgnored () {
+        assertThat(ProductSearchRepository.prefixQuery("a b c d e f g h i j"))
+                .isEqualTo("a:* & b:* & c:* & d:* & e:* & f:* & g:* & h:*");
+    }
+
+    @Test
+    void partialInputMatchesNameSkuAndDescriptionWithNameAndSkuFirst () {
+        String word = word();
+        Product byDescription = save(product("Plain", null, "Fits every " + word + " model"));
+        Product byName = save(product(word + " lantern", null, null));
+        Product bySku = save(product("Other", word + "-" + UUID.randomUUID(), null));
+
+        Slice<Product> found = productSearchRepository.search(word.substring(0, 7).toUpperCase(), PageRequest.of(0, 10));
+
+        assertThat(found.getContent()).extracting(Product::getId).hasSize(3).endsWith(byDescription.getId())
+                                       .contains(byName.getId(), bySku.getId());
+    }
+
+    @Test
+    void misspelledNamesAreFoundBySimilarity () {
+        String word = word();
+        Product product = save(product(word + " lantern", null, null));
+
+        assertThat(productSearchRepository.search(misspell(word) + " lantern", PageRequest.of(0, 10)).getContent())
+                .extracting(Product::getId).containsExactly(product.getId());
+    }
+
+    @Test
+    void similarNamesAreNotMixedIntoPrefixMatches () {
+        String word = word();
+        Product prefixed = save(product(word + " lantern", null, null));
+        save(product(misspell(word) + " lantern", null, null));
+
+        assertThat(productSearchRepository.search(word + " lantern", PageRequest.of(0, 10)).getContent())
+                .extracting(Product::getId).containsExactly(prefixed.getId());
+    }
+
+    @Test
+    void inactiveProductsAreNotFound () {
+        String word = word();
+        Product active = save(product(word + " active", null, null));
+        Product inactive = product(word + " inactive", null, null);
+        inactive.setIsActive(false);
+        save(inactive);
+
+        assertThat(productSearchRepository.search(word, PageRequest.of(0, 10)).getContent())
+                .extracting(Product::getId).containsExactly(active.getId());
+    }
+
+    @Test
+    void resultsAreSlicedWithoutATotal () {
+        String word = word();
+        for (int i = 0; i < 3; i++) {
+            save(product(word + " " + i, null, null));
+        }
+
+        Slice<Product> first = productSearchRepository.search(word, PageRequest.of(0, 2));
+        Slice<Product> last = productSearchRepository.search(word, PageRequest.of(1, 2));
+
+        assertThat(first.getContent()).hasSize(2);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.getContent()).hasSize(1);
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    void queryWithoutTermsFindsNothing () {
+        assertThat(productSearchRepository.search("!!", PageRequest.of(0, 10))).isEmpty();
+        assertThat(productSearchRepository.approximateCount("!!")).isZero();
+    }
+
+    // A made-up word, so matches come only from this test's products in the shared database
+    private static String word () {
+        StringBuilder word = new StringBuilder("zq");
+        for (int i = 0; i < 10; i++) {
+            word.append((char) ('a' + ThreadLocalRandom.current().nextInt(26)));
+        }
+        return word.toString();
+    }
+
+    // One letter in the middle replaced, so the result is no longer a prefix of the word
+    private static String misspell (String word) {
+        char replacement = word.charAt(4) == 'x' ? 'y' : 'x';
+        return word.substring(0, 4) + replacement + word.substring(5);
+    }
+
+    private static Product product (String name, String sku, String description) {
+        Product product = TestData.product(name, new BigDecimal("5.00"), 1);
+        if (sku != null) {
+            product.setSku(sku);
+        }
+        product.setDescription(description);
+        return product;
+    }
+
+    private Product save (Product product) {
+        return productRepository.save(product);
+    }
+}
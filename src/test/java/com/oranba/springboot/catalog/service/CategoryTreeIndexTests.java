@@ -0,0 +1,60 @@
+package com.oranba.springboot.catalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.oranba.springboot.catalog.domain.model.Category;
+import com.oranba.springboot.catalog.service.CategoryTreeIndex.Breadcrumb;
+import com.oranba.springboot.catalog.support.IntegrationTest;
+import com.oranba.springboot.catalog.support.TestData;
+
+class CategoryTreeIndexTests extends IntegrationTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryTreeIndex categoryTreeIndex;
+
+    @Test
+    void movePatchesTheTreeLikeARebuild () {
+        Category first = categoryService.createCategory(TestData.category("First", null));
+        Category second = categoryService.createCategory(TestData.category("Second", null));
+        Category moved = categoryService.createCategory(TestData.category("Moved", first.getId()));
+        Category leaf = categoryService.createCategory(TestData.category("Leaf", moved.getId()));
+
+        Category update = TestData.category("Moved", second.getId());
+        categoryService.updateCategory(moved.getId(), update);
+
+        assertMoved(first, second, moved, leaf, update.getName());
+        categoryTreeIndex.rebuild();
+        assertMoved(first, second, moved, leaf, update.getName());
+    }
+
+    @Test
+    void deleteMakesChildrenRoots () {
+        Category parent = categoryService.createCategory(TestData.category("Parent", null));
+        Category child = categoryService.createCategory(TestData.category("Child", parent.getId()));
+
+        categoryService.deleteCategory(parent.getId());
+
+        assertThat(categoryTreeIndex.contains(parent.getId())).isFalse();
+        assertThat(categoryTreeIndex.ancestors(child.getId())).isEmpty();
+        assertThat(categoryTreeIndex.breadcrumbs(child.getId())).containsExactly(new Breadcrumb(child.getId(), child.getName()));
+    }
+
+    private void assertMoved (Category first, Category second, Category moved, Category leaf, String movedName) {
+        assertThat(categoryTreeIndex.descendants(first.getId())).isEqualTo(Set.of(first.getId()));
+        assertThat(categoryTreeIndex.descendants(second.getId())).isEqualTo(Set.of(second.getId(), moved.getId(), leaf.getId()));
+        assertThat(categoryTreeIndex.children(second.getId())).isEqualTo(List.of(moved.getId()));
+        assertThat(categoryTreeIndex.ancestors(leaf.getId())).containsExactly(second.getId(), moved.getId());
+        assertThat(categoryTreeIndex.breadcrumbs(leaf.getId())).containsExactly(new Breadcrumb(second.getId(), second.getName()),
+                                                                                 new Breadcrumb(moved.getId(), movedName),
+                                                                                 new Breadcrumb(leaf.getId(), leaf.getName()));
+    }
+}
@@ -0,0 +1,60 @@
+package com.oranba.springboot.catalog.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Throughput of {@link OrderNumberGenerator#nextId()} on one thread and under contention. One node can issue at most
+ * 4096 IDs per millisecond before the generator runs ahead of the clock.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dtest=OrderNumberGeneratorBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderNumberGeneratorBenchmark {
+
+    private OrderNumberGenerator generator;
+
+    @Setup
+    public void setUp () {
+        generator = OrderNumberGeneratorTests.generator(1);
+    }
+
+    @Benchmark
+    public long singleThread () {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long eightThreads () {
+        return generator.nextId();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void run () throws RunnerException {
+        new Runner(new OptionsBuilder().include(getClass().getName())
+                                       .forks(1)
+                                       .warmupIterations(3)
+                                       .warmupTime(TimeValue.seconds(1))
+                                       .measurementIterations(5)
+                                       .measurementTime(TimeValue.seconds(1))
+                                       .build()).run();
+    }
+}
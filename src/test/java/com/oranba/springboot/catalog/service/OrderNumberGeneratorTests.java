@@ -0,0 +1,107 @@
+package com.oranba.springboot.catalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.oranba.springboot.catalog.config.OrderNumberProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OrderNumberGeneratorTests {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 250_000;
+
+    @Test
+    void concurrentIdsAreDistinctAndMonotonicPerThread () throws Exception {
+        OrderNumberGenerator generator = generator(42);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>(THREADS);
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    long[] ids = new long[IDS_PER_THREAD];
+                    start.await();
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+
+            long[] all = new long[THREADS * IDS_PER_THREAD];
+            int offset = 0;
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get();
+                for (int i = 1; i < ids.length; i++) {
+                    assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                }
+                System.arraycopy(ids, 0, all, offset, ids.length);
+                offset += ids.length;
+            }
+
+            Arrays.sort(all);
+            for (int i = 0; i < all.length; i++) {
+                assertThat(nodeId(all[i])).isEqualTo(42);
+                if (i > 0) {
+                    assertThat(all[i]).isNotEqualTo(all[i - 1]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void sequenceOverflowCarriesIntoTheNextMillisecond () {
+        OrderNumberGenerator generator = generator(1);
+
+        // Far more IDs than one millisecond's sequence can hold, issued faster than the clock advances
+        long previous = generator.nextId();
+        for (int i = 0; i < 10 * (1 << OrderNumberGenerator.SEQUENCE_BITS); i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    void nodeIdOutOfRangeIsRejected () {
+        OrderNumberProperties properties = new OrderNumberProperties();
+        properties.setNodeId((int) OrderNumberGenerator.MAX_NODE_ID + 1);
+        assertThatIllegalArgumentException().isThrownBy(() -> new OrderNumberGenerator(properties, new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void unsetNodeIdIsOnlyAllowedForASingleReplica () {
+        OrderNumberProperties properties = new OrderNumberProperties();
+        assertThat(nodeId(new OrderNumberGenerator(properties, new SimpleMeterRegistry()).nextId())).isZero();
+
+        properties.setReplicas(2);
+        assertThatIllegalStateException().isThrownBy(() -> new OrderNumberGenerator(properties, new SimpleMeterRegistry()));
+
+        properties.setNodeId(7);
+        assertThat(nodeId(new OrderNumberGenerator(properties, new SimpleMeterRegistry()).nextId())).isEqualTo(7);
+    }
+
+    static OrderNumberGenerator generator (int nodeId) {
+        OrderNumberProperties properties = new OrderNumberProperties();
+        properties.setNodeId(nodeId);
+        return new OrderNumberGenerator(properties, new SimpleMeterRegistry());
+    }
+
+    private static long nodeId (long id) {
+        return (id >>> OrderNumberGenerator.SEQUENCE_BITS) & OrderNumberGenerator.MAX_NODE_ID;
+    }
+}
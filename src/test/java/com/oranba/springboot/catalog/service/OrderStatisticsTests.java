@@ -0,0 +1,108 @@
+package com.oranba.springboot.catalog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.oranba.springboot.catalog.domain.model.Order;
+import com.oranba.springboot.catalog.domain.model.OrderStatus;
+import com.oranba.springboot.catalog.support.IntegrationTest;
+
+class OrderStatisticsTests extends IntegrationTest {
+
+    private static final int WRITERS = 4;
+    private static final int ORDERS_PER_WRITER = 100;
+
+    @Autowired
+    private OrderStatistics orderStatistics;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void countsMatchTheTableAfterWritesRacingReconciles () throws Exception {
+        orderStatistics.reconcile();
+
+        // Reconciles race the first three quarters of the writes; any drift they leave is not corrected afterwards
+        AtomicInteger written = new AtomicInteger();
+        int reconcileUntil = WRITERS * ORDERS_PER_WRITER * 3 / 4;
+        try (ExecutorService executor = Executors.newFixedThreadPool(WRITERS + 1)) {
+            Future<?> reconciler = executor.submit(() -> {
+                while (written.get() < reconcileUntil) {
+                    orderStatistics.reconcile();
+                }
+            });
+
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < ORDERS_PER_WRITER; i++) {
+                        Order order = new Order();
+                        order.setCustomerId(ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE));
+                        order.setTotalAmount(BigDecimal.TEN);
+                        Long id = orderService.createOrder(order).getId();
+                        if (i % 2 == 0) {
+                            orderService.updateOrderStatus(id, OrderStatus.PAID);
+                        }
+                        if (i % 4 == 0) {
+                            orderService.updateOrderStatuses(Map.of(id, OrderStatus.SHIPPED));
+                        }
+                        if (i % 3 == 0) {
+                            orderService.updateOrderStatus(id, OrderStatus.CANCELLED);
+                        }
+                        written.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            reconciler.get();
+        }
+
+        assertThat(orderStatistics.snapshot()).isEqualTo(fromTable());
+    }
+
+    @Test
+    void reconcileAdoptsOrdersWrittenElsewhere () {
+        long before = (long) orderStatistics.snapshot().get(OrderStatus.DELIVERED.toString());
+
+        // Stands in for another replica, whose writes this node never sees as deltas
+        jdbcTemplate.update("""
+                INSERT INTO orders (order_number, customer_id, order_status, total_amount, created_at, updated_at)
+                VALUES ('STATS-' || gen_random_uuid(), 1, 'DELIVERED', 10.00, now(), now())
+                """);
+        assertThat(orderStatistics.snapshot().get(OrderStatus.DELIVERED.toString())).isEqualTo(before);
+
+        orderStatistics.reconcile();
+        assertThat(orderStatistics.snapshot()).isEqualTo(fromTable());
+    }
+
+    private Map<String, Object> fromTable () {
+        Map<String, Object> counts = new HashMap<>();
+        long total = 0;
+        for (OrderStatus status : OrderStatus.values()) {
+            Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM orders WHERE order_status = ?", Long.class, status.name());
+            counts.put(status.toString(), count);
+            total += count;
+        }
+        counts.put("TOTAL", total);
+        return counts;
+    }
+}
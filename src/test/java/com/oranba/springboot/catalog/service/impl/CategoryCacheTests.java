@@ -0,0 +1,48 @@
+package com.oranba.springboot.catalog.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.oranba.springboot.catalog.domain.model.Category;
+import com.oranba.springboot.catalog.service.CategoryService;
+import com.oranba.springboot.catalog.support.IntegrationTest;
+import com.oranba.springboot.catalog.support.TestData;
+
+class CategoryCacheTests extends IntegrationTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Test
+    void lookupByIdSeesUpdatesAndDeletesAtOnce () {
+        Category category = categoryService.createCategory(TestData.category("Cached", null));
+        assertThat(categoryService.findCategoryById(category.getId())).isPresent();
+
+        Category renamed = TestData.category("Renamed", null);
+        categoryService.updateCategory(category.getId(), renamed);
+        assertThat(categoryService.findCategoryById(category.getId())).get().extracting(Category::getName).isEqualTo(renamed.getName());
+
+        categoryService.deleteCategory(category.getId());
+        assertThat(categoryService.findCategoryById(category.getId())).isEmpty();
+    }
+
+    @Test
+    void menuListsAreRefreshedAfterAWrite () {
+        Category parent = categoryService.createCategory(TestData.category("Parent", null));
+        assertThat(categoryService.findByParentCategoryId(parent.getId())).isEmpty();
+        assertThat(categoryService.findAllCategories()).extracting(Category::getId).contains(parent.getId());
+
+        Category child = categoryService.createCategory(TestData.category("Child", parent.getId()));
+
+        // Served stale at first, then replaced by the background refresh
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(categoryService.findByParentCategoryId(parent.getId())).extracting(Category::getId).containsExactly(child.getId());
+            assertThat(categoryService.findAllCategories()).extracting(Category::getId).contains(child.getId());
+        });
+    }
+}
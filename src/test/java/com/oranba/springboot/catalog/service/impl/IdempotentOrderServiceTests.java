@@ -0,0 +1,107 @@
+package com.oranba.springboot.catalog.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.oranba.springboot.catalog.config.IdempotencyProperties;
+import com.oranba.springboot.catalog.domain.model.Order;
+import com.oranba.springboot.catalog.domain.model.Product;
+import com.oranba.springboot.catalog.repository.IdempotencyKeyRepository;
+import com.oranba.springboot.catalog.repository.OrderItemRepository;
+import com.oranba.springboot.catalog.repository.OrderRepository;
+import com.oranba.springboot.catalog.service.OrderService;
+import com.oranba.springboot.catalog.service.ProductService;
+import com.oranba.springboot.catalog.support.IntegrationTest;
+import com.oranba.springboot.catalog.support.TestData;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IdempotentOrderServiceTests extends IntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private IdempotencyProperties properties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void replayOnAnotherNodeReturnsTheOriginalOrderWithItems () {
+        Product product = productService.createProduct(TestData.product("Idempotent", new BigDecimal("3.00"), 10));
+        String key = UUID.randomUUID().toString();
+
+        Order original = node().createOrder(key, TestData.order(11L, Map.of(product, 2)));
+        Order replay = node().createOrder(key, TestData.order(11L, Map.of(product, 2)));
+
+        assertThat(replay.getId()).isEqualTo(original.getId());
+        assertThat(replay.getOrderNumber()).isEqualTo(original.getOrderNumber());
+        assertThat(replay.getOrderItems()).hasSize(1).first().satisfies(item -> {
+            assertThat(item.getProductId()).isEqualTo(product.getId());
+            assertThat(item.getQuantity()).isEqualTo(2);
+        });
+        assertThat(stock(product)).isEqualTo(8);
+    }
+
+    @Test
+    void concurrentRequestsOnTwoNodesCreateOneOrder () throws Exception {
+        Product product = productService.createProduct(TestData.product("Idempotent", new BigDecimal("3.00"), 10));
+        String key = UUID.randomUUID().toString();
+        IdempotentOrderServiceImpl nodeA = node();
+        IdempotentOrderServiceImpl nodeB = node();
+
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<Order> a = executor.submit(() -> {
+                start.await();
+                return nodeA.createOrder(key, TestData.order(12L, Map.of(product, 1)));
+            });
+            Future<Order> b = executor.submit(() -> {
+                start.await();
+                return nodeB.createOrder(key, TestData.order(12L, Map.of(product, 1)));
+            });
+            start.countDown();
+
+            assertThat(a.get().getId()).isEqualTo(b.get().getId());
+        }
+        assertThat(stock(product)).isEqualTo(9);
+    }
+
+    // Each instance has its own in-memory store, like a separate replica
+    private IdempotentOrderServiceImpl node () {
+        return new IdempotentOrderServiceImpl(orderService, orderRepository, orderItemRepository, idempotencyKeyRepository, properties,
+                                              transactionManager, new SimpleMeterRegistry());
+    }
+
+    private int stock (Product product) {
+        return jdbcTemplate.queryForObject("SELECT inventory FROM products WHERE id = ?", Integer.class, product.getId());
+    }
+}
@@ -0,0 +1,87 @@
+package com.oranba.springboot.catalog.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.oranba.springboot.catalog.domain.model.Order;
+import com.oranba.springboot.catalog.domain.model.Product;
+import com.oranba.springboot.catalog.service.OrderService;
+import com.oranba.springboot.catalog.service.ProductService;
+import com.oranba.springboot.catalog.support.IntegrationTest;
+import com.oranba.springboot.catalog.support.StatementCounter;
+import com.oranba.springboot.catalog.support.TestData;
+
+/**
+ * Statements per order and create latency against cart size. Item inserts go out as one JDBC batch and stock as one
+ * set-based decrement, so the statement count should stay flat as the cart grows.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dtest=OrderCreateBenchmark}.
+ */
+@Tag("benchmark")
+class OrderCreateBenchmark extends IntegrationTest {
+
+    private static final int[] CART_SIZES = { 1, 5, 10, 20, 40 };
+    private static final int WARMUP_ORDERS = 50;
+    private static final int MEASURED_ORDERS = 300;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void statementsAndLatencyByCartSize () {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < CART_SIZES[CART_SIZES.length - 1]; i++) {
+            products.add(productService.createProduct(TestData.product("Benchmark " + i, new BigDecimal("9.99"), 1_000_000)));
+        }
+
+        System.out.printf("%n%10s %18s %10s %10s%n", "cart size", "statements/order", "p50 ms", "p99 ms");
+        Map<Integer, Double> statementsBySize = new LinkedHashMap<>();
+        for (int cartSize : CART_SIZES) {
+            Map<Product, Integer> lines = new LinkedHashMap<>();
+            for (Product product : products.subList(0, cartSize)) {
+                lines.put(product, 1);
+            }
+
+            for (int i = 0; i < WARMUP_ORDERS; i++) {
+                orderService.createOrder(TestData.order(1L, lines));
+            }
+
+            long statements = 0;
+            long[] nanos = new long[MEASURED_ORDERS];
+            for (int i = 0; i < MEASURED_ORDERS; i++) {
+                Order order = TestData.order(1L, lines);
+                long start = System.nanoTime();
+                statements += StatementCounter.count(() -> orderService.createOrder(order)).statements();
+                nanos[i] = System.nanoTime() - start;
+            }
+
+            Arrays.sort(nanos);
+            double perOrder = (double) statements / MEASURED_ORDERS;
+            statementsBySize.put(cartSize, perOrder);
+            System.out.printf("%10d %18.2f %10.2f %10.2f%n", cartSize, perOrder, millis(nanos, 0.50), millis(nanos, 0.99));
+        }
+
+        // Pooled sequences fetch one more block per 50 ids, so larger carts may cost a fraction of a statement more
+        double smallest = statementsBySize.get(CART_SIZES[0]);
+        double largest = statementsBySize.get(CART_SIZES[CART_SIZES.length - 1]);
+        assertThat(largest).isLessThanOrEqualTo(smallest + 2);
+    }
+
+    private static double millis (long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
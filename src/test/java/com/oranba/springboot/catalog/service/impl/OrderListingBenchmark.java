@@ -0,0 +1,99 @@
+package com.oranba.springboot.catalog.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.oranba.springboot.catalog.domain.model.Order;
+import com.oranba.springboot.catalog.dto.CursorPage;
+import com.oranba.springboot.catalog.service.OrderService;
+import com.oranba.springboot.catalog.support.IntegrationTest;
+
+/**
+ * Latency of one customer's order listing on the first page and on page 10,000, paged by offset and by cursor. The
+ * offset page scans and discards every earlier row, while the keyset page seeks straight to its position, so only
+ * the offset latency should grow with depth.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dtest=OrderListingBenchmark}.
+ */
+@Tag("benchmark")
+class OrderListingBenchmark extends IntegrationTest {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_PAGE = 10_000;
+    private static final int WARMUP_REQUESTS = 20;
+    private static final int MEASURED_REQUESTS = 100;
+
+    private static final Sort SORT = Sort.by("createdAt", "id");
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void latencyByPageDepth () {
+        long customerId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+        jdbcTemplate.update("""
+                INSERT INTO orders (order_number, customer_id, order_status, total_amount, created_at, updated_at)
+                SELECT 'BENCH-' || ? || '-' || n, ?, 'CREATED', 10.00,
+                       TIMESTAMP '2024-01-01' + n * INTERVAL '1 second', TIMESTAMP '2024-01-01' + n * INTERVAL '1 second'
+                FROM generate_series(1, ?) AS n
+                """, customerId, customerId, (DEEP_PAGE + 1) * PAGE_SIZE);
+        jdbcTemplate.execute("ANALYZE orders");
+
+        // Walk to page 10,000 once; its cursor is then requested repeatedly
+        String deepCursor = null;
+        for (int page = 0; page < DEEP_PAGE; page++) {
+            deepCursor = orderService.scrollOrdersByCustomer(customerId, SORT, deepCursor, PAGE_SIZE).nextCursor();
+        }
+        String cursor = deepCursor;
+
+        System.out.printf("%n%10s %8s %10s %10s%n", "paging", "page", "p50 ms", "p99 ms");
+        double offsetFirst = measure("offset", 0, () -> orderService.findOrdersByCustomer(customerId, PageRequest.of(0, PAGE_SIZE, SORT)));
+        double offsetDeep = measure("offset", DEEP_PAGE,
+                                    () -> orderService.findOrdersByCustomer(customerId, PageRequest.of(DEEP_PAGE, PAGE_SIZE, SORT)));
+        double keysetFirst = measure("keyset", 0, () -> orderService.scrollOrdersByCustomer(customerId, SORT, null, PAGE_SIZE));
+        double keysetDeep = measure("keyset", DEEP_PAGE, () -> {
+            CursorPage<Order> page = orderService.scrollOrdersByCustomer(customerId, SORT, cursor, PAGE_SIZE);
+            assertThat(page.content()).hasSize(PAGE_SIZE);
+            return page;
+        });
+
+        System.out.printf("%nDeep page vs first page: offset %.1fx, keyset %.1fx%n", offsetDeep / offsetFirst, keysetDeep / keysetFirst);
+        assertThat(keysetDeep).isLessThan(offsetDeep);
+    }
+
+    // Median latency in milliseconds
+    private static double measure (String paging, int page, Supplier<?> request) {
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            request.get();
+        }
+
+        long[] nanos = new long[MEASURED_REQUESTS];
+        for (int i = 0; i < MEASURED_REQUESTS; i++) {
+            long start = System.nanoTime();
+            request.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(nanos);
+        System.out.printf("%10s %8d %10.2f %10.2f%n", paging, page, millis(nanos, 0.50), millis(nanos, 0.99));
+        return millis(nanos, 0.50);
+    }
+
+    private static double millis (long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,114 @@
+package com.oranba.springboot.catalog.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+
+import com.oranba.springboot.catalog.controller.OrderController;
+import com.oranba.springboot.catalog.domain.model.Order;
+import com.oranba.springboot.catalog.domain.model.OrderStatus;
+import com.oranba.springboot.catalog.dto.OrderStatusUpdateRequest;
+import com.oranba.springboot.catalog.dto.OrderStatusUpdateResult;
+import com.oranba.springboot.catalog.dto.OrderStatusUpdateResult.Outcome;
+import com.oranba.springboot.catalog.service.OrderService;
+import com.oranba.springboot.catalog.support.IntegrationTest;
+
+class OrderStatusBatchTests extends IntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderController orderController;
+
+    @Test
+    void concurrentBatchesMoveEachOrderOnce () throws Exception {
+        Map<Long, OrderStatus> updates = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            Order order = new Order();
+            order.setCustomerId(7L);
+            order.setTotalAmount(BigDecimal.TEN);
+            updates.put(orderService.createOrder(order).getId(), OrderStatus.PAID);
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<OrderStatusUpdateResult>>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            for (int i = 0; i < 2; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return orderService.updateOrderStatuses(updates);
+                }));
+            }
+            start.countDown();
+
+            List<OrderStatusUpdateResult> results = new ArrayList<>();
+            for (Future<List<OrderStatusUpdateResult>> future : futures) {
+                results.addAll(future.get());
+            }
+            // Exactly one batch moved, and published an event for, each order; the other saw a conflict
+            assertThat(results).filteredOn(result -> result.outcome() == Outcome.UPDATED).hasSize(updates.size());
+            assertThat(results).filteredOn(result -> result.outcome() == Outcome.UPDATED)
+                               .extracting(OrderStatusUpdateResult::id)
+                               .doesNotHaveDuplicates();
+        }
+    }
+
+    @Test
+    void resultsFollowTheRequestOrder () {
+        long created = createOrder();
+        long paid = createOrder();
+        orderService.updateOrderStatus(paid, OrderStatus.PAID);
+        long missing = Long.MAX_VALUE;
+
+        // Mixed outcomes and target statuses, so the service's grouping would reorder them
+        List<OrderStatusUpdateRequest> requests = List.of(new OrderStatusUpdateRequest(paid, "shipped"),
+                                                          new OrderStatusUpdateRequest(missing, "paid"),
+                                                          new OrderStatusUpdateRequest(created, "delivered"),
+                                                          new OrderStatusUpdateRequest(-1L, "lost"),
+                                                          new OrderStatusUpdateRequest(missing - 1, "paid"));
+
+        List<OrderStatusUpdateResult> results = orderController.updateOrderStatuses(requests).getBody();
+        assertThat(results).extracting(OrderStatusUpdateResult::id)
+                           .containsExactly(paid, missing, created, -1L, missing - 1);
+        assertThat(results).extracting(OrderStatusUpdateResult::outcome)
+                           .containsExactly(Outcome.UPDATED, Outcome.NOT_FOUND, Outcome.INVALID_TRANSITION, Outcome.INVALID_STATUS,
+                                            Outcome.NOT_FOUND);
+    }
+
+    @Test
+    void duplicateIdsAreRejected () {
+        long id = createOrder();
+        List<OrderStatusUpdateRequest> requests = List.of(new OrderStatusUpdateRequest(id, "PAID"),
+                                                          new OrderStatusUpdateRequest(id, "CANCELLED"));
+
+        assertThat(orderController.updateOrderStatuses(requests).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(orderService.findOrderById(id)).map(Order::getOrderStatus).contains(OrderStatus.CREATED);
+    }
+
+    @Test
+    void oversizedBatchIsRejected () {
+        List<OrderStatusUpdateRequest> requests = Collections.nCopies(5001, new OrderStatusUpdateRequest(1L, "PAID"));
+        assertThat(orderController.updateOrderStatuses(requests).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private long createOrder () {
+        Order order = new Order();
+        order.setCustomerId(7L);
+        order.setTotalAmount(BigDecimal.TEN);
+        return orderService.createOrder(order).getId();
+    }
+}
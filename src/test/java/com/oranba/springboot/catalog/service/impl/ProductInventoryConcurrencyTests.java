@@ -0,0 +1,105 @@
+package com.oranba.springboot.catalog.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.oranba.springboot.catalog.controller.OrderController;
+import com.oranba.springboot.catalog.domain.model.Order;
+import com.oranba.springboot.catalog.domain.model.Product;
+import com.oranba.springboot.catalog.exception.InsufficientInventoryException;
+import com.oranba.springboot.catalog.repository.ProductInventoryRepository;
+import com.oranba.springboot.catalog.service.OrderService;
+import com.oranba.springboot.catalog.service.ProductService;
+import com.oranba.springboot.catalog.support.IntegrationTest;
+import com.oranba.springboot.catalog.support.TestData;
+
+class ProductInventoryConcurrencyTests extends IntegrationTest {
+
+    private static final int DECREMENTS = 500;
+    private static final int STOCK = 300;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductInventoryRepository productInventoryRepository;
+
+    @Autowired
+    private OrderController orderController;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Test
+    void concurrentDecrementsNeverOversell () throws Exception {
+        Product product = productService.createProduct(TestData.product("Contended", new BigDecimal("5.00"), STOCK));
+        // Cache the product so the test also covers the cached stock level
+        productService.findProductById(product.getId());
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Set<Integer> stockLevels = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>(DECREMENTS);
+        try (ExecutorService executor = Executors.newFixedThreadPool(64)) {
+            for (int i = 0; i < DECREMENTS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        stockLevels.add(productService.updateInventory(product.getId(), -1).getInventory());
+                        succeeded.incrementAndGet();
+                    }
+                    catch (InsufficientInventoryException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertThat(succeeded).hasValue(STOCK);
+        assertThat(rejected).hasValue(DECREMENTS - STOCK);
+        // Every successful decrement saw its own stock level: none was lost or applied twice
+        assertThat(stockLevels).hasSize(STOCK).allMatch(level -> level >= 0 && level < STOCK);
+        assertThat(jdbcTemplate.queryForObject("SELECT inventory FROM products WHERE id = ?", Integer.class, product.getId())).isZero();
+        assertThat(productService.findProductById(product.getId())).get().extracting(Product::getInventory).isEqualTo(0);
+    }
+
+    @Test
+    void nonPositiveQuantitiesNeverAddStock () {
+        Product product = productService.createProduct(TestData.product("Guarded", new BigDecimal("5.00"), 10));
+
+        assertThat(productInventoryRepository.decrementInventory(Map.of(product.getId(), -5))).isEmpty();
+        assertThat(productInventoryRepository.decrementInventory(Map.of(product.getId(), 0))).isEmpty();
+
+        Order order = TestData.order(1L, Map.of(product, -5));
+        assertThat(orderController.createOrder(order, null).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThatIllegalArgumentException().isThrownBy(() -> orderService.createOrder(TestData.order(1L, Map.of(product, 0))));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT inventory FROM products WHERE id = ?", Integer.class, product.getId())).isEqualTo(10);
+    }
+}
@@ -0,0 +1,129 @@
+package com.oranba.springboot.catalog.service.inventory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oranba.springboot.catalog.cache.ProductCacheInvalidator;
+import com.oranba.springboot.catalog.config.HotInventoryProperties;
+import com.oranba.springboot.catalog.domain.model.Product;
+import com.oranba.springboot.catalog.repository.ProductInventoryRepository;
+import com.oranba.springboot.catalog.service.ProductService;
+import com.oranba.springboot.catalog.support.IntegrationTest;
+import com.oranba.springboot.catalog.support.TestData;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class HotInventoryLedgerTests extends IntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductInventoryRepository productInventoryRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ProductCacheInvalidator productCacheInvalidator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rolledBackBorrowLeavesNothingBehind () {
+        Product product = product(100);
+        HotInventoryLedger ledger = ledger(product, 50);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            assertThat(ledger.reserve(product.getId(), 1)).isTrue();
+            status.setRollbackOnly();
+        });
+        assertThat(rowStock(product)).isEqualTo(100);
+
+        transaction.executeWithoutResult(status -> assertThat(ledger.reserve(product.getId(), 1)).isTrue());
+        assertThat(rowStock(product)).isEqualTo(50);
+
+        // The committed chunk now serves reservations locally
+        transaction.executeWithoutResult(status -> assertThat(ledger.reserve(product.getId(), 49)).isTrue());
+        assertThat(rowStock(product)).isEqualTo(50);
+
+        ledger.returnAll();
+        assertThat(rowStock(product)).isEqualTo(50);
+    }
+
+    @Test
+    void borrowsDoNotNeedASecondConnection () throws Exception {
+        // Twice the pool size, each order holding its connection while every reservation refills
+        int orders = 30;
+        Product product = product(orders);
+        HotInventoryLedger ledger = ledger(product, 1);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>(orders);
+        try (ExecutorService executor = Executors.newFixedThreadPool(orders)) {
+            for (int i = 0; i < orders; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return transaction.execute(status -> ledger.reserve(product.getId(), 1));
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> future : futures) {
+                assertThat(future.get(20, TimeUnit.SECONDS)).isTrue();
+            }
+        }
+        assertThat(rowStock(product)).isZero();
+    }
+
+    @Test
+    void dryRowGetsLocalStockBack () {
+        Product product = product(50);
+        HotInventoryLedger ledger = ledger(product, 50);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> ledger.reserve(product.getId(), 1));
+        assertThat(rowStock(product)).isZero();
+
+        // Not idle, but the product would look sold out while this node holds 49 units
+        ledger.flushIdle();
+        assertThat(rowStock(product)).isEqualTo(49);
+    }
+
+    private Product product (int stock) {
+        return productService.createProduct(TestData.product("Hot", new BigDecimal("1.00"), stock));
+    }
+
+    private HotInventoryLedger ledger (Product product, int chunkSize) {
+        HotInventoryProperties properties = new HotInventoryProperties();
+        properties.setProductIds(Set.of(product.getId()));
+        properties.setStripes(2);
+        properties.setChunkSize(chunkSize);
+        return new HotInventoryLedger(properties, productInventoryRepository, cacheManager, productCacheInvalidator, transactionManager,
+                                      new SimpleMeterRegistry());
+    }
+
+    private int rowStock (Product product) {
+        return jdbcTemplate.queryForObject("SELECT inventory FROM products WHERE id = ?", Integer.class, product.getId());
+    }
+}
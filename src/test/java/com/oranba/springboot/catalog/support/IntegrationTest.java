@@ -0,0 +1,27 @@
+package com.oranba.springboot.catalog.support;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Base for tests against the whole application, backed by {@link TestPostgres} and an embedded Kafka broker. Subclasses
+ * share one application context and one database, so they create their own rows rather than assume an empty table.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+                properties = { "catalog.cache.snapshot.enabled=false",
+                               "spring.jpa.properties.hibernate.show_sql=false",
+                               "logging.level.org.apache.kafka=warn" })
+@Import(StatementCounter.class)
+@EmbeddedKafka(partitions = 3, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+public abstract class IntegrationTest {
+
+    @DynamicPropertySource
+    static void postgres (DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", TestPostgres::jdbcUrl);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+}
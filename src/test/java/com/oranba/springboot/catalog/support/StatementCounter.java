@@ -0,0 +1,117 @@
+package com.oranba.springboot.catalog.support;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Counts the statements a piece of code sends to the database. Every statement execution and every JDBC batch counts as
+ * one round trip. Only the calling thread is counted, so background pollers sharing the pool do not skew the result.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class StatementCounter {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate",
+                                                              "executeBatch", "executeLargeBatch");
+
+    private static final ThreadLocal<long[]> COUNT = new ThreadLocal<>();
+
+    /**
+     * Runs {@code work} on this thread and returns its result together with the number of statements it sent.
+     */
+    public static <T> Counted<T> count (Supplier<T> work) {
+        long[] previous = COUNT.get();
+        long[] count = new long[1];
+        COUNT.set(count);
+        try {
+            T result = work.get();
+            return new Counted<>(result, count[0]);
+        }
+        finally {
+            COUNT.set(previous);
+        }
+    }
+
+    @Bean
+    static BeanPostProcessor statementCountingDataSource () {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization (Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? new CountingDataSource(dataSource) : bean;
+            }
+        };
+    }
+
+    public record Counted<T>(T result, long statements) {
+    }
+
+    private static final class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource (DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection () throws SQLException {
+            return wrap(Connection.class, super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection (String username, String password) throws SQLException {
+            return wrap(Connection.class, super.getConnection(username, password));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T wrap (Class<T> type, T target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof Statement statement && !(result instanceof Proxy)) {
+                return wrapStatement(statement);
+            }
+            return result;
+        };
+        return (T) Proxy.newProxyInstance(StatementCounter.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    private static Statement wrapStatement (Statement target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (EXECUTE_METHODS.contains(method.getName())) {
+                long[] count = COUNT.get();
+                if (count != null) {
+                    count[0]++;
+                }
+            }
+            return invoke(target, method, args);
+        };
+        // Expose the most specific statement interface the driver handed out
+        Class<?> type = target instanceof CallableStatement ? CallableStatement.class
+                      : target instanceof PreparedStatement ? PreparedStatement.class
+                      : Statement.class;
+        return (Statement) Proxy.newProxyInstance(StatementCounter.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    private static Object invoke (Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        }
+        catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
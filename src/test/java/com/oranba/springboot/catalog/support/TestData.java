@@ -0,0 +1,60 @@
+package com.oranba.springboot.catalog.support;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.oranba.springboot.catalog.domain.model.Category;
+import com.oranba.springboot.catalog.domain.model.Order;
+import com.oranba.springboot.catalog.domain.model.OrderItem;
+import com.oranba.springboot.catalog.domain.model.Product;
+
+/**
+ * Unsaved entities for tests. SKUs and category names are unique per call, since all tests share one database.
+ */
+public final class TestData {
+
+    private TestData () {
+    }
+
+    public static Product product (String name, BigDecimal price, int inventory) {
+        Product product = new Product();
+        product.setSku("TEST-" + UUID.randomUUID());
+        product.setName(name);
+        product.setPrice(price);
+        product.setInventory(inventory);
+        product.setIsActive(true);
+        return product;
+    }
+
+    public static Category category (String name, Long parentCategoryId) {
+        Category category = new Category();
+        category.setName(name + " " + UUID.randomUUID());
+        category.setParentCategoryId(parentCategoryId);
+        return category;
+    }
+
+    /**
+     * @param lines
+     *        Quantity per product; iteration order becomes line order
+     */
+    public static Order order (long customerId, Map<Product, Integer> lines) {
+        Order order = new Order();
+        order.setCustomerId(customerId);
+        BigDecimal total = BigDecimal.ZERO;
+        List<OrderItem> items = new ArrayList<>(lines.size());
+        for (Map.Entry<Product, Integer> line : lines.entrySet()) {
+            OrderItem item = new OrderItem();
+            item.setProductId(line.getKey().getId());
+            item.setQuantity(line.getValue());
+            item.setPriceAtOrder(line.getKey().getPrice());
+            items.add(item);
+            total = total.add(line.getKey().getPrice().multiply(BigDecimal.valueOf(line.getValue())));
+        }
+        order.setTotalAmount(total);
+        order.setOrderItems(items);
+        return order;
+    }
+}
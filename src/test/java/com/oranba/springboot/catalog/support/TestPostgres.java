@@ -0,0 +1,30 @@
+package com.oranba.springboot.catalog.support;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * One real PostgreSQL server per test JVM, started on first use from the binaries bundled with embedded-postgres.
+ * embedded-postgres stops it again from its own shutdown hook.
+ */
+public final class TestPostgres {
+
+    private static EmbeddedPostgres postgres;
+
+    private TestPostgres () {
+    }
+
+    public static synchronized String jdbcUrl () {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.start();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException("Could not start PostgreSQL", e);
+            }
+        }
+        return postgres.getJdbcUrl("postgres", "postgres");
+    }
+}